@@ -0,0 +1,84 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.BloodStockIndex;
+import com.adityaverma.blood_bank_system.service.DemandForecastService;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.CompactRedisSerializer;
+import com.adityaverma.blood_bank_system.util.MetricTags;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Encode and decode cost of cached values under each codec: an inventory summary, as
+ * in the {@code bloodInventory} cache, and a donor list, as in {@code eligibleDonors}.
+ * JDK is the cache manager's default serialization. Bytes stored per value are printed
+ * once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class CacheCodecBenchmark {
+
+    @Param({"JDK", "SMILE", "SMILE_LZ4"})
+    private String codec;
+
+    @Param({"bloodInventory", "eligibleDonors"})
+    private String cache;
+
+    @Param({"200"})
+    private int donorCount;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = CompactRedisSerializer.smileMapper();
+        JavaType type;
+        if (cache.equals("bloodInventory")) {
+            BloodInventoryService service = new BloodInventoryService(null, null, new BloodStockIndex(null),
+                    new SimpleMeterRegistry(), new MetricTags(), null, mock(DemandForecastService.class), new BusinessClock(), null);
+            value = service.summarize("BANK-1", SyntheticData.bloodUnits(10_000, "BANK-1", 42), Map.of(), LocalDate.now());
+            type = mapper.constructType(value.getClass());
+        } else {
+            value = new ArrayList<>(SyntheticData.donors(donorCount, 7));
+            type = mapper.getTypeFactory().constructCollectionType(List.class, User.class);
+        }
+
+        serializer = switch (codec) {
+            case "JDK" -> RedisSerializer.java(getClass().getClassLoader());
+            case "SMILE" -> CompactRedisSerializer.smile(mapper, type, 1, -1);
+            case "SMILE_LZ4" -> CompactRedisSerializer.smile(mapper, type, 1, 1024);
+            default -> throw new IllegalArgumentException("Unknown codec " + codec);
+        };
+        encoded = serializer.serialize(value);
+        System.out.printf("%n%s %s: %d bytes stored%n", cache, codec, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+}
\ No newline at end of file
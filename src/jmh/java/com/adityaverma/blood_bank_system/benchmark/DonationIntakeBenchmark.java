@@ -0,0 +1,102 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.service.DonationIntakeService;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.IdGenerator;
+import com.adityaverma.blood_bank_system.util.QRCodeGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Donations per second through the in-process part of intake for a 500-donor blood
+ * drive: splitting into units with IDs, expiry and QR payloads, and encoding the
+ * donation and unit documents that the bulk inserts send. Rendering one QR PNG is
+ * measured alongside to show why labels are rendered on demand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class DonationIntakeBenchmark {
+
+    private static final String BANK_ID = "BANK-1";
+    private static final int DRIVE_SIZE = 500;
+
+    private List<User> donors;
+    private DonationIntakeService service;
+    private QRCodeGenerator qrCodeGenerator;
+    private MappingMongoConverter converter;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        donors = SyntheticData.donors(DRIVE_SIZE, 23);
+        qrCodeGenerator = new QRCodeGenerator();
+        service = new DonationIntakeService(null, null, new IdGenerator(), qrCodeGenerator, null, null, new BusinessClock());
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+
+        payload = qrCodeGenerator.payloadFor(SyntheticData.bloodUnits(1, BANK_ID, 29).get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DRIVE_SIZE)
+    public List<BloodUnit> prepareDrive() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BloodUnit> units = new ArrayList<>(DRIVE_SIZE * 3);
+        for (User donor : donors) {
+            units.addAll(service.prepare(wholeBlood(), donor, now));
+        }
+        return units;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DRIVE_SIZE)
+    public List<Document> prepareAndEncodeDrive() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Document> documents = new ArrayList<>(DRIVE_SIZE * 4);
+        for (User donor : donors) {
+            Donation donation = wholeBlood();
+            for (BloodUnit unit : service.prepare(donation, donor, now)) {
+                documents.add(encode(unit));
+            }
+            documents.add(encode(donation));
+        }
+        return documents;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] renderQrLabel() {
+        return qrCodeGenerator.toPng(payload, 200);
+    }
+
+    private Document encode(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    private static Donation wholeBlood() {
+        return Donation.builder()
+                .bloodBankId(BANK_ID)
+                .donationType(Donation.DonationType.WHOLE_BLOOD)
+                .volumeMl(450)
+                .build();
+    }
+}
\ No newline at end of file
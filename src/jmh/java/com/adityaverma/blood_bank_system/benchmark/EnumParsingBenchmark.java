@@ -0,0 +1,117 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.util.EnumLookupDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup-table enum parsing against the string-normalising code it replaced, for
+ * direct calls and for a JSON request body. Run with {@code -prof gc} to compare
+ * allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EnumParsingBenchmark {
+
+    private static final String[] COMPONENT_INPUTS = {"WHOLE_BLOOD", "PLASMA", "PLATELETS", "RED_BLOOD_CELLS"};
+    private static final String[] URGENCY_INPUTS = {"CRITICAL", "URGENT", "HIGH", "NORMAL"};
+
+    private String[] bloodGroupInputs;
+    private String requestJson;
+    private ObjectReader defaultReader;
+    private ObjectReader lookupReader;
+    private int cursor;
+
+    public record RequestBody(
+            BloodGroup bloodGroup,
+            BloodComponent componentType,
+            BloodRequest.UrgencyLevel urgencyLevel) {}
+
+    @Setup
+    public void setUp() {
+        bloodGroupInputs = SyntheticData.bloodGroupInputs();
+        requestJson = "{\"bloodGroup\":\"O_NEGATIVE\",\"componentType\":\"RED_BLOOD_CELLS\",\"urgencyLevel\":\"CRITICAL\"}";
+
+        defaultReader = new ObjectMapper().readerFor(RequestBody.class);
+
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(BloodGroup.class, new EnumLookupDeserializer<>(BloodGroup.lookup()));
+        module.addDeserializer(BloodComponent.class, new EnumLookupDeserializer<>(BloodComponent.lookup()));
+        module.addDeserializer(BloodRequest.UrgencyLevel.class,
+                new EnumLookupDeserializer<>(BloodRequest.UrgencyLevel.lookup()));
+        lookupReader = new ObjectMapper().registerModule(module).readerFor(RequestBody.class);
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & 1023;
+    }
+
+    @Benchmark
+    public BloodGroup bloodGroupLegacySwitch() {
+        return legacyFromString(bloodGroupInputs[next() % bloodGroupInputs.length]);
+    }
+
+    @Benchmark
+    public BloodGroup bloodGroupLookup() {
+        return BloodGroup.fromString(bloodGroupInputs[next() % bloodGroupInputs.length]);
+    }
+
+    @Benchmark
+    public BloodComponent componentValueOf() {
+        return BloodComponent.valueOf(COMPONENT_INPUTS[next() & 3]);
+    }
+
+    @Benchmark
+    public BloodComponent componentLookup() {
+        return BloodComponent.lookup().parse(COMPONENT_INPUTS[next() & 3]);
+    }
+
+    @Benchmark
+    public boolean urgencyValueOfAndEquals() {
+        String input = URGENCY_INPUTS[next() & 3];
+        return BloodRequest.UrgencyLevel.valueOf(input) != null && input.equals("CRITICAL");
+    }
+
+    @Benchmark
+    public boolean urgencyLookup() {
+        return BloodRequest.UrgencyLevel.lookup().parse(URGENCY_INPUTS[next() & 3])
+                == BloodRequest.UrgencyLevel.CRITICAL;
+    }
+
+    @Benchmark
+    public RequestBody requestBodyDefaultEnums() throws IOException {
+        return defaultReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public RequestBody requestBodyLookupEnums() throws IOException {
+        return lookupReader.readValue(requestJson);
+    }
+
+    // BloodGroup.fromString before the lookup table
+    private static BloodGroup legacyFromString(String value) {
+        return switch (value.toUpperCase().replace(" ", "")) {
+            case "A+", "APOSITIVE" -> BloodGroup.A_POSITIVE;
+            case "A-", "ANEGATIVE" -> BloodGroup.A_NEGATIVE;
+            case "B+", "BPOSITIVE" -> BloodGroup.B_POSITIVE;
+            case "B-", "BNEGATIVE" -> BloodGroup.B_NEGATIVE;
+            case "AB+", "ABPOSITIVE" -> BloodGroup.AB_POSITIVE;
+            case "AB-", "ABNEGATIVE" -> BloodGroup.AB_NEGATIVE;
+            case "O+", "OPOSITIVE" -> BloodGroup.O_POSITIVE;
+            case "O-", "ONEGATIVE" -> BloodGroup.O_NEGATIVE;
+            default -> throw new IllegalArgumentException("Invalid blood group: " + value);
+        };
+    }
+}
\ No newline at end of file
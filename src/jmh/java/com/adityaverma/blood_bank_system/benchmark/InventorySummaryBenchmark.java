@@ -0,0 +1,53 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.BloodStockIndex;
+import com.adityaverma.blood_bank_system.service.DemandForecastService;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.MetricTags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Grouping cost of getInventorySummary for one bank, with the repository returning a
+ * pre-built list so only the in-process work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class InventorySummaryBenchmark {
+
+    private static final String BANK_ID = "BANK-1";
+
+    @Param({"1000", "10000", "100000"})
+    private int unitCount;
+
+    private BloodInventoryService service;
+
+    @Setup
+    public void setUp() {
+        List<BloodUnit> units = SyntheticData.bloodUnits(unitCount, BANK_ID, 42);
+        BloodUnitRepository repository = mock(BloodUnitRepository.class);
+        when(repository.findByBloodBankId(BANK_ID)).thenReturn(units);
+
+        service = new BloodInventoryService(repository, null, new BloodStockIndex(null),
+                new SimpleMeterRegistry(), new MetricTags(), null, mock(DemandForecastService.class), new BusinessClock(), null);
+    }
+
+    @Benchmark
+    public BloodInventorySummaryResponse inventorySummary() {
+        return service.getInventorySummary(BANK_ID);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the model predicates used inside stream filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ModelBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private String[] bloodGroupInputs;
+    private List<User> donors;
+    private List<Donation.MedicalScreening> screenings;
+    private List<BloodUnit> units;
+    private BusinessClock businessClock;
+    private User.DonationCutoffs donationCutoffs;
+    private LocalDateTime deferralCutoff;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        bloodGroupInputs = SyntheticData.bloodGroupInputs();
+        donors = SyntheticData.donors(SIZE, 7);
+        screenings = SyntheticData.screenings(SIZE, 11);
+        units = SyntheticData.bloodUnits(SIZE, "BANK-1", 13);
+        businessClock = new BusinessClock();
+        donationCutoffs = User.DonationCutoffs.of(businessClock.today());
+        deferralCutoff = Donation.MedicalScreening.deferralCutoff(businessClock.now());
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public BloodGroup bloodGroupFromString() {
+        return BloodGroup.fromString(bloodGroupInputs[next() % bloodGroupInputs.length]);
+    }
+
+    @Benchmark
+    public boolean userIsEligibleForDonation() {
+        return donors.get(next()).isEligibleForDonation();
+    }
+
+    @Benchmark
+    public boolean userIsEligibleForDonationWithCutoffs() {
+        return donors.get(next()).isEligibleForDonation(donationCutoffs);
+    }
+
+    @Benchmark
+    public boolean medicalScreeningIsEligible() {
+        return screenings.get(next()).isEligible();
+    }
+
+    @Benchmark
+    public boolean medicalScreeningIsEligibleWithCutoff() {
+        return screenings.get(next()).isEligible(deferralCutoff);
+    }
+
+    @Benchmark
+    public boolean bloodUnitIsExpiringSoon() {
+        return units.get(next()).isExpiringSoon(3);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bloodUnitIsExpiringSoonFilter(Blackhole blackhole) {
+        for (BloodUnit unit : units) {
+            blackhole.consume(unit.isExpiringSoon(3));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bloodUnitIsExpiringSoonEpochDayFilter(Blackhole blackhole) {
+        long today = businessClock.epochDay();
+        for (BloodUnit unit : units) {
+            blackhole.consume(unit.isExpiringSoon(today, 3));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generators for benchmark inputs. The fixed seed keeps runs comparable
+ * between releases.
+ */
+public final class SyntheticData {
+
+    private static final BloodGroup[] GROUPS = BloodGroup.values();
+    private static final BloodComponent[] COMPONENTS = BloodComponent.values();
+    private static final BloodUnit.Status[] STATUSES = BloodUnit.Status.values();
+
+    private SyntheticData() {
+    }
+
+    public static List<BloodUnit> bloodUnits(int count, String bloodBankId, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<BloodUnit> units = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            BloodComponent component = COMPONENTS[random.nextInt(COMPONENTS.length)];
+            LocalDate collected = today.minusDays(random.nextInt(component.getShelfLifeDays() + 10));
+            units.add(BloodUnit.builder()
+                    .unitId("BU-" + seed + "-" + i)
+                    .bloodBankId(bloodBankId)
+                    .bloodGroup(GROUPS[random.nextInt(GROUPS.length)])
+                    .componentType(component)
+                    .volumeMl(250 + random.nextInt(200))
+                    .collectionDate(collected)
+                    .expiryDate(collected.plusDays(component.getShelfLifeDays()))
+                    .status(random.nextInt(10) < 7 ? BloodUnit.Status.AVAILABLE : STATUSES[random.nextInt(STATUSES.length)])
+                    .build());
+        }
+        return units;
+    }
+
+    public static List<User> donors(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<User> donors = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            donors.add(User.builder()
+                    .id("U-" + i)
+                    .email("donor" + i + "@example.com")
+                    .fullName("Donor " + i)
+                    .bloodGroup(GROUPS[random.nextInt(GROUPS.length)])
+                    .dateOfBirth(today.minusYears(16 + random.nextInt(55)).minusDays(random.nextInt(365)))
+                    .weightKg(45.0 + random.nextInt(60))
+                    .lastDonationDate(random.nextInt(5) == 0 ? null : today.minusDays(random.nextInt(240)))
+                    .isDonor(true)
+                    .isActive(random.nextInt(20) != 0)
+                    .build());
+        }
+        return donors;
+    }
+
+    public static List<Donation.MedicalScreening> screenings(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<Donation.MedicalScreening> screenings = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            boolean tattoo = random.nextInt(5) == 0;
+            boolean piercing = random.nextInt(6) == 0;
+            boolean surgery = random.nextInt(10) == 0;
+            screenings.add(new Donation.MedicalScreening(
+                    random.nextInt(30) == 0,
+                    random.nextInt(20) == 0,
+                    tattoo, tattoo ? now.minusDays(random.nextInt(400)) : null,
+                    piercing, piercing ? now.minusDays(random.nextInt(400)) : null,
+                    surgery, surgery ? now.minusDays(random.nextInt(400)) : null,
+                    false, null,
+                    false, null,
+                    random.nextInt(50) == 0, null,
+                    null, "staff-" + (i % 10)
+            ));
+        }
+        return screenings;
+    }
+
+    /**
+     * A bank's event log: units enter as AVAILABLE, then are reserved and either
+     * issued or released, or expire on the shelf.
+     */
+    public static List<UnitEvent> unitEvents(int count, String bloodBankId, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<UnitEvent> events = new ArrayList<>(count);
+        List<BloodUnit.Status> path = new ArrayList<>();
+
+        for (int unit = 0; events.size() < count; unit++) {
+            path.clear();
+            path.add(BloodUnit.Status.AVAILABLE);
+            int roll = random.nextInt(10);
+            if (roll < 6) {
+                path.add(BloodUnit.Status.RESERVED);
+                path.add(roll < 5 ? BloodUnit.Status.ISSUED : BloodUnit.Status.AVAILABLE);
+            } else if (roll < 7) {
+                path.add(BloodUnit.Status.EXPIRED);
+            }
+
+            BloodGroup group = GROUPS[random.nextInt(GROUPS.length)];
+            BloodComponent component = COMPONENTS[random.nextInt(COMPONENTS.length)];
+            BloodUnit.Status from = null;
+            for (BloodUnit.Status to : path) {
+                if (events.size() == count) break;
+                events.add(UnitEvent.builder()
+                        .bloodBankId(bloodBankId)
+                        .sequence(events.size() + 1)
+                        .unitId("BU-" + seed + "-" + unit)
+                        .fromStatus(from)
+                        .toStatus(to)
+                        .bloodGroup(group)
+                        .componentType(component)
+                        .reference("REQ-" + random.nextInt(1000))
+                        .occurredAt(now)
+                        .build());
+                from = to;
+            }
+        }
+        return events;
+    }
+
+    public static String[] bloodGroupInputs() {
+        return new String[]{"A+", "a positive", "B-", "AB+", "ab negative", "O-", "O POSITIVE", "b+"};
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.adityaverma.blood_bank_system.benchmark;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.InventorySnapshot;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.service.InventoryProjection;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the unit event log outside Mongo: encoding one transition versus a full
+ * unit document, and rebuilding a bank's projection from zero versus from a snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class UnitEventBenchmark {
+
+    private static final String BANK_ID = "BANK-1";
+    private static final int SNAPSHOT_EVERY = 500;
+
+    @Param({"10000", "100000"})
+    private int eventCount;
+
+    private List<UnitEvent> events;
+    private InventorySnapshot latestSnapshot;
+    private MappingMongoConverter converter;
+    private UnitEvent event;
+    private BloodUnit unit;
+
+    @Setup
+    public void setUp() {
+        events = SyntheticData.unitEvents(eventCount, BANK_ID, 17);
+
+        InventoryProjection projection = new InventoryProjection(BANK_ID);
+        for (UnitEvent e : events) {
+            projection.apply(e);
+            if (e.getSequence() % SNAPSHOT_EVERY == 0) latestSnapshot = projection.toSnapshot();
+        }
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        event = events.get(events.size() / 2);
+        unit = SyntheticData.bloodUnits(1, BANK_ID, 19).get(0);
+    }
+
+    @Benchmark
+    public InventorySnapshot replayFromFirstEvent() {
+        InventoryProjection projection = new InventoryProjection(BANK_ID);
+        events.forEach(projection::apply);
+        return projection.toSnapshot();
+    }
+
+    @Benchmark
+    public InventorySnapshot replayFromSnapshot() {
+        InventoryProjection projection = InventoryProjection.fromSnapshot(latestSnapshot);
+        for (int i = (int) latestSnapshot.getSequence(); i < events.size(); i++) {
+            projection.apply(events.get(i));
+        }
+        return projection.toSnapshot();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Document encodeTransitionEvent() {
+        Document document = new Document();
+        converter.write(event, document);
+        return document;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Document encodeFullUnitDocument() {
+        Document document = new Document();
+        converter.write(unit, document);
+        return document;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.adityaverma.blood_bank_system.loadtest.LoadTestConfig.ThreadMode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Compares the blocking and reactive inventory read endpoints over HTTP. Boots the
+ * application with its servlet container on platform threads, seeds the usual
+ * synthetic data, then holds a fixed number of open connections against each
+ * endpoint in a closed loop, stepping through increasing connection counts.
+ * <p>
+ * For each step it reports throughput, p99, errors and process CPU per thousand
+ * requests; for each endpoint, the most connections held within
+ * {@code loadtest.target-p99-ms} and without errors, per core. The client runs in the
+ * same JVM, so CPU figures include its share and are only comparable between endpoints.
+ * <p>
+ * Run with {@code mvn -Pload-test test-compile exec:exec -Dloadtest.main=com.adityaverma.blood_bank_system.loadtest.InventoryReadProbe};
+ * tune with {@code -Dloadtest.args="-Dloadtest.connections=100,400,1600 -Dloadtest.step-seconds=30"}.
+ */
+public class InventoryReadProbe {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    record Step(int connections, long requests, long errors, double throughput, double p99Ms, double cpuMsPerThousand) {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<Integer> levels = parseLevels(System.getProperty("loadtest.connections", "50,200,800,2000"));
+        Duration step = Duration.ofSeconds(Long.getLong("loadtest.step-seconds", 20));
+        double targetP99Ms = Double.parseDouble(System.getProperty("loadtest.target-p99-ms", "500"));
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        try (StandIns standIns = StandIns.start();
+             ConfigurableApplicationContext context = LoadTestHarness.boot(
+                     standIns, config, ThreadMode.PLATFORM, WebApplicationType.SERVLET);
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Workload workload = new Workload(context);
+            workload.seed(config);
+            String base = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            String token = workload.bearerToken();
+            List<String> banks = workload.bankIds();
+
+            Map<String, Function<String, String>> endpoints = new LinkedHashMap<>();
+            endpoints.put("blocking-summary", bank -> "/api/inventory/" + bank + "/summary");
+            endpoints.put("reactive-summary", bank -> "/api/inventory/reactive/" + bank + "/summary");
+            endpoints.put("blocking-search", bank -> "/api/inventory/search?bloodBankId=" + bank);
+            endpoints.put("reactive-search", bank -> "/api/inventory/reactive/search?bloodBankId=" + bank);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+
+            Map<String, List<Step>> results = new LinkedHashMap<>();
+            for (Map.Entry<String, Function<String, String>> endpoint : endpoints.entrySet()) {
+                Function<String, HttpRequest> request = bank -> HttpRequest.newBuilder(
+                                URI.create(base + endpoint.getValue().apply(bank)))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofMinutes(1))
+                        .build();
+
+                run(client, request, banks, levels.get(0), config.warmup());
+                List<Step> steps = new ArrayList<>();
+                for (int connections : levels) {
+                    steps.add(run(client, request, banks, connections, step));
+                }
+                results.put(endpoint.getKey(), steps);
+            }
+
+            print(results, targetP99Ms, cores);
+        }
+    }
+
+    static Step run(HttpClient client, Function<String, HttpRequest> request, List<String> banks,
+                    int connections, Duration duration) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(MAX_TRACKED_NANOS, 3);
+        LongAdder errors = new LongAdder();
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService connectionsExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                connectionsExecutor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        String bank = banks.get(ThreadLocalRandom.current().nextInt(banks.size()));
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request.apply(bank), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 == 2) {
+                                latencies.recordValue(Math.min(System.nanoTime() - sent, MAX_TRACKED_NANOS));
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long requests = latencies.getTotalCount();
+        long cpuNanos = processCpuNanos() - cpuStart;
+        return new Step(
+                connections,
+                requests,
+                errors.sum(),
+                requests / seconds,
+                latencies.getValueAtPercentile(99) / 1_000_000.0,
+                requests == 0 ? 0.0 : cpuNanos / 1_000_000.0 / requests * 1000);
+    }
+
+    private static void print(Map<String, List<Step>> results, double targetP99Ms, int cores) {
+        System.out.printf("%-18s %11s %9s %7s %10s %9s %14s%n",
+                "endpoint", "connections", "requests", "errors", "req/s", "p99 ms", "cpu ms/1k req");
+        results.forEach((endpoint, steps) -> steps.forEach(s -> System.out.printf(
+                "%-18s %11d %9d %7d %10.1f %9.2f %14.1f%n",
+                endpoint, s.connections(), s.requests(), s.errors(), s.throughput(), s.p99Ms(), s.cpuMsPerThousand())));
+
+        System.out.printf("%nConnections sustained within p99 %.0f ms, per core (%d cores)%n", targetP99Ms, cores);
+        results.forEach((endpoint, steps) -> {
+            int sustained = steps.stream()
+                    .filter(s -> s.errors() == 0 && s.requests() > 0 && s.p99Ms() <= targetP99Ms)
+                    .mapToInt(Step::connections)
+                    .max()
+                    .orElse(0);
+            System.out.printf("%-18s %8.1f%n", endpoint, (double) sustained / cores);
+        });
+    }
+
+    private static long processCpuNanos() {
+        return ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os.getProcessCpuTime()
+                : 0;
+    }
+
+    private static List<Integer> parseLevels(String levels) {
+        List<Integer> result = new ArrayList<>();
+        for (String level : levels.split(",")) {
+            if (!level.isBlank()) result.add(Integer.parseInt(level.trim()));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No connection levels given: " + levels);
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and counters. Latency is measured from the
+ * operation's intended start so queueing behind slow calls is not hidden.
+ */
+public class LoadReport {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> skipped = new EnumMap<>(Operation.class);
+
+    public LoadReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_TRACKED_NANOS, 3));
+            errors.put(operation, new LongAdder());
+            skipped.put(operation, new LongAdder());
+        }
+    }
+
+    public void recordSuccess(Operation operation, long latencyNanos) {
+        latencies.get(operation).recordValue(Math.min(latencyNanos, MAX_TRACKED_NANOS));
+    }
+
+    public void recordSkipped(Operation operation) {
+        skipped.get(operation).increment();
+    }
+
+    public void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    public Map<String, OperationSummary> summarize(double measuredSeconds) {
+        Map<String, OperationSummary> summary = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long count = histogram.getTotalCount();
+            if (count == 0 && errors.get(operation).sum() == 0 && skipped.get(operation).sum() == 0) continue;
+
+            summary.put(operation.getKey(), new OperationSummary(
+                    count,
+                    errors.get(operation).sum(),
+                    skipped.get(operation).sum(),
+                    count / measuredSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())
+            ));
+        }
+        return summary;
+    }
+
+    public void print(Map<String, OperationSummary> summary) {
+        System.out.printf("%-10s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "skipped", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        summary.forEach((operation, s) -> System.out.printf("%-10s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation, s.count(), s.errors(), s.skipped(), s.throughput(), s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs()));
+    }
+
+    /**
+     * Throughput and p99 per operation, one column pair per thread mode.
+     */
+    public static void printComparison(Map<LoadTestConfig.ThreadMode, Map<String, OperationSummary>> results) {
+        System.out.printf("%nComparison%n%-10s", "operation");
+        results.keySet().forEach(mode -> System.out.printf(" %12s %12s", mode + " ops/s", mode + " p99"));
+        System.out.println();
+
+        results.values().stream()
+                .flatMap(summary -> summary.keySet().stream())
+                .distinct()
+                .forEach(operation -> {
+                    System.out.printf("%-10s", operation);
+                    results.values().forEach(summary -> {
+                        OperationSummary s = summary.get(operation);
+                        System.out.printf(" %12.1f %12.2f", s == null ? 0.0 : s.throughput(), s == null ? 0.0 : s.p99Ms());
+                    });
+                    System.out.println();
+                });
+    }
+
+    public void write(Path file, LoadTestConfig config, LoadTestConfig.ThreadMode mode,
+                      Map<String, OperationSummary> summary) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("targetRatePerSecond", config.ratePerSecond());
+        document.put("durationSeconds", config.duration().toSeconds());
+        document.put("threadMode", mode);
+        document.put("platformThreads", mode == LoadTestConfig.ThreadMode.PLATFORM ? config.platformThreads() : null);
+        document.put("mongoLatencyMs", config.mongoLatency().toMillis());
+        document.put("mix", config.mix());
+        document.put("operations", summary);
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record OperationSummary(
+            long count,
+            long errors,
+            long skipped,
+            double throughput,
+            double p50Ms,
+            double p95Ms,
+            double p99Ms,
+            double maxMs
+    ) {}
+}
\ No newline at end of file
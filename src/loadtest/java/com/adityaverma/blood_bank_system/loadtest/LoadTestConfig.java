@@ -0,0 +1,96 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code loadtest.*} system properties.
+ */
+public record LoadTestConfig(
+        double ratePerSecond,
+        Duration duration,
+        Duration warmup,
+        Map<Operation, Integer> mix,
+        int bloodBanks,
+        int seedUnits,
+        int seedDonors,
+        Path reportFile,
+        List<ThreadMode> threadModes,
+        int platformThreads,
+        Duration mongoLatency
+) {
+    /**
+     * How operations are executed, mirroring the web tier: a bounded platform pool the
+     * size of Tomcat's default, or one virtual thread per operation with
+     * {@code spring.threads.virtual.enabled} set for {@code @Async} and scheduled work.
+     */
+    public enum ThreadMode { PLATFORM, VIRTUAL }
+
+    static final String DEFAULT_MIX = "create=25,allocate=15,issue=10,register=5,login=10,inventory=35";
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Integer.getInteger("loadtest.banks", 10),
+                Integer.getInteger("loadtest.units", 50_000),
+                Integer.getInteger("loadtest.donors", 5_000),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")),
+                parseThreadModes(System.getProperty("loadtest.threads", "virtual")),
+                Integer.getInteger("loadtest.platform-threads", 200),
+                Duration.ofMillis(Long.getLong("loadtest.mongo-latency-ms", 0))
+        );
+    }
+
+    /**
+     * The report file for one mode; suffixed with the mode when several are compared.
+     */
+    public Path reportFile(ThreadMode mode) {
+        if (threadModes.size() == 1) return reportFile;
+        String name = reportFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String suffixed = dot < 0
+                ? name + "-" + mode.name().toLowerCase(Locale.ROOT)
+                : name.substring(0, dot) + "-" + mode.name().toLowerCase(Locale.ROOT) + name.substring(dot);
+        return reportFile.resolveSibling(suffixed);
+    }
+
+    static List<ThreadMode> parseThreadModes(String modes) {
+        List<ThreadMode> result = new ArrayList<>();
+        for (String mode : modes.split(",")) {
+            if (mode.isBlank()) continue;
+            try {
+                result.add(ThreadMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown thread mode, expected platform or virtual: " + mode);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No thread modes given: " + modes);
+        }
+        return result;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry, expected op=weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) weights.put(Operation.fromKey(parts[0]), weight);
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Load test mix has no operations: " + mix);
+        }
+        return weights;
+    }
+}
\ No newline at end of file
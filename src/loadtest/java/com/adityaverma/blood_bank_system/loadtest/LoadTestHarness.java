@@ -0,0 +1,138 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.adityaverma.blood_bank_system.BloodBankSystemApplication;
+import com.adityaverma.blood_bank_system.loadtest.LoadTestConfig.ThreadMode;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless open-model load generator. Boots the application against local stand-ins,
+ * seeds synthetic data, then issues the configured operation mix at a fixed arrival
+ * rate and reports throughput and latency percentiles per operation.
+ * <p>
+ * Run with {@code mvn -Pload-test test-compile exec:exec}; tune with
+ * {@code -Dloadtest.args="-Dloadtest.rate=500 -Dloadtest.duration=120 -Dloadtest.mix=inventory=80,login=20"}.
+ * <p>
+ * {@code -Dloadtest.threads=platform,virtual} runs the workload once per thread mode,
+ * each against a fresh context and database, and prints a side-by-side comparison.
+ * Combine with {@code -Dloadtest.mongo-latency-ms=50} to compare them against a slow
+ * database, where a bounded platform pool queues and virtual threads do not.
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        try (StandIns standIns = StandIns.start()) {
+            Map<ThreadMode, Map<String, LoadReport.OperationSummary>> results = new EnumMap<>(ThreadMode.class);
+
+            for (ThreadMode mode : config.threadModes()) {
+                try (ConfigurableApplicationContext context = boot(standIns, config, mode)) {
+                    Workload workload = new Workload(context);
+                    workload.seed(config);
+
+                    LoadReport report = run(workload, config, mode);
+                    Map<String, LoadReport.OperationSummary> summary = report.summarize(config.duration().toNanos() / 1e9);
+                    results.put(mode, summary);
+
+                    System.out.printf("%n%s threads, Mongo latency %d ms%n",
+                            mode.name().toLowerCase(Locale.ROOT), config.mongoLatency().toMillis());
+                    report.print(summary);
+                    report.write(config.reportFile(mode), config, mode, summary);
+                    System.out.printf("Report written to %s%n", config.reportFile(mode).toAbsolutePath());
+                }
+            }
+
+            if (results.size() > 1) LoadReport.printComparison(results);
+            System.out.printf("Emails captured by SMTP sink: %d%n", standIns.receivedEmails());
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(StandIns standIns, LoadTestConfig config, ThreadMode mode) {
+        return boot(standIns, config, mode, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext boot(StandIns standIns, LoadTestConfig config, ThreadMode mode,
+                                               WebApplicationType webApplicationType) {
+        String modeName = mode.name().toLowerCase(Locale.ROOT);
+        Map<String, Object> properties = new HashMap<>(standIns.applicationProperties());
+        properties.put("app.jwt.secret", "load-test-secret-load-test-secret-load-test-secret-load-test-secret-0123");
+        properties.put("app.jwt.expiration-ms", 3_600_000);
+        properties.put("app.jwt.refresh-expiration-ms", 86_400_000);
+        properties.put("app.email.from", "loadtest@bloodbank.local");
+        // Keep allocation driven by the mix rather than the background scheduler
+        properties.put("app.scheduler.drain-interval-ms", TimeUnit.HOURS.toMillis(1));
+        properties.put("spring.threads.virtual.enabled", mode == ThreadMode.VIRTUAL);
+        // Each mode starts from the same empty state rather than the previous run's data and cache
+        properties.put("spring.data.mongodb.database", "bloodbank_loadtest_" + modeName);
+        properties.put("spring.cache.redis.key-prefix", "loadtest-" + modeName + "::");
+        properties.put("server.port", 0);
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BloodBankSystemApplication.class)
+                .web(webApplicationType)
+                .properties(properties);
+        if (!config.mongoLatency().isZero()) {
+            builder.initializers(context -> context.getBeanFactory()
+                    .registerSingleton("slowMongo", SlowMongo.customizer(config.mongoLatency())));
+        }
+        return builder.run();
+    }
+
+    static LoadReport run(Workload workload, LoadTestConfig config, ThreadMode mode) {
+        LoadReport report = new LoadReport();
+        Operation[] wheel = weightedWheel(config.mix());
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond());
+        long warmupNanos = config.warmup().toNanos();
+        long start = System.nanoTime();
+        long end = start + warmupNanos + config.duration().toNanos();
+
+        try (ExecutorService executor = mode == ThreadMode.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.platformThreads())) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) break;
+
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                Operation operation = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+                boolean measured = intendedStart - start >= warmupNanos;
+
+                executor.submit(() -> {
+                    try {
+                        boolean executed = workload.execute(operation);
+                        if (!measured) return;
+                        if (executed) {
+                            report.recordSuccess(operation, System.nanoTime() - intendedStart);
+                        } else {
+                            report.recordSkipped(operation);
+                        }
+                    } catch (RuntimeException e) {
+                        if (measured) report.recordError(operation);
+                    }
+                });
+            }
+        }
+
+        return report;
+    }
+
+    private static Operation[] weightedWheel(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> java.util.stream.Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+}
\ No newline at end of file
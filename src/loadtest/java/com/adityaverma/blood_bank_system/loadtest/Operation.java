@@ -0,0 +1,27 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+public enum Operation {
+    CREATE_REQUEST("create"),
+    ALLOCATE("allocate"),
+    ISSUE("issue"),
+    REGISTER_DONOR("register"),
+    LOGIN("login"),
+    INVENTORY_READ("inventory");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) return operation;
+        }
+        throw new IllegalArgumentException("Unknown load test operation: " + key);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Adds a fixed delay before every Mongo data command, standing in for a remote or
+ * overloaded database. The delay blocks the calling thread, just like a slow round
+ * trip, so it exposes how many operations the executor can keep in flight.
+ */
+public class SlowMongo implements CommandListener {
+
+    // Handshakes and heartbeats run on driver threads and are left alone
+    private static final Set<String> SKIPPED = Set.of("hello", "isMaster", "ismaster", "ping", "buildInfo", "endSessions");
+
+    private final Duration latency;
+
+    private SlowMongo(Duration latency) {
+        this.latency = latency;
+    }
+
+    public static MongoClientSettingsBuilderCustomizer customizer(Duration latency) {
+        return builder -> builder.addCommandListener(new SlowMongo(latency));
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (SKIPPED.contains(event.getCommandName())) return;
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Map;
+
+/**
+ * Local Mongo, Redis and SMTP processes so the harness runs on a plain Linux box
+ * without Docker or external services.
+ */
+public class StandIns implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final RedisServer redis;
+    private final int redisPort;
+    private final GreenMail smtp;
+    private final int smtpPort;
+
+    private StandIns(TransitionWalker.ReachedState<RunningMongodProcess> mongod,
+                     RedisServer redis, int redisPort, GreenMail smtp, int smtpPort) {
+        this.mongod = mongod;
+        this.redis = redis;
+        this.redisPort = redisPort;
+        this.smtp = smtp;
+        this.smtpPort = smtpPort;
+    }
+
+    public static StandIns start() throws IOException {
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V7_0);
+
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        redis.start();
+
+        int smtpPort = freePort();
+        GreenMail smtp = new GreenMail(new ServerSetup(smtpPort, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        smtp.start();
+
+        return new StandIns(mongod, redis, redisPort, smtp, smtpPort);
+    }
+
+    public Map<String, Object> applicationProperties() {
+        ServerAddress mongo = mongod.current().getServerAddress();
+        return Map.of(
+                "spring.data.mongodb.uri", "mongodb://" + mongo.getHost() + ":" + mongo.getPort() + "/bloodbank_loadtest",
+                "spring.data.redis.host", "127.0.0.1",
+                "spring.data.redis.port", redisPort,
+                "spring.mail.host", "127.0.0.1",
+                "spring.mail.port", smtpPort
+        );
+    }
+
+    public int receivedEmails() {
+        return smtp.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        smtp.stop();
+        redis.stop();
+        mongod.close();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
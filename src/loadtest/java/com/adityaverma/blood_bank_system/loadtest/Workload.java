@@ -0,0 +1,220 @@
+package com.adityaverma.blood_bank_system.loadtest;
+
+import com.adityaverma.blood_bank_system.dto.requests.CreateBloodRequest;
+import com.adityaverma.blood_bank_system.dto.requests.RegisterDonorRequest;
+import com.adityaverma.blood_bank_system.model.BloodBank;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.repository.BloodBankRepository;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.repository.UserRepository;
+import com.adityaverma.blood_bank_system.security.JwtUtils;
+import com.adityaverma.blood_bank_system.service.AuthService;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.BloodRequestService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds synthetic banks, units and donors, then executes one operation of the mix
+ * against the service layer of a running application context.
+ */
+public class Workload {
+
+    private static final String SEED_PASSWORD = "LoadTest#2024";
+    private static final BloodGroup[] GROUPS = BloodGroup.values();
+    private static final BloodComponent[] COMPONENTS = BloodComponent.values();
+
+    private final BloodRequestService bloodRequestService;
+    private final BloodInventoryService bloodInventoryService;
+    private final AuthService authService;
+    private final AuthenticationManager authenticationManager;
+    private final JwtUtils jwtUtils;
+    private final ConfigurableApplicationContext context;
+
+    private final List<String> bankIds = new ArrayList<>();
+    private final List<String> donorEmails = new ArrayList<>();
+    private final Queue<String> createdRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<String> allocatedRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicLong registrations = new AtomicLong();
+
+    public Workload(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.bloodRequestService = context.getBean(BloodRequestService.class);
+        this.bloodInventoryService = context.getBean(BloodInventoryService.class);
+        this.authService = context.getBean(AuthService.class);
+        this.authenticationManager = context.getBean(AuthenticationManager.class);
+        this.jwtUtils = context.getBean(JwtUtils.class);
+    }
+
+    public void seed(LoadTestConfig config) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+
+        List<BloodBank> banks = new ArrayList<>();
+        for (int i = 0; i < config.bloodBanks(); i++) {
+            String bankId = "LT-BANK-" + i;
+            bankIds.add(bankId);
+            banks.add(BloodBank.builder()
+                    .bloodBankId(bankId)
+                    .name("Load Test Bank " + i)
+                    .city("City " + (i % 3))
+                    .location(new GeoJsonPoint(77.0 + random.nextDouble(), 28.0 + random.nextDouble()))
+                    .build());
+        }
+        context.getBean(BloodBankRepository.class).saveAll(banks);
+
+        List<BloodUnit> units = new ArrayList<>(config.seedUnits());
+        for (int i = 0; i < config.seedUnits(); i++) {
+            BloodComponent component = COMPONENTS[random.nextInt(COMPONENTS.length)];
+            LocalDate collected = today.minusDays(random.nextInt(Math.min(component.getShelfLifeDays(), 30)));
+            units.add(BloodUnit.builder()
+                    .unitId("LT-UNIT-" + i)
+                    .bloodBankId(bankIds.get(random.nextInt(bankIds.size())))
+                    .bloodGroup(GROUPS[random.nextInt(GROUPS.length)])
+                    .componentType(component)
+                    .volumeMl(350)
+                    .collectionDate(collected)
+                    .expiryDate(collected.plusDays(component.getShelfLifeDays()))
+                    .build());
+        }
+        context.getBean(BloodUnitRepository.class).saveAll(units);
+
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(SEED_PASSWORD);
+        List<User> donors = new ArrayList<>(config.seedDonors());
+        for (int i = 0; i < config.seedDonors(); i++) {
+            String email = "lt-donor-" + i + "@example.com";
+            donorEmails.add(email);
+            donors.add(User.builder()
+                    .email(email)
+                    .phone(String.format("9%09d", i))
+                    .password(passwordHash)
+                    .fullName("Load Test Donor " + i)
+                    .bloodGroup(GROUPS[random.nextInt(GROUPS.length)])
+                    .city("City " + (i % 3))
+                    .dateOfBirth(today.minusYears(20 + random.nextInt(40)))
+                    .weightKg(60.0)
+                    .isDonor(true)
+                    .build());
+        }
+        context.getBean(UserRepository.class).saveAll(donors);
+    }
+
+    public List<String> bankIds() {
+        return bankIds;
+    }
+
+    /**
+     * A JWT for a seeded donor, for driving the HTTP endpoints.
+     */
+    public String bearerToken() {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(donorEmails.get(0), SEED_PASSWORD));
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    /**
+     * @return false when the operation had nothing to act on (for example no request
+     * waiting to be allocated) and was skipped
+     */
+    public boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return switch (operation) {
+            case CREATE_REQUEST -> {
+                BloodRequest created = bloodRequestService.createRequest(new CreateBloodRequest(
+                        "Patient " + random.nextInt(1_000_000),
+                        GROUPS[random.nextInt(GROUPS.length)],
+                        COMPONENTS[random.nextInt(COMPONENTS.length)],
+                        1 + random.nextInt(3),
+                        random.nextInt(10) == 0 ? BloodRequest.UrgencyLevel.URGENT : BloodRequest.UrgencyLevel.NORMAL,
+                        "LT-HOSPITAL-" + random.nextInt(20),
+                        "Load test",
+                        "Dr. Load",
+                        LocalDateTime.now().plusHours(6),
+                        bankIds.get(random.nextInt(bankIds.size()))
+                ));
+                createdRequests.add(created.getRequestId());
+                yield true;
+            }
+            case ALLOCATE -> {
+                String requestId = createdRequests.poll();
+                if (requestId == null) yield false;
+
+                BloodRequest request = bloodRequestService.getRequest(requestId);
+                List<String> unitIds = bloodInventoryService.searchAvailableUnits(
+                                new BloodInventoryService.SearchCriteria.Combined(
+                                        request.getBloodGroup().name(),
+                                        request.getComponentType().name(),
+                                        bankIds.get(random.nextInt(bankIds.size()))))
+                        .stream()
+                        .limit(request.getQuantityUnits())
+                        .map(BloodUnit::getUnitId)
+                        .toList();
+                if (unitIds.size() < request.getQuantityUnits()) yield false;
+
+                bloodRequestService.allocateUnits(requestId, unitIds);
+                allocatedRequests.add(requestId);
+                yield true;
+            }
+            case ISSUE -> {
+                String requestId = allocatedRequests.poll();
+                if (requestId == null) yield false;
+
+                bloodRequestService.issueRequest(requestId);
+                yield true;
+            }
+            case REGISTER_DONOR -> {
+                long n = registrations.incrementAndGet();
+                authService.registerDonor(new RegisterDonorRequest(
+                        "Registered Donor " + n,
+                        "lt-registered-" + n + "@example.com",
+                        String.format("8%09d", n),
+                        SEED_PASSWORD,
+                        GROUPS[random.nextInt(GROUPS.length)],
+                        random.nextBoolean() ? "+" : "-",
+                        LocalDate.now().minusYears(25),
+                        "OTHER",
+                        70.0,
+                        170.0,
+                        "1 Load Test Road",
+                        "City " + (n % 3),
+                        "State",
+                        "Country",
+                        "110001",
+                        28.0 + random.nextDouble(),
+                        77.0 + random.nextDouble(),
+                        true
+                ));
+                yield true;
+            }
+            case LOGIN -> {
+                String email = donorEmails.get(random.nextInt(donorEmails.size()));
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(email, SEED_PASSWORD));
+                jwtUtils.generateJwtToken(authentication);
+                yield true;
+            }
+            case INVENTORY_READ -> {
+                bloodInventoryService.getInventorySummary(bankIds.get(random.nextInt(bankIds.size())));
+                yield true;
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.adityaverma.blood_bank_system.config;
+
+import com.adityaverma.blood_bank_system.util.SingleFlightCache;
+import com.adityaverma.blood_bank_system.util.SingleFlightCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Coalesces concurrent misses and serves stale values during refresh for every
+     * cache, by decorating the auto-configured cache manager.
+     */
+    @Bean
+    static BeanPostProcessor singleFlightCacheManagerPostProcessor(
+            @Value("${app.cache.stale-max-age-ms:60000}") long staleMaxAgeMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof SingleFlightCacheManager)) {
+                    return new SingleFlightCacheManager(cacheManager, Duration.ofMillis(staleMaxAgeMs));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Keeps the {@code cache.*} meters for Redis caches once they are decorated.
+     */
+    @Bean
+    public CacheMeterBinderProvider<SingleFlightCache> singleFlightCacheMeterBinderProvider() {
+        return (cache, tags) -> cache.getDelegate() instanceof RedisCache redisCache
+                ? new RedisCacheMetrics(redisCache, tags)
+                : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.adityaverma.blood_bank_system.config;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.util.EnumLookup;
+import com.adityaverma.blood_bank_system.util.EnumLookupDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Parses the domain enums through their {@link EnumLookup}s everywhere they arrive as
+ * text: JSON request bodies via a Jackson module, and path variables and request
+ * parameters via Spring converters. Both accept every alias the lookup knows.
+ */
+@Configuration
+public class EnumParsingConfig implements WebMvcConfigurer {
+
+    private static final List<EnumLookup<?>> LOOKUPS = List.of(
+            BloodGroup.lookup(),
+            BloodComponent.lookup(),
+            BloodRequest.UrgencyLevel.lookup(),
+            BloodUnit.Status.lookup());
+
+    @Bean
+    public Module enumLookupModule() {
+        SimpleModule module = new SimpleModule("EnumLookupModule");
+        LOOKUPS.forEach(lookup -> addDeserializer(module, lookup));
+        return module;
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        LOOKUPS.forEach(lookup -> addConverter(registry, lookup));
+    }
+
+    private static <E extends Enum<E>> void addDeserializer(SimpleModule module, EnumLookup<E> lookup) {
+        module.addDeserializer(lookup.type(), new EnumLookupDeserializer<>(lookup));
+    }
+
+    private static <E extends Enum<E>> void addConverter(FormatterRegistry registry, EnumLookup<E> lookup) {
+        registry.addConverter(String.class, lookup.type(),
+                value -> value.isBlank() ? null : lookup.parse(value));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.adityaverma.blood_bank_system.config;
+
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoDatabase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Shards the tenant-scoped collections on {@code blood_bank_id} followed by a unique
+ * per-document field, as declared by their {@code @Sharded} annotations: {@code _id},
+ * or {@code unit_id} for blood units. A bank's documents stay together, so per-bank
+ * queries reach one shard, while the second field lets a large bank's chunks still
+ * split. A collection with data can only be sharded on an indexed key, so an existing
+ * index on exactly the shard key is used, and its uniqueness passed on, or
+ * {@code shard_key_idx} is created.
+ * <p>
+ * Needs a mongos connection with cluster admin rights, so it only runs when
+ * {@code app.sharding.enabled} is set. Collections that are already sharded are left
+ * as they are.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MongoShardingInitializer {
+    private final MongoTemplate mongoTemplate;
+
+    private static final List<Class<?>> SHARDED = List.of(BloodUnit.class, Donation.class, BloodRequest.class);
+    private static final int ALREADY_SHARDED = 20;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void shardCollections() {
+        String database = mongoTemplate.getDb().getName();
+        MongoDatabase admin = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin");
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+
+        // Implicit from MongoDB 6.0, required before
+        admin.runCommand(new Document("enableSharding", database));
+
+        for (Class<?> type : SHARDED) {
+            MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(type);
+            Document key = queryMapper.getMappedFields(entity.getShardKey().getDocument(), entity);
+            String namespace = database + "." + entity.getCollection();
+
+            List<String> keyFields = List.copyOf(key.keySet());
+            List<IndexInfo> indexes = mongoTemplate.indexOps(type).getIndexInfo();
+            for (IndexInfo info : indexes) {
+                // MongoDB only allows unique indexes prefixed by the shard key, besides _id
+                List<String> fields = fieldsOf(info);
+                boolean prefixed = fields.size() >= keyFields.size()
+                        && fields.subList(0, keyFields.size()).equals(keyFields);
+                if (info.isUnique() && !prefixed && !fields.equals(List.of("_id"))) {
+                    throw new IllegalStateException("Unique index " + info.getName() + " on " + namespace
+                            + " does not start with the shard key " + key.toJson() + "; drop it before sharding");
+                }
+            }
+            IndexInfo existing = indexes.stream()
+                    .filter(info -> fieldsOf(info).equals(keyFields))
+                    .findFirst()
+                    .orElse(null);
+            if (existing == null) {
+                Index index = new Index().named("shard_key_idx");
+                key.keySet().forEach(field -> index.on(field, Sort.Direction.ASC));
+                mongoTemplate.indexOps(type).ensureIndex(index);
+            }
+            boolean unique = existing != null && existing.isUnique();
+
+            try {
+                admin.runCommand(new Document("shardCollection", namespace)
+                        .append("key", key)
+                        .append("unique", unique));
+                log.info("Sharded {} on {}", namespace, key.toJson());
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() != ALREADY_SHARDED) throw e;
+                log.info("{} is already sharded", namespace);
+            }
+        }
+    }
+
+    private static List<String> fieldsOf(IndexInfo info) {
+        return info.getIndexFields().stream().map(IndexField::getKey).toList();
+    }
+}
\ No newline at end of file
@@ -1,4 +1,101 @@
 package com.adityaverma.blood_bank_system.config;
 
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.util.CompactRedisSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
 public class RedisConfig {
-}
+
+    public static final String INVENTORY_CACHE = "bloodInventory";
+    public static final String ELIGIBLE_DONORS_CACHE = "eligibleDonors";
+
+    // Bump when the cached type changes incompatibly; older entries then read as misses
+    private static final int INVENTORY_SCHEMA_VERSION = 1;
+    private static final int ELIGIBLE_DONORS_SCHEMA_VERSION = 1;
+    private static final int SESSION_SCHEMA_VERSION = 1;
+
+    private static final ObjectMapper SMILE_MAPPER = CompactRedisSerializer.smileMapper();
+
+    @Value("${app.cache.codec:SMILE}")
+    private CompactRedisSerializer.Format cacheCodec;
+
+    @Value("${app.cache.compression-threshold-bytes:1024}")
+    private int cacheCompressionThreshold;
+
+    @Value("${app.session.compression-threshold-bytes:1024}")
+    private int sessionCompressionThreshold;
+
+    @Bean
+    public CompactRedisSerializer<BloodInventorySummaryResponse> inventorySummarySerializer() {
+        return CompactRedisSerializer.of(cacheCodec, SMILE_MAPPER,
+                SMILE_MAPPER.constructType(BloodInventorySummaryResponse.class),
+                INVENTORY_SCHEMA_VERSION, cacheCompressionThreshold);
+    }
+
+    @Bean
+    public CompactRedisSerializer<List<User>> eligibleDonorsSerializer() {
+        return CompactRedisSerializer.of(cacheCodec, SMILE_MAPPER,
+                SMILE_MAPPER.getTypeFactory().constructCollectionType(List.class, User.class),
+                ELIGIBLE_DONORS_SCHEMA_VERSION, cacheCompressionThreshold);
+    }
+
+    /**
+     * Stores each cache's values with its typed serializer instead of the default JDK
+     * serialization, keeping the key layout, TTL and prefix from {@code spring.cache.redis.*}.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer compactCacheValues(
+            CompactRedisSerializer<BloodInventorySummaryResponse> inventorySummarySerializer,
+            CompactRedisSerializer<List<User>> eligibleDonorsSerializer) {
+        Map<String, RedisSerializer<?>> serializers = Map.of(
+                INVENTORY_CACHE, inventorySummarySerializer,
+                ELIGIBLE_DONORS_CACHE, eligibleDonorsSerializer);
+
+        return builder -> serializers.forEach((cacheName, serializer) -> {
+            RedisCacheConfiguration defaults = builder.getCacheConfigurationFor(cacheName)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Cache '" + cacheName + "' must be listed in spring.cache.cache-names"));
+            builder.withCacheConfiguration(cacheName, defaults.serializeValuesWith(
+                    RedisSerializationContext.SerializationPair.fromSerializer(serializer)));
+        });
+    }
+
+    /**
+     * Session attributes have no fixed type, so they stay JDK serialized, inside the
+     * same envelope so large sessions are compressed.
+     */
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return CompactRedisSerializer.jdk(SESSION_SCHEMA_VERSION, sessionCompressionThreshold);
+    }
+
+    /**
+     * Reads and writes {@code bloodInventory} cache entries from reactive code. Keys are
+     * plain strings and values use the cache's own serializer, so entries are shared
+     * with the {@code @Cacheable} method and evicted by its {@code @CacheEvict}s.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, BloodInventorySummaryResponse> inventorySummaryTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            CompactRedisSerializer<BloodInventorySummaryResponse> inventorySummarySerializer) {
+        RedisSerializationContext<String, BloodInventorySummaryResponse> context = RedisSerializationContext
+                .<String, BloodInventorySummaryResponse>newSerializationContext(RedisSerializer.string())
+                .value(inventorySummarySerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
\ No newline at end of file
@@ -1,4 +1,60 @@
 package com.adityaverma.blood_bank_system.controller;
 
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.InventorySnapshot;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.InventoryChangeFeed;
+import com.adityaverma.blood_bank_system.service.UnitLifecycleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
 public class BloodInventoryController {
-}
+
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final UnitLifecycleService unitLifecycleService;
+    private final BloodInventoryService bloodInventoryService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventory(@RequestParam(required = false) String bloodBankId) {
+        return inventoryChangeFeed.subscribe(bloodBankId);
+    }
+
+    @GetMapping("/{bloodBankId}/summary")
+    public ResponseEntity<SuccessResponse<BloodInventorySummaryResponse>> getSummary(@PathVariable String bloodBankId) {
+        return ResponseEntity.ok(SuccessResponse.of(bloodInventoryService.getInventorySummary(bloodBankId)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SuccessResponse<List<BloodUnit>>> searchAvailableUnits(
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) String componentType,
+            @RequestParam(required = false) String bloodBankId) {
+        return ResponseEntity.ok(SuccessResponse.of(bloodInventoryService.searchAvailableUnits(
+                new BloodInventoryService.SearchCriteria.Combined(bloodGroup, componentType, bloodBankId))));
+    }
+
+    @GetMapping("/units/{unitId}/history")
+    public ResponseEntity<SuccessResponse<List<UnitEvent>>> getUnitHistory(@PathVariable String unitId) {
+        return ResponseEntity.ok(SuccessResponse.of(unitLifecycleService.history(unitId)));
+    }
+
+    @GetMapping("/{bloodBankId}/projection")
+    public ResponseEntity<SuccessResponse<InventorySnapshot>> getProjection(@PathVariable String bloodBankId) {
+        return ResponseEntity.ok(SuccessResponse.of(unitLifecycleService.currentProjection(bloodBankId)));
+    }
+}
\ No newline at end of file
@@ -1,4 +1,36 @@
 package com.adityaverma.blood_bank_system.controller;
 
+import com.adityaverma.blood_bank_system.dto.responses.NearbyDonorResponse;
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.service.DonorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/hospital")
+@RequiredArgsConstructor
 public class HospitalController {
-}
+
+    private final DonorService donorService;
+
+    @GetMapping("/donors/nearby")
+    public ResponseEntity<SuccessResponse<List<NearbyDonorResponse>>> findNearbyDonors(
+            @RequestParam BloodGroup bloodGroup,
+            @RequestParam double longitude,
+            @RequestParam double latitude,
+            @RequestParam(defaultValue = "25") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        List<NearbyDonorResponse> donors = donorService.findNearestEligibleDonors(
+                bloodGroup, longitude, latitude, radiusKm, limit);
+
+        return ResponseEntity.ok(SuccessResponse.of(donors, "Found " + donors.size() + " eligible donors"));
+    }
+}
\ No newline at end of file
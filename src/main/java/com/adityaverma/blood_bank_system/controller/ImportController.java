@@ -0,0 +1,79 @@
+package com.adityaverma.blood_bank_system.controller;
+
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.model.ImportJob;
+import com.adityaverma.blood_bank_system.model.ImportRowError;
+import com.adityaverma.blood_bank_system.service.BulkImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/blood-bank/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping("/units")
+    public ResponseEntity<SuccessResponse<ImportJob>> importUnits(
+            @RequestParam String bloodBankId,
+            @RequestPart MultipartFile file,
+            @RequestParam(required = false) ImportJob.Format format,
+            Principal principal) throws IOException {
+        return start(ImportJob.Kind.UNITS, bloodBankId, file, format, principal);
+    }
+
+    @PostMapping("/donors")
+    public ResponseEntity<SuccessResponse<ImportJob>> importDonors(
+            @RequestPart MultipartFile file,
+            @RequestParam(required = false) ImportJob.Format format,
+            Principal principal) throws IOException {
+        return start(ImportJob.Kind.DONORS, null, file, format, principal);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<SuccessResponse<ImportJob>> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(SuccessResponse.of(bulkImportService.getJob(jobId)));
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<SuccessResponse<Page<ImportRowError>>> getErrors(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(SuccessResponse.of(bulkImportService.getErrors(jobId, page, size)));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<SuccessResponse<ImportJob>> resume(@PathVariable String jobId) {
+        return ResponseEntity.ok(SuccessResponse.of(bulkImportService.resume(jobId), "Import resumed"));
+    }
+
+    private ResponseEntity<SuccessResponse<ImportJob>> start(ImportJob.Kind kind, String bloodBankId,
+                                                            MultipartFile file, ImportJob.Format format,
+                                                            Principal principal) throws IOException {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        ImportJob.Format resolved = format != null ? format
+                : name.toLowerCase().endsWith(".csv") ? ImportJob.Format.CSV : ImportJob.Format.NDJSON;
+
+        try (InputStream content = file.getInputStream()) {
+            ImportJob job = bulkImportService.start(kind, resolved, bloodBankId, name, content, principal.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(SuccessResponse.of(job, "Import " + job.getJobId() + " started"));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.adityaverma.blood_bank_system.controller;
+
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.ReactiveInventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking versions of the inventory summary and search reads. Requests are
+ * handled asynchronously, so no container thread is held while Mongo or Redis
+ * respond. Search results stream as NDJSON, one unit per line, and the next unit is
+ * only requested once the previous one has been written to the client.
+ */
+@RestController
+@RequestMapping("/api/inventory/reactive")
+@RequiredArgsConstructor
+public class ReactiveInventoryController {
+
+    private final ReactiveInventoryService reactiveInventoryService;
+
+    @GetMapping("/{bloodBankId}/summary")
+    public Mono<ResponseEntity<SuccessResponse<BloodInventorySummaryResponse>>> getSummary(@PathVariable String bloodBankId) {
+        return reactiveInventoryService.getInventorySummary(bloodBankId)
+                .map(summary -> ResponseEntity.ok(SuccessResponse.of(summary)));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BloodUnit> searchAvailableUnits(
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) String componentType,
+            @RequestParam(required = false) String bloodBankId) {
+        return reactiveInventoryService.searchAvailableUnits(
+                new BloodInventoryService.SearchCriteria.Combined(bloodGroup, componentType, bloodBankId));
+    }
+}
\ No newline at end of file
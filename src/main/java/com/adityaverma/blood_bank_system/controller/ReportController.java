@@ -0,0 +1,46 @@
+package com.adityaverma.blood_bank_system.controller;
+
+import com.adityaverma.blood_bank_system.dto.responses.BankActivityReportResponse;
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.dto.responses.WastageReportResponse;
+import com.adityaverma.blood_bank_system.service.DailyRollupService;
+import com.adityaverma.blood_bank_system.service.WastageAnalyticsService;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/blood-bank/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final DailyRollupService dailyRollupService;
+    private final WastageAnalyticsService wastageAnalyticsService;
+    private final BusinessClock businessClock;
+
+    @GetMapping("/{bloodBankId}/activity")
+    public ResponseEntity<SuccessResponse<BankActivityReportResponse>> getActivity(
+            @PathVariable String bloodBankId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(SuccessResponse.of(dailyRollupService.report(bloodBankId, from, to)));
+    }
+
+    // Defaults to units collected over the past year
+    @GetMapping("/wastage")
+    public ResponseEntity<SuccessResponse<WastageReportResponse>> getWastage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : businessClock.today();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        return ResponseEntity.ok(SuccessResponse.of(wastageAnalyticsService.analyse(start, end)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.adityaverma.blood_bank_system.controller;
+
+import com.adityaverma.blood_bank_system.dto.requests.TransferUnitsRequest;
+import com.adityaverma.blood_bank_system.dto.responses.SuccessResponse;
+import com.adityaverma.blood_bank_system.dto.responses.TransferSuggestion;
+import com.adityaverma.blood_bank_system.model.BloodTransfer;
+import com.adityaverma.blood_bank_system.service.TransferService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/blood-bank/transfers")
+@RequiredArgsConstructor
+public class TransferController {
+
+    private final TransferService transferService;
+
+    @PostMapping
+    public ResponseEntity<SuccessResponse<BloodTransfer>> dispatch(
+            @Valid @RequestBody TransferUnitsRequest request,
+            Principal principal) {
+        BloodTransfer transfer = transferService.dispatch(request, principal.getName());
+        return ResponseEntity.ok(SuccessResponse.of(transfer,
+                "Dispatched " + transfer.getUnitIds().size() + " units"));
+    }
+
+    @PostMapping("/{transferId}/receive")
+    public ResponseEntity<SuccessResponse<BloodTransfer>> receive(
+            @PathVariable String transferId,
+            Principal principal) {
+        return ResponseEntity.ok(SuccessResponse.of(transferService.receive(transferId, principal.getName()),
+                "Transfer received"));
+    }
+
+    @GetMapping("/{transferId}")
+    public ResponseEntity<SuccessResponse<BloodTransfer>> getTransfer(@PathVariable String transferId) {
+        return ResponseEntity.ok(SuccessResponse.of(transferService.getTransfer(transferId)));
+    }
+
+    @GetMapping("/incoming/{bloodBankId}")
+    public ResponseEntity<SuccessResponse<List<BloodTransfer>>> getIncoming(@PathVariable String bloodBankId) {
+        return ResponseEntity.ok(SuccessResponse.of(transferService.getIncomingTransfers(bloodBankId)));
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<SuccessResponse<List<TransferSuggestion>>> suggestRebalancing() {
+        List<TransferSuggestion> suggestions = transferService.suggestRebalancing();
+        return ResponseEntity.ok(SuccessResponse.of(suggestions, suggestions.size() + " transfers suggested"));
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.adityaverma.blood_bank_system.dto.requests;
 
 import com.adityaverma.blood_bank_system.model.BloodComponent;
 import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,9 +13,10 @@ public record CreateBloodRequest(
         @NotNull BloodGroup bloodGroup,
         @NotNull BloodComponent componentType,
         @Min(1) Integer quantityUnits,
-        @NotBlank String urgencyLevel,
+        @NotNull BloodRequest.UrgencyLevel urgencyLevel,
         @NotBlank String hospitalId,
         String reason,
         String doctorName,
-        LocalDateTime requiredBy
+        LocalDateTime requiredBy,
+        String bloodBankId
 ) {}
\ No newline at end of file
@@ -61,5 +61,13 @@ public record RegisterDonorRequest(
         @NotBlank(message = "Postal code is required")
         String postalCode,
 
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        Double longitude,
+
         boolean acceptTerms
 ) {}
\ No newline at end of file
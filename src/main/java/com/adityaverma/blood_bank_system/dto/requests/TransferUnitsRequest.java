@@ -0,0 +1,13 @@
+package com.adityaverma.blood_bank_system.dto.requests;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record TransferUnitsRequest(
+        @NotBlank String fromBloodBankId,
+        @NotBlank String toBloodBankId,
+        @NotEmpty @Size(max = 500) List<String> unitIds,
+        String reason
+) {}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.adityaverma.blood_bank_system.dto.responses;
+
+import com.adityaverma.blood_bank_system.model.DailyBankRollup;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record BankActivityReportResponse(
+        String bloodBankId,
+        LocalDate from,
+        LocalDate to,
+        Map<String, Long> donationsByType,
+        Map<String, Long> donationsByBloodGroup,
+        long donatedVolumeMl,
+        long unitsCollected,
+        long unitsIssued,
+        long unitsExpired,
+        long unitsDiscarded,
+        Map<String, Long> requestsByUrgency,
+        Map<String, Long> requestsByStatus,
+        List<DailyBankRollup> days
+) {}
\ No newline at end of file
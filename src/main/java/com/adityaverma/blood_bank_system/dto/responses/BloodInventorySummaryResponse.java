@@ -1,6 +1,8 @@
 package com.adityaverma.blood_bank_system.dto.responses;
 
+import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 public record BloodInventorySummaryResponse(
@@ -15,12 +17,12 @@ public record BloodInventorySummaryResponse(
         Map<String, Long> byComponent,
         LocalDate lastUpdated,
         LocalDate nextExpiryDate,
-        boolean isStockLow
-) {
+        boolean isStockLow,
+        List<String> lowStockBuckets
+) implements Serializable {
     public BloodInventorySummaryResponse {
         if (totalAvailable < 0) {
             throw new IllegalArgumentException("Total available cannot be negative");
         }
-        isStockLow = totalAvailable < 50;
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.adityaverma.blood_bank_system.dto.responses;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One coalesced change to a blood bank's stock. {@code current} is the bank's state
+ * after the change; {@code delta} is the net movement since the previous update
+ * sent to the same subscriber.
+ */
+public record InventoryFeedUpdate(
+        String bloodBankId,
+        Counts current,
+        Counts delta,
+        Instant asOf
+) {
+    public record Counts(
+            Map<String, Long> byStatus,
+            Map<String, Long> availableByBloodGroup,
+            Map<String, Long> availableByComponent
+    ) {
+        public static final Counts EMPTY = new Counts(Map.of(), Map.of(), Map.of());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.adityaverma.blood_bank_system.dto.responses;
+
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+
+public record NearbyDonorResponse(
+        String donorId,
+        String fullName,
+        String email,
+        String phone,
+        BloodGroup bloodGroup,
+        String city,
+        double distanceKm
+) {}
\ No newline at end of file
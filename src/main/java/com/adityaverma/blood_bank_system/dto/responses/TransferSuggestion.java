@@ -0,0 +1,18 @@
+package com.adityaverma.blood_bank_system.dto.responses;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import java.time.LocalDate;
+import java.util.List;
+
+public record TransferSuggestion(
+        String fromBloodBankId,
+        String toBloodBankId,
+        BloodGroup bloodGroup,
+        BloodComponent componentType,
+        int quantity,
+        List<String> unitIds,
+        LocalDate earliestExpiry,
+        Double sourceDaysOfCover,
+        Double destinationDaysOfCover
+) {}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.adityaverma.blood_bank_system.dto.responses;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record WastageReportResponse(
+        LocalDate from,
+        LocalDate to,
+        WasteCounts total,
+        List<BankWastage> banks
+) {
+    // Banks are ranked by units lost, highest first
+    public record BankWastage(
+            int rank,
+            String bloodBankId,
+            WasteCounts total,
+            Map<String, WasteCounts> byComponent,
+            Map<String, WasteCounts> byCollectionMonth,
+            List<AtRiskUnit> atRisk
+    ) {}
+
+    public record WasteCounts(long collected, long expired, long discarded, long lost, double wasteRate) {
+        public static WasteCounts of(long collected, long expired, long discarded) {
+            long lost = expired + discarded;
+            return new WasteCounts(collected, expired, discarded, lost,
+                    collected == 0 ? 0.0 : (double) lost / collected);
+        }
+
+        public WasteCounts plus(WasteCounts other) {
+            return of(collected + other.collected, expired + other.expired, discarded + other.discarded);
+        }
+    }
+
+    public record AtRiskUnit(
+            String unitId,
+            BloodGroup bloodGroup,
+            BloodComponent componentType,
+            LocalDate expiryDate
+    ) {}
+}
\ No newline at end of file
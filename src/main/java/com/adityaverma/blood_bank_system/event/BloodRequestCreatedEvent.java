@@ -0,0 +1,5 @@
+package com.adityaverma.blood_bank_system.event;
+
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+
+public record BloodRequestCreatedEvent(BloodRequest request) {}
\ No newline at end of file
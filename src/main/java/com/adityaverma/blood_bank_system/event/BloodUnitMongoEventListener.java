@@ -0,0 +1,29 @@
+package com.adityaverma.blood_bank_system.event;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.service.BloodStockIndex;
+import com.adityaverma.blood_bank_system.service.InventoryInvalidationCoordinator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans every persisted {@link BloodUnit} out to in-memory views of unit state.
+ * Covers repository save/saveAll and template insert; bulk updates that bypass
+ * entity mapping must update those views explicitly. Also marks the unit's bank
+ * for inventory cache invalidation.
+ */
+@Component
+@RequiredArgsConstructor
+public class BloodUnitMongoEventListener extends AbstractMongoEventListener<BloodUnit> {
+
+    private final BloodStockIndex stockIndex;
+    private final InventoryInvalidationCoordinator invalidationCoordinator;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<BloodUnit> event) {
+        stockIndex.apply(event.getSource());
+        invalidationCoordinator.markDirty(event.getSource().getBloodBankId());
+    }
+}
\ No newline at end of file
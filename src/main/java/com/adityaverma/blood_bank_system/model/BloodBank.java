@@ -0,0 +1,52 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "blood_banks")
+public class BloodBank {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    private String name;
+    private String phone;
+    private String email;
+    private String address;
+    private String city;
+    private String state;
+    private String country;
+
+    @Field("postal_code")
+    private String postalCode;
+
+    // GeoJSON point, coordinates are [longitude, latitude]
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
+    @Builder.Default
+    @Field("is_active")
+    private boolean isActive = true;
+
+    @CreatedDate
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+}
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.adityaverma.blood_bank_system.model;
 
+import com.adityaverma.blood_bank_system.util.EnumLookup;
+
+import java.util.List;
+import java.util.Map;
+
 public enum BloodComponent {
     WHOLE_BLOOD("Whole Blood", 35, "1-6°C"),
     PLASMA("Plasma", 365, "-25°C or below"),
@@ -7,6 +12,14 @@ public enum BloodComponent {
     RED_BLOOD_CELLS("Red Blood Cells", 42, "1-6°C"),
     CRYOPRECIPITATE("Cryoprecipitate", 365, "-25°C or below");
 
+    private static final EnumLookup<BloodComponent> LOOKUP = EnumLookup.of(BloodComponent.class, "blood component",
+            BloodComponent::getDisplayName, Map.of(
+                    WHOLE_BLOOD, List.of("WB"),
+                    PLASMA, List.of("FFP", "Fresh Frozen Plasma"),
+                    PLATELETS, List.of("PLT", "Platelet"),
+                    RED_BLOOD_CELLS, List.of("RBC", "PRBC", "Packed Red Cells", "Red Cells"),
+                    CRYOPRECIPITATE, List.of("Cryo")));
+
     private final String displayName;
     private final int shelfLifeDays;
     private final String storageTemperature;
@@ -28,4 +41,8 @@ public enum BloodComponent {
     public String getStorageTemperature() {
         return storageTemperature;
     }
+
+    public static EnumLookup<BloodComponent> lookup() {
+        return LOOKUP;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,14 @@
 package com.adityaverma.blood_bank_system.model;
 
+import com.adityaverma.blood_bank_system.util.EnumLookup;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public enum BloodGroup {
     A_POSITIVE("A+"),
     A_NEGATIVE("A-"),
@@ -10,6 +19,18 @@ public enum BloodGroup {
     O_POSITIVE("O+"),
     O_NEGATIVE("O-");
 
+    private static final Map<BloodGroup, Set<BloodGroup>> COMPATIBLE_DONORS = new EnumMap<>(BloodGroup.class);
+
+    static {
+        for (BloodGroup recipient : values()) {
+            EnumSet<BloodGroup> donors = EnumSet.noneOf(BloodGroup.class);
+            for (BloodGroup donor : values()) {
+                if (donor.canDonateTo(recipient)) donors.add(donor);
+            }
+            COMPATIBLE_DONORS.put(recipient, Collections.unmodifiableSet(donors));
+        }
+    }
+
     private final String displayName;
 
     BloodGroup(String displayName) {
@@ -20,18 +41,43 @@ public enum BloodGroup {
         return displayName;
     }
 
+    public boolean isRhPositive() {
+        return displayName.endsWith("+");
+    }
+
+    // Red cell compatibility: the donor must not carry an antigen the recipient lacks
+    public boolean canDonateTo(BloodGroup recipient) {
+        return (!hasAntigen('A') || recipient.hasAntigen('A'))
+                && (!hasAntigen('B') || recipient.hasAntigen('B'))
+                && (!isRhPositive() || recipient.isRhPositive());
+    }
+
+    public Set<BloodGroup> getCompatibleDonors() {
+        return COMPATIBLE_DONORS.get(this);
+    }
+
+    private boolean hasAntigen(char antigen) {
+        return displayName.indexOf(antigen) >= 0;
+    }
+
+    // Also accepts "A+ve" and "A pos" style spellings
+    private static final EnumLookup<BloodGroup> LOOKUP = EnumLookup.of(BloodGroup.class, "blood group",
+            BloodGroup::getDisplayName, shorthandAliases());
+
+    private static Map<BloodGroup, List<String>> shorthandAliases() {
+        Map<BloodGroup, List<String>> aliases = new EnumMap<>(BloodGroup.class);
+        for (BloodGroup group : values()) {
+            String abo = group.displayName.substring(0, group.displayName.length() - 1);
+            aliases.put(group, List.of(group.displayName + "ve", abo + (group.isRhPositive() ? "pos" : "neg")));
+        }
+        return aliases;
+    }
+
+    public static EnumLookup<BloodGroup> lookup() {
+        return LOOKUP;
+    }
+
     public static BloodGroup fromString(String value) {
-        if (value == null) return null;
-        return switch (value.toUpperCase().replace(" ", "")) {
-            case "A+", "APOSITIVE" -> A_POSITIVE;
-            case "A-", "ANEGATIVE" -> A_NEGATIVE;
-            case "B+", "BPOSITIVE" -> B_POSITIVE;
-            case "B-", "BNEGATIVE" -> B_NEGATIVE;
-            case "AB+", "ABPOSITIVE" -> AB_POSITIVE;
-            case "AB-", "ABNEGATIVE" -> AB_NEGATIVE;
-            case "O+", "OPOSITIVE" -> O_POSITIVE;
-            case "O-", "ONEGATIVE" -> O_NEGATIVE;
-            default -> throw new IllegalArgumentException("Invalid blood group: " + value);
-        };
+        return LOOKUP.parse(value);
     }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package com.adityaverma.blood_bank_system.model;
 
+import com.adityaverma.blood_bank_system.util.EnumLookup;
 import lombok.*;
 import org.springframework.data.annotation.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "blood_requests")
+// The bank can be set after creation, so saves look up the stored shard key
+@Sharded(shardKey = {"bloodBankId", "id"})
 public class BloodRequest {
     @Id
     private String id;
@@ -22,6 +27,10 @@ public class BloodRequest {
     @Field("hospital_id")
     private String hospitalId;
 
+    // Bank serving the request; set on creation or from the first allocated unit
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
     @Field("patient_id")
     private String patientId;
 
@@ -70,6 +79,10 @@ public class BloodRequest {
     @Field("rejection_reason")
     private String rejectionReason;
 
+    // Set while an allocation holds the request; a lapsed claim no longer counts
+    @Field("allocating_until")
+    private LocalDateTime allocatingUntil;
+
     @Field("completed_at")
     private LocalDateTime completedAt;
 
@@ -88,6 +101,9 @@ public class BloodRequest {
         NORMAL("Normal - Within 24 hours"),
         SCHEDULED("Scheduled - Planned");
 
+        private static final EnumLookup<UrgencyLevel> LOOKUP = EnumLookup.of(UrgencyLevel.class, "urgency level",
+                UrgencyLevel::getDisplayName, Map.of());
+
         private final String displayName;
 
         UrgencyLevel(String displayName) {
@@ -97,6 +113,10 @@ public class BloodRequest {
         public String getDisplayName() {
             return displayName;
         }
+
+        public static EnumLookup<UrgencyLevel> lookup() {
+            return LOOKUP;
+        }
     }
 
     public enum RequestStatus {
@@ -0,0 +1,79 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "blood_transfers")
+@CompoundIndex(name = "destination_status_idx", def = "{'to_blood_bank_id': 1, 'status': 1}")
+public class BloodTransfer {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    @Field("transfer_id")
+    private String transferId;
+
+    @Field("from_blood_bank_id")
+    private String fromBloodBankId;
+
+    @Field("to_blood_bank_id")
+    private String toBloodBankId;
+
+    // Units actually dispatched; requested units that were not available are left out
+    @Field("unit_ids")
+    private List<String> unitIds;
+
+    @Builder.Default
+    private TransferStatus status = TransferStatus.IN_TRANSIT;
+
+    private String reason;
+
+    @Field("dispatched_by")
+    private String dispatchedBy;
+
+    @Field("dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Field("received_by")
+    private String receivedBy;
+
+    @Field("received_at")
+    private LocalDateTime receivedAt;
+
+    @CreatedDate
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum TransferStatus {
+        // Recorded, units not yet confirmed as moved
+        DISPATCHING("Dispatching"),
+        IN_TRANSIT("In Transit"),
+        // Claimed by one receipt; receivedAt holds when
+        RECEIVING("Receiving"),
+        RECEIVED("Received");
+
+        private final String displayName;
+
+        TransferStatus(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+}
\ No newline at end of file
@@ -1,26 +1,39 @@
 package com.adityaverma.blood_bank_system.model;
 
+import com.adityaverma.blood_bank_system.util.EnumLookup;
 import lombok.*;
 import org.springframework.data.annotation.*;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "blood_units")
+// Saves never move a unit between banks; transfers do that with an explicit update.
+// Unit IDs are unique per bank; a shard key must prefix every unique index, so it is
+// the unit ID rather than _id that follows the bank here.
+@Sharded(shardKey = {"bloodBankId", "unitId"}, immutableKey = true)
+@CompoundIndex(name = "bank_unit_idx", def = "{'blood_bank_id': 1, 'unit_id': 1}", unique = true)
 @CompoundIndex(name = "status_expiry_idx", def = "{'status': 1, 'expiry_date': 1}")
 @CompoundIndex(name = "bloodbank_status_idx", def = "{'blood_bank_id': 1, 'status': 1}")
+@CompoundIndex(name = "available_search_idx",
+        def = "{'status': 1, 'blood_group': 1, 'component_type': 1, 'expiry_date': 1}")
+@CompoundIndex(name = "bank_available_search_idx",
+        def = "{'blood_bank_id': 1, 'status': 1, 'blood_group': 1, 'component_type': 1, 'expiry_date': 1}")
 public class BloodUnit {
     @Id
     private String id;
 
-    @Indexed(unique = true)
+    // Lookups by unit ID alone; named apart from the unique index it replaced
+    @Indexed(name = "unit_lookup_idx")
     @Field("unit_id")
     private String unitId;
 
@@ -63,6 +76,10 @@ public class BloodUnit {
     @Field("current_location")
     private String currentLocation;
 
+    // Last transfer that moved the unit; kept after receipt
+    @Field("transfer_id")
+    private String transferId;
+
     @Field("reserved_for")
     private String reservedFor;
 
@@ -125,6 +142,9 @@ public class BloodUnit {
         DISCARDED("Discarded"),
         EXPIRED("Expired");
 
+        private static final EnumLookup<Status> LOOKUP = EnumLookup.of(Status.class, "unit status",
+                Status::getDisplayName, Map.of());
+
         private final String displayName;
 
         Status(String displayName) {
@@ -134,18 +154,38 @@ public class BloodUnit {
         public String getDisplayName() {
             return displayName;
         }
+
+        public static EnumLookup<Status> lookup() {
+            return LOOKUP;
+        }
     }
 
     public boolean isExpired() {
-        return LocalDate.now().isAfter(expiryDate);
+        return isExpired(LocalDate.now().toEpochDay());
+    }
+
+    /**
+     * As {@link #isExpired()}, against a business date read once by the caller, e.g.
+     * {@code BusinessClock.epochDay()}, so a filter over many units reads the clock once.
+     */
+    public boolean isExpired(long todayEpochDay) {
+        return expiryDate.toEpochDay() < todayEpochDay;
     }
 
     public boolean isExpiringSoon(int daysThreshold) {
-        LocalDate warningDate = LocalDate.now().plusDays(daysThreshold);
-        return !expiryDate.isAfter(warningDate) && !expiryDate.isBefore(LocalDate.now());
+        return isExpiringSoon(LocalDate.now().toEpochDay(), daysThreshold);
+    }
+
+    public boolean isExpiringSoon(long todayEpochDay, int daysThreshold) {
+        long expiry = expiryDate.toEpochDay();
+        return expiry >= todayEpochDay && expiry <= todayEpochDay + daysThreshold;
     }
 
     public boolean canBeReserved() {
-        return status == Status.AVAILABLE && !isExpired();
+        return canBeReserved(LocalDate.now().toEpochDay());
+    }
+
+    public boolean canBeReserved(long todayEpochDay) {
+        return status == Status.AVAILABLE && !isExpired(todayEpochDay);
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reporting counters for one blood bank on one day, keyed by {@link #idOf}. Every
+ * state change that a report needs adds to the matching counter with {@code $inc},
+ * so range reports read one document per day instead of the raw collections.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "daily_bank_rollups")
+@CompoundIndex(name = "bank_date_idx", def = "{'blood_bank_id': 1, 'date': 1}", unique = true)
+public class DailyBankRollup {
+    @Id
+    private String id;
+
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    private LocalDate date;
+
+    @Field("donations_by_type")
+    private Map<String, Long> donationsByType;
+
+    @Field("donations_by_blood_group")
+    private Map<String, Long> donationsByBloodGroup;
+
+    @Field("donated_volume_ml")
+    private long donatedVolumeMl;
+
+    @Field("units_collected")
+    private long unitsCollected;
+
+    @Field("units_issued")
+    private long unitsIssued;
+
+    @Field("units_expired")
+    private long unitsExpired;
+
+    @Field("units_discarded")
+    private long unitsDiscarded;
+
+    // Requests created that day, by urgency
+    @Field("requests_by_urgency")
+    private Map<String, Long> requestsByUrgency;
+
+    // Requests that entered each status that day
+    @Field("requests_by_status")
+    private Map<String, Long> requestsByStatus;
+
+    public static String idOf(String bloodBankId, LocalDate date) {
+        return bloodBankId + "|" + date;
+    }
+}
\ No newline at end of file
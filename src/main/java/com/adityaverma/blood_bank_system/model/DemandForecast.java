@@ -0,0 +1,52 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exponentially smoothed daily demand for one bank, blood group and component,
+ * folded through {@code lastDate}. The next recompute only reads rollups after it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "demand_forecasts")
+public class DemandForecast {
+    @Id
+    private String id;
+
+    @Indexed
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    @Field("blood_group")
+    private BloodGroup bloodGroup;
+
+    @Field("component_type")
+    private BloodComponent componentType;
+
+    // Smoothed units per day
+    private double level;
+
+    // Smoothed squared one-day-ahead error, in units squared
+    private double variance;
+
+    @Field("last_date")
+    private LocalDate lastDate;
+
+    @Field("reorder_point")
+    private int reorderPoint;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String bloodBankId, BloodGroup bloodGroup, BloodComponent componentType) {
+        return bloodBankId + "|" + bloodGroup.name() + "|" + componentType.name();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDate;
+
+/**
+ * Requested demand for one bank, blood group and component on one day. Documents are
+ * keyed by {@link #idOf} and only ever grown with {@code $inc}, so recording a request
+ * is a single upsert.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "demand_daily")
+@CompoundIndex(name = "bank_date_idx", def = "{'blood_bank_id': 1, 'date': 1}")
+public class DemandRollup {
+    @Id
+    private String id;
+
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    @Field("blood_group")
+    private BloodGroup bloodGroup;
+
+    @Field("component_type")
+    private BloodComponent componentType;
+
+    private LocalDate date;
+
+    private long requests;
+
+    private long units;
+
+    public static String idOf(String bloodBankId, BloodGroup bloodGroup, BloodComponent componentType, LocalDate date) {
+        return bloodBankId + "|" + bloodGroup.name() + "|" + componentType.name() + "|" + date;
+    }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.*;
 import org.springframework.data.annotation.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,6 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "donations")
+@Sharded(shardKey = {"bloodBankId", "id"}, immutableKey = true)
 public class Donation {
     @Id
     private String id;
@@ -98,15 +100,27 @@ public class Donation {
             @Field("screened_by") String screenedBy
     ) {
         public boolean isEligible() {
+            return isEligible(deferralCutoff(LocalDateTime.now()));
+        }
+
+        /**
+         * As {@link #isEligible()}, against a cutoff from {@link #deferralCutoff} computed
+         * once for a batch of screenings.
+         */
+        public boolean isEligible(LocalDateTime deferralCutoff) {
             if (hasFever || hasCold) return false;
-            if (hasTattoo && tattooDate != null
-                    && tattooDate.isAfter(LocalDateTime.now().minusMonths(6))) return false;
-            if (hasPiercing && piercingDate != null
-                    && piercingDate.isAfter(LocalDateTime.now().minusMonths(6))) return false;
-            if (hasSurgery && surgeryDate != null
-                    && surgeryDate.isAfter(LocalDateTime.now().minusMonths(6))) return false;
+            if (hasTattoo && tattooDate != null && tattooDate.isAfter(deferralCutoff)) return false;
+            if (hasPiercing && piercingDate != null && piercingDate.isAfter(deferralCutoff)) return false;
+            if (hasSurgery && surgeryDate != null && surgeryDate.isAfter(deferralCutoff)) return false;
             return !hasSexualRisk;
         }
+
+        /**
+         * Tattoos, piercings and surgery after this moment still defer the donor.
+         */
+        public static LocalDateTime deferralCutoff(LocalDateTime now) {
+            return now.minusMonths(6);
+        }
     }
 
     public record GeneratedUnit(
@@ -0,0 +1,109 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk import of units or donors from a CSV/NDJSON file staged in GridFS. Progress
+ * advances one batch at a time: {@code committedRows} only moves once the batch's
+ * documents and row errors are written, so a resumed job restarts at the first
+ * uncommitted row. A running job is claimed by one instance until
+ * {@code claimedUntil}, which it extends with every batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "import_jobs")
+public class ImportJob {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    @Field("job_id")
+    private String jobId;
+
+    private Kind kind;
+
+    private Format format;
+
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    @Field("source_name")
+    private String sourceName;
+
+    // GridFS id of the uploaded file, so any instance can resume the job
+    @Field("staged_file_id")
+    private String stagedFileId;
+
+    @Indexed
+    @Builder.Default
+    private Status status = Status.RUNNING;
+
+    // Data rows (header excluded) fully handled, whether imported or rejected
+    @Field("committed_rows")
+    private long committedRows;
+
+    @Field("committed_batches")
+    private long committedBatches;
+
+    @Field("imported_count")
+    private long importedCount;
+
+    @Field("rejected_count")
+    private long rejectedCount;
+
+    @Field("failure_reason")
+    private String failureReason;
+
+    @Field("claimed_by")
+    private String claimedBy;
+
+    @Field("claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Field("started_by")
+    private String startedBy;
+
+    @Field("completed_at")
+    private LocalDateTime completedAt;
+
+    @CreatedDate
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Kind {
+        UNITS,
+        DONORS
+    }
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public enum Status {
+        RUNNING("Running"),
+        COMPLETED("Completed"),
+        FAILED("Failed");
+
+        private final String displayName;
+
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.util.List;
+
+/**
+ * Why one row of an {@link ImportJob} was rejected. The id is derived from job and
+ * row, so re-running a batch after a crash overwrites rather than duplicates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "import_row_errors")
+@CompoundIndex(name = "job_row_idx", def = "{'job_id': 1, 'row_number': 1}")
+public class ImportRowError {
+    @Id
+    private String id;
+
+    @Field("job_id")
+    private String jobId;
+
+    @Field("row_number")
+    private long rowNumber;
+
+    private List<String> messages;
+
+    // The row as read, truncated
+    private String raw;
+
+    public static String idOf(String jobId, long rowNumber) {
+        return jobId + "|" + rowNumber;
+    }
+}
\ No newline at end of file
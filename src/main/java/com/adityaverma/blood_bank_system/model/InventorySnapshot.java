@@ -0,0 +1,42 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Inventory counts of one blood bank after applying every {@link UnitEvent} up to
+ * and including {@code sequence}. Replays start from here instead of from zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "inventory_snapshots")
+public class InventorySnapshot {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    @Field("seq")
+    private long sequence;
+
+    @Field("by_status")
+    private Map<String, Long> byStatus;
+
+    @Field("available_by_blood_group")
+    private Map<String, Long> availableByBloodGroup;
+
+    @Field("available_by_component")
+    private Map<String, Long> availableByComponent;
+
+    @Field("taken_at")
+    private LocalDateTime takenAt;
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.Instant;
+
+/**
+ * Time-bound ownership of a named piece of work, such as a scheduled job or one
+ * tenant partition of it. The token grows by one on every acquisition, so a holder
+ * can tell whether the lease changed hands since it took it. {@code running} is set
+ * while the holder's run is in progress, so a lease that expires mid-run can be told
+ * apart from one kept after a finished run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "leases")
+public class Lease {
+    @Id
+    private String name;
+
+    private String owner;
+
+    private long token;
+
+    private boolean running;
+
+    @Field("acquired_at")
+    private Instant acquiredAt;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.adityaverma.blood_bank_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+
+/**
+ * One status transition of a blood unit. Events are append-only and numbered per
+ * blood bank, so a bank's inventory can be rebuilt by replaying them in sequence
+ * order. A null {@code fromStatus} means the unit entered the bank.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "unit_events")
+@CompoundIndex(name = "bank_seq_idx", def = "{'blood_bank_id': 1, 'seq': 1}", unique = true)
+@CompoundIndex(name = "unit_history_idx", def = "{'unit_id': 1, 'occurred_at': 1}")
+public class UnitEvent {
+    @Id
+    private String id;
+
+    @Field("blood_bank_id")
+    private String bloodBankId;
+
+    @Field("seq")
+    private long sequence;
+
+    @Field("unit_id")
+    private String unitId;
+
+    @Field("from_status")
+    private BloodUnit.Status fromStatus;
+
+    @Field("to_status")
+    private BloodUnit.Status toStatus;
+
+    @Field("blood_group")
+    private BloodGroup bloodGroup;
+
+    @Field("component_type")
+    private BloodComponent componentType;
+
+    // Request, hospital or reason behind the transition
+    private String reference;
+
+    @Field("occurred_at")
+    private LocalDateTime occurredAt;
+}
\ No newline at end of file
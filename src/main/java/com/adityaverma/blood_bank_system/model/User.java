@@ -2,6 +2,8 @@ package com.adityaverma.blood_bank_system.model;
 
 import lombok.*;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -21,6 +23,8 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+@CompoundIndex(name = "donor_location_idx",
+        def = "{'location': '2dsphere', 'blood_group': 1, 'is_donor': 1, 'is_active': 1}")
 public class User implements UserDetails {
     @Id
     private String id;
@@ -50,6 +54,9 @@ public class User implements UserDetails {
     @Field("postal_code")
     private String postalCode;
 
+    // GeoJSON point, coordinates are [longitude, latitude]
+    private GeoJsonPoint location;
+
     @Field("date_of_birth")
     private LocalDate dateOfBirth;
 
@@ -90,6 +97,13 @@ public class User implements UserDetails {
     @Field("last_donation_date")
     private LocalDate lastDonationDate;
 
+    // Day the last donation reminder went out, and the lease token it was sent under
+    @Field("last_reminder_date")
+    private LocalDate lastReminderDate;
+
+    @Field("reminder_token")
+    private Long reminderToken;
+
     @Builder.Default
     @Field("is_active")
     private boolean isActive = true;
@@ -169,16 +183,46 @@ public class User implements UserDetails {
 
     // Business methods
     public boolean isEligibleForDonation() {
+        return isEligibleForDonation(DonationCutoffs.of(LocalDate.now()));
+    }
+
+    /**
+     * As {@link #isEligibleForDonation()}, against cutoffs computed once for a whole
+     * batch of donors.
+     */
+    public boolean isEligibleForDonation(DonationCutoffs cutoffs) {
         if (!isDonor || !isActive) return false;
 
         if (lastDonationDate == null) return true;
 
-        LocalDate nextEligibleDate = lastDonationDate.plusMonths(3);
-        return LocalDate.now().isAfter(nextEligibleDate)
+        return lastDonationDate.toEpochDay() <= cutoffs.lastDonatedOnOrBefore()
                 && weightKg != null && weightKg >= 50.0
                 && dateOfBirth != null
-                && dateOfBirth.isBefore(LocalDate.now().minusYears(18))
-                && dateOfBirth.isAfter(LocalDate.now().minusYears(65));
+                && dateOfBirth.toEpochDay() < cutoffs.bornBefore()
+                && dateOfBirth.toEpochDay() > cutoffs.bornAfter();
+    }
+
+    /**
+     * Donation eligibility boundaries for one business date, as epoch days: the latest
+     * last donation that is more than three months ago, and the birth dates bounding
+     * donors aged 18 to 65.
+     */
+    public record DonationCutoffs(long lastDonatedOnOrBefore, long bornBefore, long bornAfter) {
+
+        public static DonationCutoffs of(LocalDate today) {
+            // plusMonths clamps to month end, so step to the exact last qualifying day
+            LocalDate lastDonation = today.minusMonths(3);
+            while (!lastDonation.plusMonths(3).isBefore(today)) {
+                lastDonation = lastDonation.minusDays(1);
+            }
+            while (lastDonation.plusDays(1).plusMonths(3).isBefore(today)) {
+                lastDonation = lastDonation.plusDays(1);
+            }
+            return new DonationCutoffs(
+                    lastDonation.toEpochDay(),
+                    today.minusYears(18).toEpochDay(),
+                    today.minusYears(65).toEpochDay());
+        }
     }
 
     public void incrementFailedLoginAttempts() {
@@ -0,0 +1,53 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import lombok.Builder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Search over AVAILABLE units. Every non-null predicate, the expiry sort and the limit
+ * are pushed into a single query so it can be served by the
+ * {@code available_search_idx}/{@code bank_available_search_idx} indexes.
+ */
+@Builder
+public record AvailableUnitQuery(
+        String bloodBankId,
+        Set<BloodGroup> bloodGroups,
+        BloodComponent componentType,
+        LocalDate availableOn,
+        int limit
+) {
+    public Query toQuery() {
+        Criteria criteria = Criteria.where("status").is(BloodUnit.Status.AVAILABLE);
+
+        if (bloodBankId != null) {
+            criteria.and("bloodBankId").is(bloodBankId);
+        }
+        if (bloodGroups != null && !bloodGroups.isEmpty()) {
+            if (bloodGroups.size() == 1) {
+                criteria.and("bloodGroup").is(bloodGroups.iterator().next());
+            } else {
+                criteria.and("bloodGroup").in(bloodGroups);
+            }
+        }
+        if (componentType != null) {
+            criteria.and("componentType").is(componentType);
+        }
+        if (availableOn != null) {
+            criteria.and("expiryDate").gte(availableOn);
+        }
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "expiryDate"));
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return query;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.BloodBank;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BloodBankRepository extends MongoRepository<BloodBank, String> {
+
+    Optional<BloodBank> findByBloodBankId(String bloodBankId);
+
+    @Query("{'isActive': true}")
+    List<BloodBank> findAllActive();
+
+    List<BloodBank> findByLocationNear(Point point, Distance maxDistance);
+}
\ No newline at end of file
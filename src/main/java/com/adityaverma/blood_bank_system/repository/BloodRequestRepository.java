@@ -23,6 +23,9 @@ public interface BloodRequestRepository extends MongoRepository<BloodRequest, St
     @Query("{'urgencyLevel': {$in: ['CRITICAL', 'URGENT']}, 'status': {$in: ['PENDING', 'APPROVED']}}")
     List<BloodRequest> findEmergencyRequests();
 
+    @Query("{'status': {$in: ['PENDING', 'APPROVED']}}")
+    List<BloodRequest> findOpenRequests();
+
     @Query("{'createdAt': {$gte: ?0, $lte: ?1}}")
     List<BloodRequest> findByDateRange(LocalDateTime start, LocalDateTime end);
 
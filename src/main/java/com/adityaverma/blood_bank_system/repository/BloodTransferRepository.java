@@ -0,0 +1,18 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.BloodTransfer;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BloodTransferRepository extends MongoRepository<BloodTransfer, String> {
+
+    Optional<BloodTransfer> findByTransferId(String transferId);
+
+    List<BloodTransfer> findByToBloodBankIdAndStatus(String toBloodBankId, BloodTransfer.TransferStatus status);
+
+    List<BloodTransfer> findByStatus(BloodTransfer.TransferStatus status);
+}
\ No newline at end of file
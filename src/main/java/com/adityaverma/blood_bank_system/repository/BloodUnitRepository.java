@@ -1,5 +1,7 @@
 package com.adityaverma.blood_bank_system.repository;
 
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
 import com.adityaverma.blood_bank_system.model.BloodUnit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -7,25 +9,38 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BloodUnitRepository extends MongoRepository<BloodUnit, String> {
+public interface BloodUnitRepository extends MongoRepository<BloodUnit, String>, BloodUnitRepositoryCustom {
 
     Optional<BloodUnit> findByUnitId(String unitId);
 
+    List<BloodUnit> findByUnitIdIn(Collection<String> unitIds);
+
     @Query("{'bloodGroup': ?0, 'componentType': ?1, 'status': 'AVAILABLE', 'expiryDate': {$gte: ?2}}")
     List<BloodUnit> findAvailableByBloodGroupAndComponent(String bloodGroup, String componentType, LocalDate today);
 
+    @Query(value = "{'bloodBankId': ?0, 'bloodGroup': {$in: ?1}, 'componentType': ?2, 'status': 'AVAILABLE', 'expiryDate': {$gte: ?3}}",
+            sort = "{'expiryDate': 1}")
+    List<BloodUnit> findAvailableCompatibleInBank(String bloodBankId, Collection<BloodGroup> bloodGroups,
+                                                  BloodComponent componentType, LocalDate today);
+
+    @Query(value = "{'bloodGroup': {$in: ?0}, 'componentType': ?1, 'status': 'AVAILABLE', 'expiryDate': {$gte: ?2}}",
+            sort = "{'expiryDate': 1}")
+    List<BloodUnit> findAvailableCompatible(Collection<BloodGroup> bloodGroups, BloodComponent componentType,
+                                            LocalDate today);
+
     @Query("{'bloodBankId': ?0, 'status': ?1, 'expiryDate': {$gte: ?2}}")
     List<BloodUnit> findByBloodBankAndStatus(String bloodBankId, BloodUnit.Status status, LocalDate today);
 
-    @Query("{'expiryDate': {$gte: ?0, $lte: ?1}, 'status': 'AVAILABLE'}")
-    List<BloodUnit> findExpiringBetween(LocalDate start, LocalDate end);
+    @Query("{'bloodBankId': {$in: ?0}, 'expiryDate': {$gte: ?1, $lte: ?2}, 'status': 'AVAILABLE'}")
+    List<BloodUnit> findExpiringBetweenInBanks(Collection<String> bloodBankIds, LocalDate start, LocalDate end);
 
-    @Query("{'expiryDate': {$lt: ?0}, 'status': 'AVAILABLE'}")
-    List<BloodUnit> findExpiredUnits(LocalDate today);
+    @Query("{'bloodBankId': {$in: ?0}, 'expiryDate': {$lt: ?1}, 'status': 'AVAILABLE'}")
+    List<BloodUnit> findExpiredUnitsInBanks(Collection<String> bloodBankIds, LocalDate today);
 
     @Query("{'donorId': ?0}")
     List<BloodUnit> findByDonorId(String donorId);
@@ -36,8 +51,8 @@ public interface BloodUnitRepository extends MongoRepository<BloodUnit, String>
     @Query(value = "{'bloodBankId': ?0, 'status': ?1}", count = true)
     long countByBloodBankIdAndStatus(String bloodBankId, BloodUnit.Status status);
 
-    @Query("{'status': 'RESERVED', 'reservedUntil': {$lt: ?0}}")
-    List<BloodUnit> findExpiredReservations(LocalDateTime now);
+    @Query("{'bloodBankId': {$in: ?0}, 'status': 'RESERVED', 'reservedUntil': {$lt: ?1}}")
+    List<BloodUnit> findExpiredReservationsInBanks(Collection<String> bloodBankIds, LocalDateTime now);
 
     @Query(value = "{'status': 'AVAILABLE', 'expiryDate': {$gte: ?0}}", count = true)
     long countAvailableUnits(LocalDate today);
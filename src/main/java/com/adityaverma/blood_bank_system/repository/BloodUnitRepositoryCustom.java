@@ -0,0 +1,15 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+
+import java.util.List;
+
+public interface BloodUnitRepositoryCustom {
+
+    List<BloodUnit> findAvailable(AvailableUnitQuery query);
+
+    /**
+     * Every blood bank holding at least one unit.
+     */
+    List<String> findBloodBankIds();
+}
\ No newline at end of file
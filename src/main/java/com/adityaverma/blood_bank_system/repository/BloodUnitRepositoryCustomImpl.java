@@ -0,0 +1,27 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+public class BloodUnitRepositoryCustomImpl implements BloodUnitRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<BloodUnit> findAvailable(AvailableUnitQuery query) {
+        return mongoTemplate.find(query.toQuery(), BloodUnit.class);
+    }
+
+    @Override
+    public List<String> findBloodBankIds() {
+        return mongoTemplate.findDistinct(new Query(), "bloodBankId", BloodUnit.class, String.class).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.DailyBankRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBankRollupRepository extends MongoRepository<DailyBankRollup, String> {
+
+    @Query(value = "{'bloodBankId': ?0, 'date': {$gte: ?1, $lte: ?2}}", sort = "{'date': 1}")
+    List<DailyBankRollup> findRange(String bloodBankId, LocalDate from, LocalDate to);
+}
\ No newline at end of file
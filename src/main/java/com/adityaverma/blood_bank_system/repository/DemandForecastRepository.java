@@ -0,0 +1,13 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.DemandForecast;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DemandForecastRepository extends MongoRepository<DemandForecast, String> {
+
+    List<DemandForecast> findByBloodBankId(String bloodBankId);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.ImportJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends MongoRepository<ImportJob, String> {
+
+    Optional<ImportJob> findByJobId(String jobId);
+
+    List<ImportJob> findByStatus(ImportJob.Status status);
+}
\ No newline at end of file
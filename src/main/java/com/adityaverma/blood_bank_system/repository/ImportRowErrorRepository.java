@@ -0,0 +1,13 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.ImportRowError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportRowErrorRepository extends MongoRepository<ImportRowError, String> {
+
+    Page<ImportRowError> findByJobIdOrderByRowNumberAsc(String jobId, Pageable pageable);
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.InventorySnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends MongoRepository<InventorySnapshot, String> {
+
+    Optional<InventorySnapshot> findByBloodBankId(String bloodBankId);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.adityaverma.blood_bank_system.repository;
+
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface UnitEventRepository extends MongoRepository<UnitEvent, String> {
+
+    List<UnitEvent> findByUnitIdOrderByOccurredAtAscSequenceAsc(String unitId);
+
+    Stream<UnitEvent> findByBloodBankIdAndSequenceGreaterThanOrderBySequenceAsc(String bloodBankId, long sequence);
+}
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.adityaverma.blood_bank_system.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -15,9 +18,12 @@ import java.util.Date;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtils {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -76,12 +82,17 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String authToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+
         try {
             parseToken(authToken);
+            outcome = "valid";
             return true;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
+            outcome = "expired";
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
@@ -89,6 +100,8 @@ public class JwtUtils {
             log.error("JWT claims string is empty: {}", e.getMessage());
         } catch (JwtException e) {
             log.error("JWT validation failed: {}", e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("jwt.validation", "outcome", outcome));
         }
         return false;
     }
@@ -5,6 +5,7 @@ import com.adityaverma.blood_bank_system.model.User;
 import com.adityaverma.blood_bank_system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -51,6 +52,10 @@ public class AuthService {
                 .isActive(true)
                 .build();
 
+        if (request.latitude() != null && request.longitude() != null) {
+            user.setLocation(new GeoJsonPoint(request.longitude(), request.latitude()));
+        }
+
         String verificationToken = UUID.randomUUID().toString();
         user.setEmailVerificationToken(verificationToken);
         user.setEmailVerificationExpires(LocalDateTime.now().plusHours(24));
@@ -1,20 +1,36 @@
 package com.adityaverma.blood_bank_system.service;
 
 import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
 import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
 import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.MetricTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,27 +38,55 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BloodInventoryService {
     private final BloodUnitRepository bloodUnitRepository;
+    private final MongoTemplate mongoTemplate;
     private final NotificationService notificationService;
+    private final BloodStockIndex stockIndex;
+    private final MeterRegistry meterRegistry;
+    private final MetricTags metricTags;
+    private final UnitLifecycleService unitLifecycleService;
+    private final DemandForecastService demandForecastService;
+    private final BusinessClock businessClock;
+    private final TenantPartitions tenantPartitions;
+
+    @Value("${app.forecast.default-reorder-point:50}")
+    private int defaultReorderPoint = 50;
 
     private static final int EXPIRY_WARNING_DAYS = 3;
 
-    @Cacheable(value = "bloodInventory", key = "#bloodBankId")
+    @Cacheable(value = "bloodInventory", key = "T(com.adityaverma.blood_bank_system.util.TenantKeys).cacheKey(#bloodBankId)", sync = true)
     public BloodInventorySummaryResponse getInventorySummary(String bloodBankId) {
-        LocalDate today = LocalDate.now();
-        LocalDate warningDate = today.plusDays(EXPIRY_WARNING_DAYS);
+        // Only runs on a cache miss; hits are counted by the cache.gets meter
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        BloodInventorySummaryResponse summary = summarize(
+                bloodBankId,
+                bloodUnitRepository.findByBloodBankId(bloodBankId),
+                demandForecastService.reorderPoints(bloodBankId),
+                businessClock.today());
+
+        sample.stop(meterRegistry.timer("blood_inventory.summary.compute",
+                MetricTags.BANK, metricTags.bank(bloodBankId)));
+        return summary;
+    }
 
-        List<BloodUnit> allUnits = bloodUnitRepository.findByBloodBankId(bloodBankId);
+    /**
+     * Builds the summary from a bank's units and forecast reorder points without any I/O,
+     * so the blocking and reactive read paths produce identical results.
+     */
+    public BloodInventorySummaryResponse summarize(String bloodBankId, List<BloodUnit> allUnits,
+                                                   Map<String, Integer> reorderPoints, LocalDate today) {
+        long todayEpochDay = today.toEpochDay();
 
         Map<BloodUnit.Status, List<BloodUnit>> unitsByStatus = allUnits.stream()
                 .collect(Collectors.groupingBy(BloodUnit::getStatus));
 
         List<BloodUnit> availableUnits = unitsByStatus.getOrDefault(BloodUnit.Status.AVAILABLE, List.of())
                 .stream()
-                .filter(unit -> !unit.isExpired())
+                .filter(unit -> !unit.isExpired(todayEpochDay))
                 .toList();
 
         List<BloodUnit> expiringSoon = availableUnits.stream()
-                .filter(unit -> unit.isExpiringSoon(EXPIRY_WARNING_DAYS))
+                .filter(unit -> unit.isExpiringSoon(todayEpochDay, EXPIRY_WARNING_DAYS))
                 .toList();
 
         Map<String, Long> groupCount = availableUnits.stream()
@@ -66,7 +110,10 @@ public class BloodInventoryService {
                 .min(LocalDate::compareTo)
                 .orElse(null);
 
-        boolean isStockLow = availableUnits.size() < 50;
+        List<String> lowStockBuckets = lowStockBuckets(reorderPoints, availableUnits);
+        boolean isStockLow = lowStockBuckets == null
+                ? availableUnits.size() < defaultReorderPoint
+                : !lowStockBuckets.isEmpty();
 
         return new BloodInventorySummaryResponse(
                 bloodBankId,
@@ -80,82 +127,120 @@ public class BloodInventoryService {
                 componentCount,
                 today,
                 nextExpiryDate,
-                isStockLow
+                isStockLow,
+                lowStockBuckets == null ? List.of() : lowStockBuckets
         );
     }
 
+    /**
+     * Buckets whose available count is below their forecast reorder point, or null when
+     * the bank has no forecasts yet and the bank-wide default applies.
+     */
+    private static List<String> lowStockBuckets(Map<String, Integer> reorderPoints, List<BloodUnit> availableUnits) {
+        if (reorderPoints.isEmpty()) return null;
+
+        Map<String, Long> available = availableUnits.stream()
+                .collect(Collectors.groupingBy(
+                        unit -> DemandForecastService.bucketKey(unit.getBloodGroup(), unit.getComponentType()),
+                        Collectors.counting()));
+
+        return reorderPoints.entrySet().stream()
+                .filter(entry -> available.getOrDefault(entry.getKey(), 0L) < entry.getValue())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
     public List<BloodUnit> searchAvailableUnits(SearchCriteria criteria) {
-        LocalDate today = LocalDate.now();
+        AvailableUnitQuery query = toQuery(criteria, businessClock.today());
+
+        return stockIndex.isWarm()
+                ? stockIndex.find(query)
+                : bloodUnitRepository.findAvailable(query);
+    }
+
+    static AvailableUnitQuery toQuery(SearchCriteria criteria, LocalDate today) {
+        var query = AvailableUnitQuery.builder().availableOn(today);
 
-        return switch (criteria) {
+        switch (criteria) {
             case SearchCriteria.ByBloodGroup byBloodGroup ->
-                    bloodUnitRepository.findAvailableByBloodGroupAndComponent(
-                            byBloodGroup.bloodGroup(),
-                            null,
-                            today
-                    );
+                    query.bloodGroups(bloodGroups(byBloodGroup.bloodGroup()));
             case SearchCriteria.ByComponent byComponent ->
-                    bloodUnitRepository.findAvailableByBloodGroupAndComponent(
-                            null,
-                            byComponent.componentType(),
-                            today
-                    );
+                    query.componentType(parseComponent(byComponent.componentType()));
             case SearchCriteria.ByLocation byLocation ->
-                    bloodUnitRepository.findByBloodBankAndStatus(
-                            byLocation.location(),
-                            BloodUnit.Status.AVAILABLE,
-                            today
-                    );
-            case SearchCriteria.Combined combined -> {
-                var units = bloodUnitRepository.findAvailableByBloodGroupAndComponent(
-                        combined.bloodGroup(),
-                        combined.componentType(),
-                        today
-                );
-                yield units.stream()
-                        .filter(unit -> unit.getBloodBankId().equals(combined.location()))
-                        .toList();
-            }
-        };
+                    query.bloodBankId(byLocation.location());
+            case SearchCriteria.Combined combined -> query
+                    .bloodGroups(bloodGroups(combined.bloodGroup()))
+                    .componentType(parseComponent(combined.componentType()))
+                    .bloodBankId(combined.location());
+        }
+
+        return query.build();
     }
 
-    @Transactional
+    /**
+     * Reserves the unit with an update that only matches it while AVAILABLE and not
+     * expired, so two concurrent reservations cannot both take it.
+     */
     public BloodUnit reserveUnit(String unitId, String requestId) {
         BloodUnit unit = bloodUnitRepository.findByUnitId(unitId)
                 .orElseThrow(() -> new RuntimeException("Blood unit not found: " + unitId));
 
-        if (!unit.canBeReserved()) {
+        LocalDateTime now = businessClock.now();
+        BloodUnit saved = mongoTemplate.findAndModify(
+                new Query(Criteria.where("bloodBankId").is(unit.getBloodBankId())
+                        .and("unitId").is(unitId)
+                        .and("status").is(BloodUnit.Status.AVAILABLE)
+                        .and("expiryDate").gte(businessClock.today())),
+                new Update()
+                        .set("status", BloodUnit.Status.RESERVED)
+                        .set("reservedFor", requestId)
+                        .set("reservedUntil", now.plusHours(2))
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodUnit.class);
+        if (saved == null) {
+            countReservation(unit, "conflict");
             throw new RuntimeException("Blood unit cannot be reserved: " + unitId);
         }
 
-        unit.setStatus(BloodUnit.Status.RESERVED);
-        unit.setReservedFor(requestId);
-        unit.setReservedUntil(LocalDateTime.now().plusHours(2));
-        unit.setUpdatedAt(LocalDateTime.now());
-
-        BloodUnit saved = bloodUnitRepository.save(unit);
-        clearInventoryCache(saved.getBloodBankId());
+        stockIndex.apply(saved);
+        unitLifecycleService.record(saved, BloodUnit.Status.AVAILABLE, requestId);
+        countReservation(saved, "success");
 
         log.info("Blood unit {} reserved for request {}", unitId, requestId);
         return saved;
     }
 
-    @Transactional
+    private void countReservation(BloodUnit unit, String outcome) {
+        meterRegistry.counter("blood_unit.reservation",
+                MetricTags.BANK, metricTags.bank(unit.getBloodBankId()),
+                MetricTags.URGENCY, MetricTags.NONE,
+                MetricTags.OUTCOME, outcome).increment();
+    }
+
     public BloodUnit issueUnit(String unitId, String hospitalId) {
         BloodUnit unit = bloodUnitRepository.findByUnitId(unitId)
                 .orElseThrow(() -> new RuntimeException("Blood unit not found: " + unitId));
 
-        if (unit.getStatus() != BloodUnit.Status.RESERVED) {
+        LocalDateTime now = businessClock.now();
+        BloodUnit saved = mongoTemplate.findAndModify(
+                new Query(Criteria.where("bloodBankId").is(unit.getBloodBankId())
+                        .and("unitId").is(unitId)
+                        .and("status").is(BloodUnit.Status.RESERVED)),
+                new Update()
+                        .set("status", BloodUnit.Status.ISSUED)
+                        .set("issuedTo", hospitalId)
+                        .set("issuedDate", now)
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodUnit.class);
+        if (saved == null) {
             throw new RuntimeException("Blood unit must be reserved before issuing");
         }
 
-        unit.setStatus(BloodUnit.Status.ISSUED);
-        unit.setIssuedTo(hospitalId);
-        unit.setIssuedDate(LocalDateTime.now());
-        unit.setUpdatedAt(LocalDateTime.now());
-
-        BloodUnit saved = bloodUnitRepository.save(unit);
-        clearInventoryCache(saved.getBloodBankId());
+        stockIndex.apply(saved);
+        unitLifecycleService.record(saved, BloodUnit.Status.RESERVED, hospitalId);
 
         log.info("Blood unit {} issued to hospital {}", unitId, hospitalId);
         return saved;
@@ -164,63 +249,93 @@ public class BloodInventoryService {
     @Scheduled(cron = "0 0 8 * * *")
     @Transactional
     public void checkExpiringUnits() {
-        LocalDate today = LocalDate.now();
+        LocalDate today = businessClock.today();
         LocalDate warningDate = today.plusDays(EXPIRY_WARNING_DAYS);
 
-        List<BloodUnit> expiringUnits = bloodUnitRepository.findExpiringBetween(today, warningDate);
+        forEachClaimedPartition("checkExpiringUnits", (banks, fence) -> {
+            List<BloodUnit> expiringUnits = bloodUnitRepository.findExpiringBetweenInBanks(banks, today, warningDate);
 
-        if (!expiringUnits.isEmpty()) {
-            log.warn("Found {} units expiring within {} days", expiringUnits.size(), EXPIRY_WARNING_DAYS);
+            if (!expiringUnits.isEmpty()) {
+                log.warn("Found {} units expiring within {} days", expiringUnits.size(), EXPIRY_WARNING_DAYS);
 
-            expiringUnits.stream()
-                    .collect(Collectors.groupingBy(BloodUnit::getBloodBankId))
-                    .forEach((bloodBankId, units) -> {
-                        notificationService.sendExpiryAlert(units);
-                        log.info("Sent expiry alert for {} units in blood bank {}", units.size(), bloodBankId);
-                    });
-        }
+                expiringUnits.stream()
+                        .collect(Collectors.groupingBy(BloodUnit::getBloodBankId))
+                        .forEach((bloodBankId, units) -> {
+                            fence.check();
+                            notificationService.sendExpiryAlert(units);
+                            log.info("Sent expiry alert for {} units in blood bank {}", units.size(), bloodBankId);
+                        });
+            }
+        });
     }
 
     @Scheduled(cron = "0 0 6 * * *")
     @Transactional
     public void updateExpiredUnits() {
-        LocalDate today = LocalDate.now();
-        List<BloodUnit> expiredUnits = bloodUnitRepository.findExpiredUnits(today);
-
-        expiredUnits.forEach(unit -> {
-            unit.setStatus(BloodUnit.Status.EXPIRED);
-            unit.setDiscardedReason("Auto-expired");
-            unit.setDiscardedBy("System");
-            unit.setDiscardedDate(LocalDateTime.now());
-            unit.setUpdatedAt(LocalDateTime.now());
+        LocalDate today = businessClock.today();
+        LocalDateTime now = businessClock.now();
+
+        forEachClaimedPartition("updateExpiredUnits", (banks, fence) -> {
+            List<BloodUnit> expiredUnits = bloodUnitRepository.findExpiredUnitsInBanks(banks, today);
+            List<UnitLifecycleService.Transition> transitions = new ArrayList<>(expiredUnits.size());
+
+            expiredUnits.forEach(unit -> {
+                transitions.add(new UnitLifecycleService.Transition(unit, unit.getStatus(), "Auto-expired"));
+                unit.setStatus(BloodUnit.Status.EXPIRED);
+                unit.setDiscardedReason("Auto-expired");
+                unit.setDiscardedBy("System");
+                unit.setDiscardedDate(now);
+                unit.setUpdatedAt(now);
+            });
+
+            if (!expiredUnits.isEmpty()) {
+                fence.check();
+                bloodUnitRepository.saveAll(expiredUnits);
+                unitLifecycleService.recordAll(transitions);
+                log.info("Updated {} expired units to EXPIRED status", expiredUnits.size());
+            }
         });
-
-        if (!expiredUnits.isEmpty()) {
-            bloodUnitRepository.saveAll(expiredUnits);
-            log.info("Updated {} expired units to EXPIRED status", expiredUnits.size());
-        }
     }
 
     @Scheduled(fixedDelay = 300000)
     @Transactional
     public void releaseExpiredReservations() {
-        LocalDateTime now = LocalDateTime.now();
-        List<BloodUnit> expiredReservations = bloodUnitRepository.findExpiredReservations(now);
-
-        expiredReservations.forEach(unit -> {
-            unit.setStatus(BloodUnit.Status.AVAILABLE);
-            unit.setReservedFor(null);
-            unit.setReservedUntil(null);
-            unit.setUpdatedAt(now);
+        LocalDateTime now = businessClock.now();
+
+        forEachClaimedPartition("releaseExpiredReservations", (banks, fence) -> {
+            List<BloodUnit> expiredReservations = bloodUnitRepository.findExpiredReservationsInBanks(banks, now);
+
+            List<UnitLifecycleService.Transition> transitions = new ArrayList<>(expiredReservations.size());
+
+            expiredReservations.forEach(unit -> {
+                transitions.add(new UnitLifecycleService.Transition(unit, unit.getStatus(), "Reservation expired"));
+                unit.setStatus(BloodUnit.Status.AVAILABLE);
+                unit.setReservedFor(null);
+                unit.setReservedUntil(null);
+                unit.setUpdatedAt(now);
+            });
+
+            if (!expiredReservations.isEmpty()) {
+                fence.check();
+                bloodUnitRepository.saveAll(expiredReservations);
+                unitLifecycleService.recordAll(transitions);
+                log.info("Released {} expired reservations", expiredReservations.size());
+            }
         });
+    }
 
-        if (!expiredReservations.isEmpty()) {
-            bloodUnitRepository.saveAll(expiredReservations);
-            log.info("Released {} expired reservations", expiredReservations.size());
-        }
+    /**
+     * Runs a sweep over the banks of each tenant partition this instance holds, see
+     * {@link TenantPartitions}. Sweeps check their fence before writing, which stops a
+     * holder that knows it lost its partition but is not a fence: a holder stalled past
+     * the check can still write. The sweeps only move units past a date that has already
+     * passed, so such a late write repeats the successor's rather than undoing it.
+     */
+    private void forEachClaimedPartition(String job, BiConsumer<List<String>, LeaseCoordinator.Fence> sweep) {
+        tenantPartitions.forEachClaimed(job, bloodUnitRepository.findBloodBankIds(), sweep);
     }
 
-    @CacheEvict(value = "bloodInventory", key = "#bloodBankId")
+    @CacheEvict(value = "bloodInventory", key = "T(com.adityaverma.blood_bank_system.util.TenantKeys).cacheKey(#bloodBankId)")
     public void clearInventoryCache(String bloodBankId) {
         log.debug("Cleared inventory cache for blood bank: {}", bloodBankId);
     }
@@ -230,6 +345,14 @@ public class BloodInventoryService {
         log.info("Cleared all blood inventory cache");
     }
 
+    private static Set<BloodGroup> bloodGroups(String value) {
+        return value == null ? null : Set.of(BloodGroup.fromString(value));
+    }
+
+    private static BloodComponent parseComponent(String value) {
+        return BloodComponent.lookup().parse(value);
+    }
+
     public sealed interface SearchCriteria {
         record ByBloodGroup(String bloodGroup) implements SearchCriteria {}
         record ByComponent(String componentType) implements SearchCriteria {}
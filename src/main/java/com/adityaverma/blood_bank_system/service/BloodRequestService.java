@@ -1,18 +1,38 @@
 package com.adityaverma.blood_bank_system.service;
 
 import com.adityaverma.blood_bank_system.dto.requests.CreateBloodRequest;
+import com.adityaverma.blood_bank_system.event.BloodRequestCreatedEvent;
 import com.adityaverma.blood_bank_system.model.BloodRequest;
 import com.adityaverma.blood_bank_system.model.BloodUnit;
 import com.adityaverma.blood_bank_system.repository.BloodRequestRepository;
 import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.IdGenerator;
+import com.adityaverma.blood_bank_system.util.MetricTags;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +42,18 @@ public class BloodRequestService {
     private final BloodUnitRepository bloodUnitRepository;
     private final NotificationService notificationService;
     private final IdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final MetricTags metricTags;
+    private final UnitLifecycleService unitLifecycleService;
+    private final DemandForecastService demandForecastService;
+    private final DailyRollupService dailyRollupService;
+    private final MongoTemplate mongoTemplate;
+    private final BloodStockIndex stockIndex;
+    private final BusinessClock businessClock;
+
+    @Value("${app.requests.allocation-claim-ms:60000}")
+    private long allocationClaimMs = 60000;
 
     @Transactional
     public BloodRequest createRequest(CreateBloodRequest request) {
@@ -31,8 +63,9 @@ public class BloodRequestService {
                 .bloodGroup(request.bloodGroup())
                 .componentType(request.componentType())
                 .quantityUnits(request.quantityUnits())
-                .urgencyLevel(BloodRequest.UrgencyLevel.valueOf(request.urgencyLevel()))
+                .urgencyLevel(request.urgencyLevel())
                 .hospitalId(request.hospitalId())
+                .bloodBankId(request.bloodBankId())
                 .reason(request.reason())
                 .doctorName(request.doctorName())
                 .requiredBy(request.requiredBy())
@@ -40,10 +73,9 @@ public class BloodRequestService {
                 .build();
 
         BloodRequest savedRequest = bloodRequestRepository.save(bloodRequest);
-
-        if (request.urgencyLevel().equals("CRITICAL")) {
-            notificationService.notifyEmergencyRequest(savedRequest);
-        }
+        eventPublisher.publishEvent(new BloodRequestCreatedEvent(savedRequest));
+        demandForecastService.recordDemand(savedRequest);
+        dailyRollupService.recordRequestCreated(savedRequest);
 
         log.info("Created blood request {} for patient {}",
                 savedRequest.getRequestId(), savedRequest.getPatientName());
@@ -51,62 +83,301 @@ public class BloodRequestService {
         return savedRequest;
     }
 
-    @Transactional
+    /**
+     * Reserves units for the request and marks it ALLOCATED, all or nothing.
+     *
+     * @throws RuntimeException if the request is not open, another allocation holds it,
+     *                          or fewer units than its quantity could be reserved
+     */
     public BloodRequest allocateUnits(String requestId, List<String> unitIds) {
-        BloodRequest request = bloodRequestRepository.findByRequestId(requestId)
-                .orElseThrow(() -> new RuntimeException("Request not found: " + requestId));
+        return tryAllocateUnits(requestId, unitIds)
+                .orElseThrow(() -> new RuntimeException("Could not allocate request " + requestId
+                        + ": it is not open, is being allocated, or too few of the units were available"));
+    }
 
-        List<String> allocated = new ArrayList<>();
+    /**
+     * As {@link #allocateUnits}, but empty instead of throwing. Units past the request's
+     * quantity are spares, tried in order when earlier ones were taken.
+     * <p>
+     * Safe to run on several instances at once. The request is claimed with a
+     * conditional findAndModify that only matches it while open and without a live
+     * claim, and each unit is reserved with an update that only matches it while
+     * AVAILABLE. If the quantity is not reached, the units reserved here are released
+     * and the request stays open. A claim lapses after
+     * {@code app.requests.allocation-claim-ms}, so a crashed allocation does not block
+     * the request; the final write is conditional on the claim, so a lapsed one
+     * releases its units instead of marking the request.
+     */
+    public Optional<BloodRequest> tryAllocateUnits(String requestId, List<String> unitIds) {
+        LocalDateTime now = businessClock.now();
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(allocationClaimMs));
+        BloodRequest request = claim(getRequest(requestId), now, claimedUntil);
+        if (request == null) {
+            log.info("Request {} is not open or is being allocated elsewhere", requestId);
+            return Optional.empty();
+        }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String urgency = MetricTags.urgency(request.getUrgencyLevel());
+        int quantity = request.getQuantityUnits() != null ? request.getQuantityUnits() : unitIds.size();
+        long todayEpochDay = now.toLocalDate().toEpochDay();
+
+        Map<String, BloodUnit> candidates = bloodUnitRepository.findByUnitIdIn(unitIds).stream()
+                .collect(Collectors.toMap(BloodUnit::getUnitId, Function.identity(), (first, second) -> first));
+        List<BloodUnit> reserved = new ArrayList<>(quantity);
         for (String unitId : unitIds) {
-            BloodUnit unit = bloodUnitRepository.findByUnitId(unitId)
-                    .orElseThrow(() -> new RuntimeException("Unit not found: " + unitId));
-
-            if (unit.getStatus() == BloodUnit.Status.AVAILABLE) {
-                unit.setStatus(BloodUnit.Status.RESERVED);
-                unit.setReservedFor(requestId);
-                unit.setReservedUntil(LocalDateTime.now().plusHours(2));
-                bloodUnitRepository.save(unit);
-                allocated.add(unitId);
+            if (reserved.size() == quantity) break;
+
+            BloodUnit unit = candidates.get(unitId);
+            if (unit == null) continue;
+            if (unit.canBeReserved(todayEpochDay) && reserve(unit, requestId, now)) {
+                reserved.add(unit);
+                countReservation(unit, urgency, "success");
+            } else {
+                countReservation(unit, urgency, "conflict");
             }
         }
 
+        String bloodBankId = request.getBloodBankId() != null || reserved.isEmpty()
+                ? request.getBloodBankId()
+                : reserved.get(0).getBloodBankId();
+        List<String> allocated = reserved.stream().map(BloodUnit::getUnitId).toList();
+
+        if (reserved.isEmpty() || reserved.size() < quantity || !complete(request, claimedUntil, allocated)) {
+            release(allocated, requestId);
+            unclaim(request, claimedUntil);
+            log.info("Reserved {} of {} units for request {}, leaving it open",
+                    reserved.size(), quantity, requestId);
+            return Optional.empty();
+        }
+
+        if (request.getBloodBankId() == null) assignBank(request, bloodBankId);
+        reserved.forEach(stockIndex::apply);
+        unitLifecycleService.recordAll(reserved.stream()
+                .map(unit -> new UnitLifecycleService.Transition(unit, BloodUnit.Status.AVAILABLE, requestId))
+                .toList());
+
+        if (request.getBloodBankId() == null) {
+            // Attribute demand to the bank that served it when none was given, dated today
+            // since forecasts never re-read days they have folded
+            request.setBloodBankId(bloodBankId);
+            demandForecastService.recordDemand(request, now.toLocalDate());
+            dailyRollupService.recordRequestCreated(request, now.toLocalDate());
+        }
         request.setAllocatedUnits(allocated);
         request.setStatus(BloodRequest.RequestStatus.ALLOCATED);
-        BloodRequest updated = bloodRequestRepository.save(request);
+        request.setAllocatingUntil(null);
+        request.setUpdatedAt(now);
+        dailyRollupService.recordRequestStatus(request);
+
+        sample.stop(meterRegistry.timer("blood_request.allocation", MetricTags.URGENCY, urgency));
+        DistributionSummary.builder("blood_request.allocated_units")
+                .description("Units actually reserved per allocation call")
+                .baseUnit("units")
+                .tag(MetricTags.URGENCY, urgency)
+                .register(meterRegistry)
+                .record(allocated.size());
 
-        notificationService.notifyRequestAllocation(updated);
+        notificationService.notifyRequestAllocation(request);
 
-        return updated;
+        return Optional.of(request);
     }
 
-    @Transactional
-    public BloodRequest issueRequest(String requestId) {
-        BloodRequest request = bloodRequestRepository.findByRequestId(requestId)
-                .orElseThrow(() -> new RuntimeException("Request not found: " + requestId));
+    /**
+     * The claimed request as stored, or null if it is closed or claimed elsewhere.
+     */
+    private BloodRequest claim(BloodRequest request, LocalDateTime now, LocalDateTime claimedUntil) {
+        Query claimable = byShardKey(request).addCriteria(new Criteria().andOperator(
+                Criteria.where("status").in(BloodRequest.RequestStatus.PENDING, BloodRequest.RequestStatus.APPROVED),
+                new Criteria().orOperator(
+                        Criteria.where("allocatingUntil").is(null),
+                        Criteria.where("allocatingUntil").lte(now))));
+
+        return mongoTemplate.findAndModify(claimable,
+                new Update().set("allocatingUntil", claimedUntil),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodRequest.class);
+    }
+
+    private boolean complete(BloodRequest request, LocalDateTime claimedUntil, List<String> allocated) {
+        return mongoTemplate.updateFirst(
+                byShardKey(request).addCriteria(Criteria.where("allocatingUntil").is(claimedUntil)),
+                new Update()
+                        .set("status", BloodRequest.RequestStatus.ALLOCATED)
+                        .set("allocatedUnits", allocated)
+                        .set("updatedAt", businessClock.now())
+                        .unset("allocatingUntil"),
+                BloodRequest.class).getModifiedCount() > 0;
+    }
 
-        if (request.getStatus() != BloodRequest.RequestStatus.ALLOCATED) {
-            throw new RuntimeException("Request must be allocated before issuing");
+    /**
+     * Records the bank that served a request created without one. The bank is part of
+     * the shard key, so on a sharded cluster this moves the document between shards,
+     * which Mongo only allows as a retryable write or in a transaction. It runs after
+     * the allocation is complete, so if the move is refused the request stays allocated
+     * under its original key and only the bank is left unset.
+     */
+    private void assignBank(BloodRequest request, String bloodBankId) {
+        try {
+            mongoTemplate.updateFirst(byShardKey(request),
+                    new Update().set("bloodBankId", bloodBankId), BloodRequest.class);
+        } catch (DataAccessException e) {
+            log.warn("Request {} is allocated, but its serving bank {} could not be stored: {}",
+                    request.getRequestId(), bloodBankId, e.getMessage());
         }
+    }
+
+    private void unclaim(BloodRequest request, LocalDateTime claimedUntil) {
+        mongoTemplate.updateFirst(
+                byShardKey(request).addCriteria(Criteria.where("allocatingUntil").is(claimedUntil)),
+                new Update().unset("allocatingUntil"),
+                BloodRequest.class);
+    }
 
-        if (request.getAllocatedUnits() != null) {
-            for (String unitId : request.getAllocatedUnits()) {
-                BloodUnit unit = bloodUnitRepository.findByUnitId(unitId)
-                        .orElseThrow(() -> new RuntimeException("Unit not found: " + unitId));
+    private boolean reserve(BloodUnit unit, String requestId, LocalDateTime now) {
+        LocalDateTime reservedUntil = now.plusHours(2);
+        boolean reserved = mongoTemplate.updateFirst(
+                new Query(Criteria.where("bloodBankId").is(unit.getBloodBankId())
+                        .and("unitId").is(unit.getUnitId())
+                        .and("status").is(BloodUnit.Status.AVAILABLE)),
+                new Update()
+                        .set("status", BloodUnit.Status.RESERVED)
+                        .set("reservedFor", requestId)
+                        .set("reservedUntil", reservedUntil)
+                        .set("updatedAt", now),
+                BloodUnit.class).getModifiedCount() > 0;
 
-                unit.setStatus(BloodUnit.Status.ISSUED);
-                unit.setIssuedTo(request.getHospitalId());
-                unit.setIssuedDate(LocalDateTime.now());
-                bloodUnitRepository.save(unit);
+        if (reserved) {
+            unit.setStatus(BloodUnit.Status.RESERVED);
+            unit.setReservedFor(requestId);
+            unit.setReservedUntil(reservedUntil);
+            unit.setUpdatedAt(now);
+        }
+        return reserved;
+    }
+
+    private void release(List<String> unitIds, String requestId) {
+        if (unitIds.isEmpty()) return;
+
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("unitId").in(unitIds)
+                        .and("status").is(BloodUnit.Status.RESERVED)
+                        .and("reservedFor").is(requestId)),
+                new Update()
+                        .set("status", BloodUnit.Status.AVAILABLE)
+                        .set("updatedAt", businessClock.now())
+                        .unset("reservedFor")
+                        .unset("reservedUntil"),
+                BloodUnit.class);
+    }
+
+    private static Query byShardKey(BloodRequest request) {
+        return new Query(Criteria.where("_id").is(request.getId()).and("bloodBankId").is(request.getBloodBankId()));
+    }
+
+    private void countReservation(BloodUnit unit, String urgency, String outcome) {
+        meterRegistry.counter("blood_unit.reservation",
+                MetricTags.BANK, metricTags.bank(unit.getBloodBankId()),
+                MetricTags.URGENCY, urgency,
+                MetricTags.OUTCOME, outcome).increment();
+    }
+
+    /**
+     * Issues every unit allocated to the request and marks it DISPATCHED. The request is
+     * claimed as in {@link #tryAllocateUnits}, and each unit is issued with an update
+     * that only matches it while still reserved for this request, so a unit whose
+     * reservation lapsed and was taken by another request is never issued here.
+     * <p>
+     * If any unit is no longer reserved for the request, the call fails and the request
+     * stays ALLOCATED. Units issued before the failure stay issued, and a retry skips
+     * them.
+     */
+    public BloodRequest issueRequest(String requestId) {
+        LocalDateTime now = businessClock.now();
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(allocationClaimMs));
+        BloodRequest request = mongoTemplate.findAndModify(
+                byShardKey(getRequest(requestId)).addCriteria(new Criteria().andOperator(
+                        Criteria.where("status").is(BloodRequest.RequestStatus.ALLOCATED),
+                        new Criteria().orOperator(
+                                Criteria.where("allocatingUntil").is(null),
+                                Criteria.where("allocatingUntil").lte(now)))),
+                new Update().set("allocatingUntil", claimedUntil),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodRequest.class);
+        if (request == null) {
+            throw new RuntimeException("Request must be allocated, and not being issued elsewhere, before issuing");
+        }
+
+        List<String> allocated = request.getAllocatedUnits() != null ? request.getAllocatedUnits() : List.of();
+        Map<String, BloodUnit> units = bloodUnitRepository.findByUnitIdIn(allocated).stream()
+                .collect(Collectors.toMap(BloodUnit::getUnitId, Function.identity(), (first, second) -> first));
+        List<UnitLifecycleService.Transition> transitions = new ArrayList<>();
+        List<String> notReserved = new ArrayList<>();
+        for (String unitId : allocated) {
+            BloodUnit unit = units.get(unitId);
+            BloodUnit issued = unit != null ? issue(unit, request, now) : null;
+            if (issued != null) {
+                transitions.add(new UnitLifecycleService.Transition(issued, BloodUnit.Status.RESERVED, request.getHospitalId()));
+            } else if (unit == null || !issuedFor(unit, requestId)) {
+                notReserved.add(unitId);
             }
         }
 
+        transitions.forEach(transition -> stockIndex.apply(transition.unit()));
+        unitLifecycleService.recordAll(transitions);
+
+        if (!notReserved.isEmpty()) {
+            unclaim(request, claimedUntil);
+            throw new RuntimeException("Units no longer reserved for request " + requestId + ": " + notReserved);
+        }
+
+        boolean dispatched = mongoTemplate.updateFirst(
+                byShardKey(request).addCriteria(Criteria.where("allocatingUntil").is(claimedUntil)),
+                new Update()
+                        .set("status", BloodRequest.RequestStatus.DISPATCHED)
+                        .set("updatedAt", now)
+                        .unset("allocatingUntil"),
+                BloodRequest.class).getModifiedCount() > 0;
+        if (!dispatched) {
+            throw new RuntimeException("Lost the claim on request " + requestId + " while issuing its units");
+        }
+
         request.setStatus(BloodRequest.RequestStatus.DISPATCHED);
-        BloodRequest updated = bloodRequestRepository.save(request);
+        request.setAllocatingUntil(null);
+        request.setUpdatedAt(now);
+        dailyRollupService.recordRequestStatus(request);
 
-        notificationService.notifyRequestDispatch(updated);
+        notificationService.notifyRequestDispatch(request);
+
+        return request;
+    }
+
+    /**
+     * The unit as issued, or null if it was not reserved for the request.
+     */
+    private BloodUnit issue(BloodUnit unit, BloodRequest request, LocalDateTime now) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("bloodBankId").is(unit.getBloodBankId())
+                        .and("unitId").is(unit.getUnitId())
+                        .and("status").is(BloodUnit.Status.RESERVED)
+                        .and("reservedFor").is(request.getRequestId())),
+                new Update()
+                        .set("status", BloodUnit.Status.ISSUED)
+                        .set("issuedTo", request.getHospitalId())
+                        .set("issuedDate", now)
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodUnit.class);
+    }
+
+    // Issued for this request by an earlier attempt
+    private static boolean issuedFor(BloodUnit unit, String requestId) {
+        return unit.getStatus() == BloodUnit.Status.ISSUED && requestId.equals(unit.getReservedFor());
+    }
 
-        return updated;
+    public static boolean isOpen(BloodRequest request) {
+        return request.getStatus() == BloodRequest.RequestStatus.PENDING
+                || request.getStatus() == BloodRequest.RequestStatus.APPROVED;
     }
 
     public List<BloodRequest> getEmergencyRequests() {
@@ -0,0 +1,550 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.CompactRedisSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of AVAILABLE units per blood bank. Each bank keeps an 8x5 grid of
+ * buckets ({@link BloodGroup} x {@link BloodComponent} ordinals); a bucket is a pair
+ * of primitive arrays holding unit handles and their expiry epoch-days, sorted by
+ * expiry. A handle points at the unit's compact Smile encoding rather than a live
+ * object, and only the units a search returns are decoded. Buckets are copy-on-write
+ * so reads never take a lock.
+ * <p>
+ * The index is warmed from Mongo once the application is ready and kept in sync by
+ * {@link #apply(BloodUnit)} on every unit save made by this instance. Writes made by
+ * other instances are picked up by {@link #reconcile()} every
+ * {@code app.stock-index.reconcile-interval-ms}, so they show here within one interval.
+ * Until it is warm, or when reconciliation has not succeeded for
+ * {@code app.stock-index.max-staleness-ms}, {@link #isWarm()} is false and callers must
+ * fall back to the database.
+ * <p>
+ * All changes to one unit, from saves and from reconciliation, run under that unit's
+ * lock stripe, and a copy older than the one last applied, by {@code updatedAt}, is
+ * ignored. Removed units leave a marker with their version until the next
+ * reconciliation, so a late older copy cannot put them back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BloodStockIndex {
+    private final MongoTemplate mongoTemplate;
+    private final BusinessClock businessClock;
+
+    static final int GROUPS = BloodGroup.values().length;
+    static final int COMPONENTS = BloodComponent.values().length;
+
+    private static final ObjectMapper SMILE_MAPPER = CompactRedisSerializer.smileMapper();
+    private static final CompactRedisSerializer<BloodUnit> CODEC = CompactRedisSerializer.smile(
+            SMILE_MAPPER, SMILE_MAPPER.constructType(BloodUnit.class), 1, -1);
+
+    private static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+
+    private final Map<String, BankStock> banks = new ConcurrentHashMap<>();
+    private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = newStripes(64);
+    private volatile boolean warm;
+    private volatile long syncedAtNanos;
+
+    // Units applied while a reconciliation runs; its read of them may predate the apply
+    private final Set<String> appliedDuringReconcile = ConcurrentHashMap.newKeySet();
+    private volatile boolean reconciling;
+
+    @Value("${app.stock-index.max-staleness-ms:180000}")
+    private long maxStalenessMs = 180000;
+
+    /**
+     * Where a unit was last applied and the version applied. A null bank marks a unit
+     * removed from the index.
+     */
+    private record Placement(String bloodBankId, long version, long atNanos) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+
+        long loaded;
+        try (Stream<BloodUnit> units = mongoTemplate.stream(availableUnits(), BloodUnit.class)) {
+            loaded = units.peek(this::apply).count();
+        }
+
+        syncedAtNanos = started;
+        warm = true;
+        log.info("Blood stock index warmed with {} available units across {} banks", loaded, banks.size());
+    }
+
+    public boolean isWarm() {
+        return warm && System.nanoTime() - syncedAtNanos < TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    /**
+     * Brings the index in line with Mongo. Units whose stored copy is unchanged are left
+     * alone, and every bank's stored units are checked against what Mongo holds, so a
+     * unit left behind in a bank it no longer belongs to is removed. A reconciliation
+     * with nothing to do rewrites no bucket.
+     */
+    @Scheduled(fixedDelayString = "${app.stock-index.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.stock-index.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!warm) return;
+
+        long started = System.nanoTime();
+        Map<String, String> seen = new HashMap<>();
+        int changed = 0;
+
+        appliedDuringReconcile.clear();
+        reconciling = true;
+        try {
+            try (Stream<BloodUnit> units = mongoTemplate.stream(availableUnits(), BloodUnit.class)) {
+                for (BloodUnit unit : (Iterable<BloodUnit>) units::iterator) {
+                    if (unit.getUnitId() == null) continue;
+                    seen.put(unit.getUnitId(), unit.getBloodBankId());
+                    if (reconcile(unit)) changed++;
+                }
+            }
+
+            for (Map.Entry<String, BankStock> bank : banks.entrySet()) {
+                for (String unitId : bank.getValue().unitIds()) {
+                    if (bank.getKey().equals(seen.get(unitId))) continue;
+                    if (drop(unitId, bank.getKey(), bank.getValue())) changed++;
+                }
+            }
+
+            // Removal markers only guard against copies read before this pass began
+            placements.values().removeIf(placement ->
+                    placement.bloodBankId() == null && placement.atNanos() < started);
+        } finally {
+            reconciling = false;
+        }
+
+        syncedAtNanos = started;
+        if (changed > 0) {
+            log.info("Blood stock index reconciled {} units changed by other instances", changed);
+        }
+    }
+
+    private boolean reconcile(BloodUnit unit) {
+        byte[] payload = indexable(unit) ? CODEC.serialize(unit) : null;
+        ReentrantLock lock = stripe(unit.getUnitId());
+        lock.lock();
+        try {
+            if (appliedDuringReconcile.contains(unit.getUnitId())) return false;
+
+            Placement current = placements.get(unit.getUnitId());
+            if (payload != null && current != null && unit.getBloodBankId().equals(current.bloodBankId())) {
+                BankStock stock = banks.get(current.bloodBankId());
+                if (stock != null && Arrays.equals(payload, stock.payload(unit.getUnitId()))) return false;
+            }
+            return applyLocked(unit, payload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a unit Mongo no longer holds as available in this bank, unless this
+     * instance applied it since the reconciliation began.
+     */
+    private boolean drop(String unitId, String bloodBankId, BankStock stock) {
+        ReentrantLock lock = stripe(unitId);
+        lock.lock();
+        try {
+            if (appliedDuringReconcile.contains(unitId)) return false;
+
+            Placement current = placements.get(unitId);
+            if (current != null && bloodBankId.equals(current.bloodBankId())) {
+                placements.put(unitId, new Placement(null, current.version(), System.nanoTime()));
+            }
+            return stock.remove(unitId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Query availableUnits() {
+        return new Query(Criteria.where("status").is(BloodUnit.Status.AVAILABLE)
+                .and("expiryDate").gte(businessClock.today()));
+    }
+
+    /**
+     * Inserts, moves or removes a unit according to its current status, bank and expiry.
+     * A copy older than the one already applied is ignored.
+     */
+    public void apply(BloodUnit unit) {
+        if (unit.getUnitId() == null) return;
+
+        byte[] payload = indexable(unit) ? CODEC.serialize(unit) : null;
+        ReentrantLock lock = stripe(unit.getUnitId());
+        lock.lock();
+        try {
+            if (reconciling) appliedDuringReconcile.add(unit.getUnitId());
+            applyLocked(unit, payload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the unit's stripe; payload is null when the unit is not indexable
+    private boolean applyLocked(BloodUnit unit, byte[] payload) {
+        String unitId = unit.getUnitId();
+        long version = versionOf(unit);
+        Placement current = placements.get(unitId);
+        if (current != null && version != UNKNOWN_VERSION && current.version() != UNKNOWN_VERSION
+                && version < current.version()) {
+            return false;
+        }
+
+        if (current != null && current.bloodBankId() != null
+                && (payload == null || !current.bloodBankId().equals(unit.getBloodBankId()))) {
+            BankStock previous = banks.get(current.bloodBankId());
+            if (previous != null) previous.remove(unitId);
+        }
+
+        if (payload != null) {
+            banks.computeIfAbsent(unit.getBloodBankId(), id -> new BankStock())
+                    .upsert(unitId, bucketOf(unit.getBloodGroup(), unit.getComponentType()),
+                            (int) unit.getExpiryDate().toEpochDay(), payload);
+            placements.put(unitId, new Placement(unit.getBloodBankId(), version, System.nanoTime()));
+        } else if (version != UNKNOWN_VERSION) {
+            placements.put(unitId, new Placement(null, version, System.nanoTime()));
+        } else {
+            placements.remove(unitId);
+        }
+        return true;
+    }
+
+    private static boolean indexable(BloodUnit unit) {
+        return unit.getStatus() == BloodUnit.Status.AVAILABLE
+                && unit.getBloodBankId() != null
+                && unit.getBloodGroup() != null
+                && unit.getComponentType() != null
+                && unit.getExpiryDate() != null;
+    }
+
+    private static long versionOf(BloodUnit unit) {
+        return unit.getUpdatedAt() == null
+                ? UNKNOWN_VERSION
+                : unit.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private ReentrantLock stripe(String unitId) {
+        return stripes[Math.floorMod(unitId.hashCode(), stripes.length)];
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        ReentrantLock[] locks = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) locks[i] = new ReentrantLock();
+        return locks;
+    }
+
+    /**
+     * Serves the same search as {@link AvailableUnitQuery#toQuery()}: non-expired units,
+     * earliest expiry first. Null predicates match any value.
+     */
+    public List<BloodUnit> find(AvailableUnitQuery query) {
+        int epochDay = (int) (query.availableOn() != null
+                ? query.availableOn().toEpochDay()
+                : businessClock.epochDay());
+        int[] buckets = bucketsMatching(query.bloodGroups(), query.componentType());
+        List<Hit> matches = new ArrayList<>();
+
+        if (query.bloodBankId() != null) {
+            BankStock stock = banks.get(query.bloodBankId());
+            if (stock != null) stock.collect(buckets, epochDay, matches);
+        } else {
+            banks.values().forEach(stock -> stock.collect(buckets, epochDay, matches));
+        }
+
+        return decode(matches, query.limit());
+    }
+
+    public int count(String bloodBankId, BloodGroup bloodGroup, BloodComponent componentType, LocalDate today) {
+        BankStock stock = banks.get(bloodBankId);
+        return stock == null ? 0 : stock.count(
+                bucketsMatching(bloodGroup == null ? null : Set.of(bloodGroup), componentType),
+                (int) today.toEpochDay());
+    }
+
+    /**
+     * Available units of one bank expiring between {@code from} and {@code to} inclusive,
+     * earliest expiry first. Read straight off the expiry-sorted buckets.
+     */
+    public List<BloodUnit> expiringBetween(String bloodBankId, LocalDate from, LocalDate to) {
+        BankStock stock = banks.get(bloodBankId);
+        if (stock == null) return List.of();
+
+        List<Hit> matches = new ArrayList<>();
+        stock.collectExpiring((int) from.toEpochDay(), (int) to.toEpochDay(), matches);
+        return decode(matches, 0);
+    }
+
+    public Set<String> bankIds() {
+        return Set.copyOf(banks.keySet());
+    }
+
+    // Sorts by expiry and decodes only the units that are returned
+    private static List<BloodUnit> decode(List<Hit> matches, int limit) {
+        matches.sort(Comparator.comparingInt(Hit::expiryDay));
+        int size = limit > 0 ? Math.min(limit, matches.size()) : matches.size();
+
+        List<BloodUnit> units = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            units.add(CODEC.deserialize(matches.get(i).payload()));
+        }
+        return units;
+    }
+
+    private record Hit(int expiryDay, byte[] payload) {}
+
+    static int bucketOf(BloodGroup bloodGroup, BloodComponent componentType) {
+        return bloodGroup.ordinal() * COMPONENTS + componentType.ordinal();
+    }
+
+    /**
+     * Immutable, expiry-sorted bucket of unit handles.
+     */
+    record Bucket(int[] handles, int[] expiryDays) {
+        static final Bucket EMPTY = new Bucket(new int[0], new int[0]);
+
+        int size() {
+            return handles.length;
+        }
+
+        // First position whose expiry is >= epochDay
+        int lowerBound(int epochDay) {
+            int low = 0, high = expiryDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (expiryDays[mid] < epochDay) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        Bucket insert(int handle, int expiryDay) {
+            int at = lowerBound(expiryDay + 1);
+            int[] newHandles = new int[handles.length + 1];
+            int[] newExpiry = new int[expiryDays.length + 1];
+            System.arraycopy(handles, 0, newHandles, 0, at);
+            System.arraycopy(expiryDays, 0, newExpiry, 0, at);
+            newHandles[at] = handle;
+            newExpiry[at] = expiryDay;
+            System.arraycopy(handles, at, newHandles, at + 1, handles.length - at);
+            System.arraycopy(expiryDays, at, newExpiry, at + 1, expiryDays.length - at);
+            return new Bucket(newHandles, newExpiry);
+        }
+
+        Bucket remove(int handle, int expiryDay) {
+            for (int i = lowerBound(expiryDay); i < handles.length && expiryDays[i] == expiryDay; i++) {
+                if (handles[i] == handle) {
+                    int[] newHandles = new int[handles.length - 1];
+                    int[] newExpiry = new int[expiryDays.length - 1];
+                    System.arraycopy(handles, 0, newHandles, 0, i);
+                    System.arraycopy(expiryDays, 0, newExpiry, 0, i);
+                    System.arraycopy(handles, i + 1, newHandles, i, handles.length - i - 1);
+                    System.arraycopy(expiryDays, i + 1, newExpiry, i, expiryDays.length - i - 1);
+                    return new Bucket(newHandles, newExpiry);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Per-bank grid. Writers publish a new {@link Grid} under the lock; readers take one
+     * volatile read of the grid and never lock. Handles index into the grid's slot table
+     * and are not reused until the table is compacted into a brand new grid.
+     */
+    static final class BankStock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private volatile Grid grid = Grid.empty(64);
+        private int nextHandle;
+
+        // Where a unit sits, kept for writers so a removal needs no decoding
+        private record Entry(int handle, int bucket, int expiryDay) {}
+
+        void upsert(String unitId, int bucket, int expiryDay, byte[] payload) {
+            lock.lock();
+            try {
+                Grid current = removeLocked(grid, unitId);
+
+                if (nextHandle == current.slots().length) {
+                    current = compactOrGrow(current);
+                }
+                int handle = nextHandle++;
+                current.slots()[handle] = payload;
+                entries.put(unitId, new Entry(handle, bucket, expiryDay));
+
+                grid = current.with(bucket, current.buckets()[bucket].insert(handle, expiryDay));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        byte[] payload(String unitId) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(unitId);
+                return entry == null ? null : grid.slots()[entry.handle()];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<String> unitIds() {
+            lock.lock();
+            try {
+                return List.copyOf(entries.keySet());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(String unitId) {
+            lock.lock();
+            try {
+                Grid current = grid;
+                grid = removeLocked(current, unitId);
+                return grid != current;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void collect(int[] matching, int todayEpochDay, List<Hit> out) {
+            Grid current = grid;
+            for (int bucket : matching) {
+                Bucket entries = current.buckets()[bucket];
+                for (int i = entries.lowerBound(todayEpochDay); i < entries.size(); i++) {
+                    out.add(new Hit(entries.expiryDays()[i], current.slots()[entries.handles()[i]]));
+                }
+            }
+        }
+
+        void collectExpiring(int fromEpochDay, int toEpochDay, List<Hit> out) {
+            Grid current = grid;
+            for (Bucket entries : current.buckets()) {
+                for (int i = entries.lowerBound(fromEpochDay);
+                     i < entries.size() && entries.expiryDays()[i] <= toEpochDay; i++) {
+                    out.add(new Hit(entries.expiryDays()[i], current.slots()[entries.handles()[i]]));
+                }
+            }
+        }
+
+        int count(int[] matching, int todayEpochDay) {
+            Grid current = grid;
+            int total = 0;
+            for (int bucket : matching) {
+                Bucket entries = current.buckets()[bucket];
+                total += entries.size() - entries.lowerBound(todayEpochDay);
+            }
+            return total;
+        }
+
+        private Grid removeLocked(Grid current, String unitId) {
+            Entry entry = entries.remove(unitId);
+            if (entry == null) return current;
+
+            return current.with(entry.bucket(), current.buckets()[entry.bucket()]
+                    .remove(entry.handle(), entry.expiryDay()));
+        }
+
+        // Grow while most handles are live; otherwise rebuild with dense handles
+        private Grid compactOrGrow(Grid current) {
+            int live = entries.size();
+            if (live > current.slots().length / 2) {
+                return new Grid(Arrays.copyOf(current.slots(), current.slots().length * 2), current.buckets());
+            }
+
+            byte[][] slots = new byte[Math.max(64, live * 2)][];
+            List<List<Entry>> members = new ArrayList<>(GROUPS * COMPONENTS);
+            for (int i = 0; i < GROUPS * COMPONENTS; i++) members.add(new ArrayList<>());
+
+            int handle = 0;
+            for (Map.Entry<String, Entry> unit : entries.entrySet()) {
+                Entry entry = unit.getValue();
+                slots[handle] = current.slots()[entry.handle()];
+                Entry moved = new Entry(handle, entry.bucket(), entry.expiryDay());
+                unit.setValue(moved);
+                members.get(entry.bucket()).add(moved);
+                handle++;
+            }
+
+            Bucket[] buckets = new Bucket[GROUPS * COMPONENTS];
+            for (int b = 0; b < buckets.length; b++) {
+                List<Entry> sorted = members.get(b).stream()
+                        .sorted(Comparator.comparingInt(Entry::expiryDay))
+                        .toList();
+                buckets[b] = new Bucket(
+                        sorted.stream().mapToInt(Entry::handle).toArray(),
+                        sorted.stream().mapToInt(Entry::expiryDay).toArray());
+            }
+
+            nextHandle = handle;
+            return new Grid(slots, buckets);
+        }
+    }
+
+    private static int[] bucketsMatching(Set<BloodGroup> bloodGroups, BloodComponent componentType) {
+        boolean anyGroup = bloodGroups == null || bloodGroups.isEmpty();
+        int[] matching = new int[GROUPS * COMPONENTS];
+        int n = 0;
+        for (BloodGroup group : BloodGroup.values()) {
+            int g = group.ordinal();
+            if (!anyGroup && !bloodGroups.contains(group)) continue;
+            for (int c = 0; c < COMPONENTS; c++) {
+                if (componentType != null && componentType.ordinal() != c) continue;
+                matching[n++] = g * COMPONENTS + c;
+            }
+        }
+        return Arrays.copyOf(matching, n);
+    }
+
+    /**
+     * Slot table plus bucket grid, published together. The slot array is shared between
+     * successive grids; a new handle is written before the grid that references it.
+     */
+    record Grid(byte[][] slots, Bucket[] buckets) {
+        static Grid empty(int capacity) {
+            Bucket[] buckets = new Bucket[GROUPS * COMPONENTS];
+            Arrays.fill(buckets, Bucket.EMPTY);
+            return new Grid(new byte[capacity][], buckets);
+        }
+
+        Grid with(int bucket, Bucket replacement) {
+            Bucket[] copy = buckets.clone();
+            copy[bucket] = replacement;
+            return new Grid(slots, copy);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,575 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.ImportJob;
+import com.adityaverma.blood_bank_system.model.ImportRowError;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.repository.ImportJobRepository;
+import com.adityaverma.blood_bank_system.repository.ImportRowErrorRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.IdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming bulk import of units and donors for onboarding a blood bank. The upload is
+ * staged to GridFS and processed on a virtual thread in batches of
+ * {@code app.import.batch-size} rows: each batch is validated in parallel, valid rows
+ * go out in one unordered bulk insert and rejected rows are written to
+ * {@code import_row_errors}. Only then does the job's {@code committedRows} advance.
+ * <p>
+ * An instance only runs a job it has claimed on the job document, and extends the
+ * claim with every committed batch. RUNNING jobs whose claim lapsed were interrupted;
+ * any instance picks them up on its next sweep and resumes after the last committed
+ * batch. That batch may have been partly written before the crash, so duplicate key
+ * errors in the first batch of a resumed run count as already imported. Elsewhere they
+ * are reported as row errors. A run that finds its claim taken over stops without
+ * touching the job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+    private final MongoTemplate mongoTemplate;
+    private final ImportJobRepository importJobRepository;
+    private final ImportRowErrorRepository rowErrorRepository;
+    private final IdGenerator idGenerator;
+    private final BloodStockIndex stockIndex;
+    private final UnitLifecycleService unitLifecycleService;
+    private final ObjectMapper objectMapper;
+    private final GridFsTemplate gridFsTemplate;
+    private final LeaseCoordinator leaseCoordinator;
+    private final BusinessClock businessClock;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.claim-ms:300000}")
+    private long claimMs = 300000;
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^[0-9]{10}$");
+    private static final Set<String> GENDERS = Set.of("MALE", "FEMALE", "OTHER");
+    private static final String[] TEST_COLUMNS = {"hiv", "hepatitis_b", "hepatitis_c", "syphilis", "malaria"};
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private record Checked(ImportRowReader.Row row, Object document, List<String> errors) {}
+
+    public ImportJob start(ImportJob.Kind kind, ImportJob.Format format, String bloodBankId,
+                           String sourceName, InputStream content, String startedBy) {
+        if (kind == ImportJob.Kind.UNITS && bloodBankId == null) {
+            throw new RuntimeException("A unit import needs the blood bank being onboarded");
+        }
+
+        String jobId = idGenerator.generateImportId();
+        ObjectId staged;
+        try {
+            staged = gridFsTemplate.store(content, jobId + (format == ImportJob.Format.CSV ? ".csv" : ".ndjson"));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to stage import file: " + e.getMessage());
+        }
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .jobId(jobId)
+                .kind(kind)
+                .format(format)
+                .bloodBankId(bloodBankId)
+                .sourceName(sourceName)
+                .stagedFileId(staged.toHexString())
+                .claimedBy(leaseCoordinator.instanceId())
+                .claimedUntil(claimExpiry())
+                .startedBy(startedBy)
+                .build());
+
+        launch(job, false);
+        log.info("Started {} import {} from {}", kind, jobId, sourceName);
+        return job;
+    }
+
+    public ImportJob resume(String jobId) {
+        ImportJob job = getJob(jobId);
+        if (job.getStatus() == ImportJob.Status.COMPLETED) {
+            throw new RuntimeException("Import already completed: " + jobId);
+        }
+        if (running.contains(jobId)) {
+            return job;
+        }
+
+        ImportJob claimed = claim(Criteria.where("jobId").is(jobId).and("status").ne(ImportJob.Status.COMPLETED),
+                new Update().set("status", ImportJob.Status.RUNNING).unset("failureReason"));
+        if (claimed == null) {
+            // Completed meanwhile, or still being run by another instance
+            return getJob(jobId);
+        }
+        launch(claimed, true);
+        return claimed;
+    }
+
+    /**
+     * Picks up RUNNING jobs whose claim lapsed, i.e. whose instance stopped mid-run. Runs
+     * at startup and then every {@code app.import.claim-ms}.
+     */
+    @Scheduled(fixedDelayString = "${app.import.claim-ms:300000}")
+    public void resumeInterrupted() {
+        int resumed = 0;
+        for (ImportJob job : importJobRepository.findByStatus(ImportJob.Status.RUNNING)) {
+            if (running.contains(job.getJobId())) continue;
+
+            ImportJob claimed = claim(Criteria.where("_id").is(job.getId()).and("status").is(ImportJob.Status.RUNNING),
+                    new Update());
+            if (claimed != null) {
+                launch(claimed, true);
+                resumed++;
+            }
+        }
+        if (resumed > 0) {
+            log.info("Resuming {} interrupted imports", resumed);
+        }
+    }
+
+    public ImportJob getJob(String jobId) {
+        return importJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new RuntimeException("Import not found: " + jobId));
+    }
+
+    public Page<ImportRowError> getErrors(String jobId, int page, int size) {
+        return rowErrorRepository.findByJobIdOrderByRowNumberAsc(jobId, PageRequest.of(page, size));
+    }
+
+    private void launch(ImportJob job, boolean resumed) {
+        if (!running.add(job.getJobId())) return;
+
+        Thread.ofVirtual().name("import-" + job.getJobId()).start(() -> {
+            try {
+                run(job, resumed);
+            } finally {
+                running.remove(job.getJobId());
+            }
+        });
+    }
+
+    private void run(ImportJob job, boolean resumed) {
+        Query staged = new Query(Criteria.where("_id").is(new ObjectId(job.getStagedFileId())));
+        try (ImportRowReader reader = new ImportRowReader(stagedReader(staged), job.getFormat(), objectMapper)) {
+            reader.skipTo(job.getCommittedRows());
+
+            boolean mayBePartlyWritten = resumed;
+            List<ImportRowReader.Row> batch = new ArrayList<>(batchSize);
+            for (ImportRowReader.Row row = reader.next(); row != null; row = reader.next()) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    commitBatch(job, batch, mayBePartlyWritten);
+                    mayBePartlyWritten = false;
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                commitBatch(job, batch, mayBePartlyWritten);
+            }
+        } catch (Exception e) {
+            UpdateResult failed = mongoTemplate.updateFirst(ownedBy(job),
+                    new Update()
+                            .set("status", ImportJob.Status.FAILED)
+                            .set("failureReason", e.getMessage())
+                            .unset("claimedUntil"),
+                    ImportJob.class);
+            if (failed.getMatchedCount() == 0) {
+                log.warn("Import {} stopped after row {}, another instance took it over",
+                        job.getJobId(), job.getCommittedRows());
+            } else {
+                log.error("Import {} failed after row {}: {}", job.getJobId(), job.getCommittedRows(), e.getMessage());
+            }
+            return;
+        }
+
+        UpdateResult completed = mongoTemplate.updateFirst(ownedBy(job),
+                new Update()
+                        .set("status", ImportJob.Status.COMPLETED)
+                        .set("completedAt", businessClock.now())
+                        .unset("claimedUntil"),
+                ImportJob.class);
+        if (completed.getMatchedCount() == 0) {
+            log.warn("Import {} finished after another instance took it over", job.getJobId());
+            return;
+        }
+        try {
+            gridFsTemplate.delete(staged);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete staged import file {}: {}", job.getStagedFileId(), e.getMessage());
+        }
+        log.info("Import {} completed: {} imported, {} rejected",
+                job.getJobId(), job.getImportedCount(), job.getRejectedCount());
+    }
+
+    private void commitBatch(ImportJob job, List<ImportRowReader.Row> rows, boolean mayBePartlyWritten) {
+        if (!businessClock.now().isBefore(job.getClaimedUntil())) {
+            throw new IllegalStateException("Claim on import " + job.getJobId() + " lapsed");
+        }
+
+        Function<ImportRowReader.Row, Checked> check = job.getKind() == ImportJob.Kind.UNITS
+                ? row -> checkUnit(row, job.getBloodBankId())
+                : this::checkDonor;
+        List<Checked> checked = rows.parallelStream().map(check).toList();
+
+        List<Checked> valid = checked.stream().filter(c -> c.errors().isEmpty()).toList();
+        List<Object> written = new ArrayList<>(valid.size());
+        List<Object> alreadyWritten = new ArrayList<>();
+        List<ImportRowError> rejected = new ArrayList<>();
+
+        checked.stream().filter(c -> !c.errors().isEmpty()).forEach(c -> rejected.add(rowError(job, c)));
+
+        if (!valid.isEmpty()) {
+            Class<?> type = job.getKind() == ImportJob.Kind.UNITS ? BloodUnit.class : User.class;
+            Map<Integer, BulkWriteError> failures = Map.of();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type)
+                        .insert(valid.stream().map(Checked::document).toList())
+                        .execute();
+            } catch (BulkOperationException e) {
+                failures = new HashMap<>();
+                for (BulkWriteError error : e.getErrors()) {
+                    failures.put(error.getIndex(), error);
+                }
+            }
+
+            for (int i = 0; i < valid.size(); i++) {
+                BulkWriteError failure = failures.get(i);
+                Checked c = valid.get(i);
+                if (failure == null) {
+                    written.add(c.document());
+                } else if (failure.getCode() == DUPLICATE_KEY && mayBePartlyWritten) {
+                    alreadyWritten.add(c.document());
+                } else {
+                    rejected.add(rowError(job, new Checked(c.row(), null, List.of(
+                            failure.getCode() == DUPLICATE_KEY ? "Already exists: " + duplicateKey(failure) : failure.getMessage()))));
+                }
+            }
+        }
+
+        if (job.getKind() == ImportJob.Kind.UNITS) {
+            syncInventory(job.getBloodBankId(), written, alreadyWritten);
+        }
+
+        if (!rejected.isEmpty()) {
+            BulkOperations errors = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImportRowError.class);
+            rejected.forEach(error -> errors.replaceOne(
+                    new Query(Criteria.where("_id").is(error.getId())), error, FindAndReplaceOptions.options().upsert()));
+            errors.execute();
+        }
+
+        long lastRow = rows.get(rows.size() - 1).number();
+        long imported = written.size() + alreadyWritten.size();
+        LocalDateTime claimedUntil = claimExpiry();
+        UpdateResult progress = mongoTemplate.updateFirst(ownedBy(job),
+                new Update()
+                        .set("committedRows", lastRow)
+                        .inc("committedBatches", 1)
+                        .inc("importedCount", imported)
+                        .inc("rejectedCount", rejected.size())
+                        .set("claimedUntil", claimedUntil),
+                ImportJob.class);
+        if (progress.getMatchedCount() == 0) {
+            throw new IllegalStateException("Import " + job.getJobId() + " was claimed by another instance");
+        }
+
+        job.setClaimedUntil(claimedUntil);
+        job.setCommittedRows(lastRow);
+        job.setCommittedBatches(job.getCommittedBatches() + 1);
+        job.setImportedCount(job.getImportedCount() + imported);
+        job.setRejectedCount(job.getRejectedCount() + rejected.size());
+    }
+
+    /**
+     * Bulk inserts that report errors skip entity callbacks, so the stock index, event
+     * log and cache are brought up to date here. Units written before a crash only get
+     * entry events if the crash came before their events were appended.
+     */
+    private void syncInventory(String bloodBankId, List<Object> written, List<Object> alreadyWritten) {
+        List<BloodUnit> units = new ArrayList<>(written.size() + alreadyWritten.size());
+        written.forEach(unit -> units.add((BloodUnit) unit));
+
+        if (!alreadyWritten.isEmpty()) {
+            List<String> unitIds = alreadyWritten.stream().map(unit -> ((BloodUnit) unit).getUnitId()).toList();
+            Set<String> logged = new HashSet<>(mongoTemplate.findDistinct(
+                    new Query(Criteria.where("unitId").in(unitIds)), "unitId", UnitEvent.class, String.class));
+            alreadyWritten.stream()
+                    .map(unit -> (BloodUnit) unit)
+                    .filter(unit -> !logged.contains(unit.getUnitId()))
+                    .forEach(units::add);
+        }
+        if (units.isEmpty()) return;
+
+        units.forEach(stockIndex::apply);
+        unitLifecycleService.recordAll(units.stream()
+                .map(unit -> new UnitLifecycleService.Transition(unit, null, "import"))
+                .toList());
+    }
+
+    private Checked checkUnit(ImportRowReader.Row row, String bloodBankId) {
+        Map<String, String> fields = row.fields();
+        List<String> errors = new ArrayList<>();
+        if (fields.containsKey("_error")) {
+            return new Checked(row, null, List.of(fields.get("_error")));
+        }
+
+        String unitId = required(fields, "unit_id", errors);
+        BloodGroup bloodGroup = parse(fields, "blood_group", BloodGroup::fromString, errors, true);
+        BloodComponent component = parse(fields, "component_type", BloodComponent.lookup()::parse, errors, true);
+        LocalDate collected = parse(fields, "collection_date", LocalDate::parse, errors, true);
+        LocalDate expiry = parse(fields, "expiry_date", LocalDate::parse, errors, false);
+        Integer volume = parse(fields, "volume_ml", Integer::valueOf, errors, false);
+        BloodUnit.Status status = parse(fields, "status", BloodUnit.Status.lookup()::parse, errors, false);
+
+        if (status == BloodUnit.Status.RESERVED || status == BloodUnit.Status.IN_TRANSIT) {
+            errors.add("status: " + status + " units cannot be imported");
+        }
+        if (volume != null && volume <= 0) {
+            errors.add("volume_ml: must be positive");
+        }
+        if (expiry == null && collected != null && component != null) {
+            expiry = collected.plusDays(component.getShelfLifeDays());
+        }
+        if (expiry != null && collected != null && expiry.isBefore(collected)) {
+            errors.add("expiry_date: before collection_date");
+        }
+
+        BloodUnit.TestResults tests = testResults(fields, errors);
+        BloodUnit.Status effective = status != null ? status : BloodUnit.Status.AVAILABLE;
+        if (tests != null && !tests.isAllTestsPassed()
+                && effective != BloodUnit.Status.DISCARDED && effective != BloodUnit.Status.EXPIRED) {
+            errors.add("test_results: reactive units can only be imported as DISCARDED or EXPIRED");
+        }
+
+        if (!errors.isEmpty()) return new Checked(row, null, errors);
+
+        return new Checked(row, BloodUnit.builder()
+                .unitId(unitId)
+                .donationId(fields.get("donation_id"))
+                .donorId(fields.get("donor_id"))
+                .bloodGroup(bloodGroup)
+                .componentType(component)
+                .volumeMl(volume)
+                .collectionDate(collected)
+                .expiryDate(expiry)
+                .storageLocation(fields.get("storage_location"))
+                .storageTemperature(fields.getOrDefault("storage_temperature", component.getStorageTemperature()))
+                .testResults(tests)
+                .status(effective)
+                .bloodBankId(bloodBankId)
+                .currentLocation(bloodBankId)
+                .batchNumber(fields.get("batch_number"))
+                .discardedReason(fields.get("discarded_reason"))
+                .build(), errors);
+    }
+
+    private Checked checkDonor(ImportRowReader.Row row) {
+        Map<String, String> fields = row.fields();
+        List<String> errors = new ArrayList<>();
+        if (fields.containsKey("_error")) {
+            return new Checked(row, null, List.of(fields.get("_error")));
+        }
+
+        String fullName = required(fields, "full_name", errors);
+        String email = required(fields, "email", errors);
+        String phone = required(fields, "phone", errors);
+        BloodGroup bloodGroup = parse(fields, "blood_group", BloodGroup::fromString, errors, true);
+        LocalDate dateOfBirth = parse(fields, "date_of_birth", LocalDate::parse, errors, true);
+        LocalDate lastDonation = parse(fields, "last_donation_date", LocalDate::parse, errors, false);
+        Double weight = parse(fields, "weight_kg", Double::valueOf, errors, false);
+        Double height = parse(fields, "height_cm", Double::valueOf, errors, false);
+        Double latitude = parse(fields, "latitude", Double::valueOf, errors, false);
+        Double longitude = parse(fields, "longitude", Double::valueOf, errors, false);
+        String gender = fields.get("gender");
+
+        LocalDate today = businessClock.today();
+        if (email != null && !EMAIL.matcher(email).matches()) errors.add("email: not a valid address");
+        if (phone != null && !PHONE.matcher(phone).matches()) errors.add("phone: must be 10 digits");
+        if (dateOfBirth != null && !dateOfBirth.isBefore(today)) errors.add("date_of_birth: must be in the past");
+        if (lastDonation != null && lastDonation.isAfter(today)) errors.add("last_donation_date: in the future");
+        if (weight != null && (weight < 40 || weight > 200)) errors.add("weight_kg: must be between 40 and 200");
+        if (height != null && (height < 100 || height > 250)) errors.add("height_cm: must be between 100 and 250");
+        if (gender != null && !GENDERS.contains(gender.toUpperCase(Locale.ROOT))) {
+            errors.add("gender: must be MALE, FEMALE or OTHER");
+        }
+        if ((latitude == null) != (longitude == null)) {
+            errors.add("latitude/longitude: both or neither must be given");
+        } else if (latitude != null && (Math.abs(latitude) > 90 || Math.abs(longitude) > 180)) {
+            errors.add("latitude/longitude: out of range");
+        }
+
+        if (!errors.isEmpty()) return new Checked(row, null, errors);
+
+        User donor = User.builder()
+                .fullName(fullName)
+                .email(email.toLowerCase(Locale.ROOT))
+                .phone(phone)
+                .bloodGroup(bloodGroup)
+                .rhFactor(bloodGroup.isRhPositive() ? "+" : "-")
+                .dateOfBirth(dateOfBirth)
+                .gender(gender != null ? gender.toUpperCase(Locale.ROOT) : null)
+                .weightKg(weight)
+                .heightCm(height)
+                .address(fields.get("address"))
+                .city(fields.get("city"))
+                .state(fields.get("state"))
+                .country(fields.get("country"))
+                .postalCode(fields.get("postal_code"))
+                .lastDonationDate(lastDonation)
+                .isDonor(true)
+                .isActive(true)
+                .build();
+        if (latitude != null) {
+            donor.setLocation(new GeoJsonPoint(longitude, latitude));
+        }
+        return new Checked(row, donor, errors);
+    }
+
+    private static BloodUnit.TestResults testResults(Map<String, String> fields, List<String> errors) {
+        boolean any = false;
+        boolean[] reactive = new boolean[TEST_COLUMNS.length];
+        for (int i = 0; i < TEST_COLUMNS.length; i++) {
+            String value = fields.get(TEST_COLUMNS[i]);
+            if (value == null) continue;
+            any = true;
+            Boolean parsed = parseReactive(value);
+            if (parsed == null) {
+                errors.add(TEST_COLUMNS[i] + ": expected reactive/non-reactive, got '" + value + "'");
+            } else {
+                reactive[i] = parsed;
+            }
+        }
+        if (!any) return null;
+
+        LocalDate testDate = parse(fields, "test_date", LocalDate::parse, errors, false);
+        return new BloodUnit.TestResults(
+                reactive[0], reactive[1], reactive[2], reactive[3], reactive[4],
+                fields.get("other_tests"),
+                fields.get("tested_by"),
+                testDate,
+                fields.get("lab_id"),
+                fields.get("certificate_number"));
+    }
+
+    private static Boolean parseReactive(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1", "positive", "reactive" -> true;
+            case "false", "no", "0", "negative", "non-reactive", "nonreactive" -> false;
+            default -> null;
+        };
+    }
+
+    private static String required(Map<String, String> fields, String column, List<String> errors) {
+        String value = fields.get(column);
+        if (value == null) errors.add(column + ": required");
+        return value;
+    }
+
+    private static <T> T parse(Map<String, String> fields, String column, Function<String, T> parser,
+                               List<String> errors, boolean required) {
+        String value = fields.get(column);
+        if (value == null) {
+            if (required) errors.add(column + ": required");
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            errors.add(column + ": invalid value '" + value + "'");
+            return null;
+        }
+    }
+
+    private static ImportRowError rowError(ImportJob job, Checked checked) {
+        return ImportRowError.builder()
+                .id(ImportRowError.idOf(job.getJobId(), checked.row().number()))
+                .jobId(job.getJobId())
+                .rowNumber(checked.row().number())
+                .messages(checked.errors())
+                .raw(checked.row().raw())
+                .build();
+    }
+
+    private static String duplicateKey(BulkWriteError error) {
+        String message = error.getMessage();
+        int at = message.indexOf("dup key:");
+        return at >= 0 ? message.substring(at + "dup key:".length()).trim() : message;
+    }
+
+    private BufferedReader stagedReader(Query staged) throws IOException {
+        GridFSFile file = gridFsTemplate.findOne(staged);
+        if (file == null) {
+            throw new IOException("Staged import file is missing");
+        }
+        return new BufferedReader(new InputStreamReader(
+                gridFsTemplate.getResource(file).getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Claims a job matching {@code job} for this instance if no other instance holds a
+     * live claim on it.
+     *
+     * @return the claimed job, or null if it does not match or is claimed elsewhere
+     */
+    private ImportJob claim(Criteria job, Update update) {
+        Criteria unclaimed = new Criteria().orOperator(
+                Criteria.where("claimedUntil").is(null),
+                Criteria.where("claimedUntil").lte(businessClock.now()));
+        return mongoTemplate.findAndModify(new Query(job.andOperator(unclaimed)),
+                update.set("claimedBy", leaseCoordinator.instanceId()).set("claimedUntil", claimExpiry()),
+                FindAndModifyOptions.options().returnNew(true),
+                ImportJob.class);
+    }
+
+    private LocalDateTime claimExpiry() {
+        return businessClock.now().plus(Duration.ofMillis(claimMs));
+    }
+
+    private Query ownedBy(ImportJob job) {
+        return new Query(Criteria.where("_id").is(job.getId()).and("claimedBy").is(leaseCoordinator.instanceId()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.dto.responses.BankActivityReportResponse;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.DailyBankRollup;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.repository.DailyBankRollupRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@link DailyBankRollup} counters. Each recording method is a single
+ * {@code $inc} upsert on the bank's document for that day; unit transitions recorded
+ * in one batch are folded into one upsert per bank and day.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyRollupService {
+    private final MongoTemplate mongoTemplate;
+    private final DailyBankRollupRepository rollupRepository;
+    private final BusinessClock businessClock;
+
+    public void recordDonation(Donation donation) {
+        if (donation.getBloodBankId() == null) return;
+
+        Update update = new Update();
+        if (donation.getDonationType() != null) {
+            update.inc("donationsByType." + donation.getDonationType().name(), 1);
+        }
+        if (donation.getBloodGroup() != null) {
+            update.inc("donationsByBloodGroup." + donation.getBloodGroup().name(), 1);
+        }
+        if (donation.getVolumeMl() != null) {
+            update.inc("donatedVolumeMl", donation.getVolumeMl());
+        }
+        if (donation.getGeneratedUnits() != null && !donation.getGeneratedUnits().isEmpty()) {
+            update.inc("unitsCollected", donation.getGeneratedUnits().size());
+        }
+
+        upsert(donation.getBloodBankId(), dateOf(donation.getDonationDate()), update);
+    }
+
+    public void recordRequestCreated(BloodRequest request) {
+        recordRequestCreated(request, dateOf(request.getCreatedAt()));
+    }
+
+    /**
+     * Counts the request as created on {@code date}, for requests attributed to a bank
+     * after the day they were created.
+     */
+    public void recordRequestCreated(BloodRequest request, LocalDate date) {
+        if (request.getBloodBankId() == null) return;
+
+        Update update = new Update().inc("requestsByStatus." + BloodRequest.RequestStatus.PENDING.name(), 1);
+        if (request.getUrgencyLevel() != null) {
+            update.inc("requestsByUrgency." + request.getUrgencyLevel().name(), 1);
+        }
+
+        upsert(request.getBloodBankId(), date, update);
+    }
+
+    /**
+     * Counts the request entering its current status today.
+     */
+    public void recordRequestStatus(BloodRequest request) {
+        if (request.getBloodBankId() == null || request.getStatus() == null) return;
+
+        upsert(request.getBloodBankId(), businessClock.today(),
+                new Update().inc("requestsByStatus." + request.getStatus().name(), 1));
+    }
+
+    /**
+     * Counts issued, expired and discarded units from a batch of unit events.
+     */
+    public void recordUnitEvents(List<UnitEvent> events) {
+        Map<String, Map<LocalDate, long[]>> counts = new HashMap<>();
+
+        for (UnitEvent event : events) {
+            // Entry events from intake, import or baseline seeding are not activity
+            if (event.getFromStatus() == null) continue;
+
+            int slot = switch (event.getToStatus()) {
+                case ISSUED -> 0;
+                case EXPIRED -> 1;
+                case DISCARDED -> 2;
+                default -> -1;
+            };
+            if (slot < 0) continue;
+
+            counts.computeIfAbsent(event.getBloodBankId(), bank -> new HashMap<>())
+                    .computeIfAbsent(dateOf(event.getOccurredAt()), date -> new long[3])[slot]++;
+        }
+
+        counts.forEach((bankId, byDate) -> byDate.forEach((date, slots) -> {
+            Update update = new Update();
+            if (slots[0] > 0) update.inc("unitsIssued", slots[0]);
+            if (slots[1] > 0) update.inc("unitsExpired", slots[1]);
+            if (slots[2] > 0) update.inc("unitsDiscarded", slots[2]);
+            upsert(bankId, date, update);
+        }));
+    }
+
+    public BankActivityReportResponse report(String bloodBankId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Report end date must not be before start date");
+        }
+
+        List<DailyBankRollup> days = rollupRepository.findRange(bloodBankId, from, to);
+
+        Map<String, Long> donationsByType = new TreeMap<>();
+        Map<String, Long> donationsByBloodGroup = new TreeMap<>();
+        Map<String, Long> requestsByUrgency = new TreeMap<>();
+        Map<String, Long> requestsByStatus = new TreeMap<>();
+        long donatedVolumeMl = 0, unitsCollected = 0, unitsIssued = 0, unitsExpired = 0, unitsDiscarded = 0;
+
+        for (DailyBankRollup day : days) {
+            addAll(donationsByType, day.getDonationsByType());
+            addAll(donationsByBloodGroup, day.getDonationsByBloodGroup());
+            addAll(requestsByUrgency, day.getRequestsByUrgency());
+            addAll(requestsByStatus, day.getRequestsByStatus());
+            donatedVolumeMl += day.getDonatedVolumeMl();
+            unitsCollected += day.getUnitsCollected();
+            unitsIssued += day.getUnitsIssued();
+            unitsExpired += day.getUnitsExpired();
+            unitsDiscarded += day.getUnitsDiscarded();
+        }
+
+        return new BankActivityReportResponse(
+                bloodBankId,
+                from,
+                to,
+                donationsByType,
+                donationsByBloodGroup,
+                donatedVolumeMl,
+                unitsCollected,
+                unitsIssued,
+                unitsExpired,
+                unitsDiscarded,
+                requestsByUrgency,
+                requestsByStatus,
+                days
+        );
+    }
+
+    private void upsert(String bloodBankId, LocalDate date, Update update) {
+        if (update.getUpdateObject().isEmpty()) return;
+
+        update.setOnInsert("bloodBankId", bloodBankId).setOnInsert("date", date);
+        mongoTemplate.upsert(
+                new Query(Criteria.where("_id").is(DailyBankRollup.idOf(bloodBankId, date))),
+                update,
+                DailyBankRollup.class);
+    }
+
+    private LocalDate dateOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : businessClock.today();
+    }
+
+    private static void addAll(Map<String, Long> target, Map<String, Long> values) {
+        if (values != null) values.forEach((key, value) -> target.merge(key, value, Long::sum));
+    }
+}
\ No newline at end of file
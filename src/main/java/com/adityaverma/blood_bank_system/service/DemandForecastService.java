@@ -0,0 +1,200 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.DemandForecast;
+import com.adityaverma.blood_bank_system.model.DemandRollup;
+import com.adityaverma.blood_bank_system.repository.DemandForecastRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Demand forecasting per bank x blood group x component. Each request adds to a daily
+ * rollup with one {@code $inc} upsert. A nightly job folds the days since each
+ * forecast's {@code lastDate} into an exponentially smoothed level and error variance,
+ * and derives a reorder point:
+ * <pre>
+ *   reorderPoint = ceil(level * leadTime + z * sqrt(variance * leadTime))
+ * </pre>
+ * Banks are recomputed in parallel on virtual threads, and each bank only reads
+ * rollups it has not folded yet. Each instance recomputes the banks of the tenant
+ * partitions it holds, see {@link TenantPartitions}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecastService {
+    private final MongoTemplate mongoTemplate;
+    private final DemandForecastRepository forecastRepository;
+    private final TenantPartitions tenantPartitions;
+    private final BusinessClock businessClock;
+
+    @Value("${app.forecast.alpha:0.3}")
+    private double alpha;
+
+    @Value("${app.forecast.lead-time-days:2}")
+    private int leadTimeDays;
+
+    @Value("${app.forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    public void recordDemand(BloodRequest request) {
+        recordDemand(request, request.getCreatedAt() != null ? request.getCreatedAt().toLocalDate() : businessClock.today());
+    }
+
+    /**
+     * Adds the request to the rollup of {@code date}. Demand attributed after the fact
+     * should be dated when it is recorded: the nightly job never re-reads a day it has
+     * already folded.
+     */
+    public void recordDemand(BloodRequest request, LocalDate date) {
+        if (request.getBloodBankId() == null || request.getBloodGroup() == null
+                || request.getComponentType() == null) {
+            return;
+        }
+
+        int units = request.getQuantityUnits() != null ? request.getQuantityUnits() : 1;
+
+        mongoTemplate.upsert(
+                new Query(Criteria.where("_id").is(DemandRollup.idOf(
+                        request.getBloodBankId(), request.getBloodGroup(), request.getComponentType(), date))),
+                new Update()
+                        .inc("requests", 1)
+                        .inc("units", units)
+                        .setOnInsert("bloodBankId", request.getBloodBankId())
+                        .setOnInsert("bloodGroup", request.getBloodGroup())
+                        .setOnInsert("componentType", request.getComponentType())
+                        .setOnInsert("date", date),
+                DemandRollup.class);
+    }
+
+    /**
+     * Reorder points keyed by {@link #bucketKey}. Buckets with no forecast are absent.
+     */
+    public Map<String, Integer> reorderPoints(String bloodBankId) {
+        return forecastRepository.findByBloodBankId(bloodBankId).stream()
+                .collect(Collectors.toMap(
+                        forecast -> bucketKey(forecast.getBloodGroup(), forecast.getComponentType()),
+                        DemandForecast::getReorderPoint));
+    }
+
+    public static String bucketKey(BloodGroup bloodGroup, BloodComponent componentType) {
+        return bloodGroup.getDisplayName() + " " + componentType.getDisplayName();
+    }
+
+    @Scheduled(cron = "${app.forecast.cron:0 30 0 * * *}")
+    public void recomputeAll() {
+        LocalDate through = businessClock.today().minusDays(1);
+
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger recomputedBanks = new AtomicInteger();
+        tenantPartitions.forEachClaimed("recomputeForecasts",
+                mongoTemplate.findDistinct(new Query(), "bloodBankId", DemandRollup.class, String.class),
+                (banks, fence) -> {
+                    List<Future<Integer>> results = new ArrayList<>();
+                    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                        for (String bankId : banks) {
+                            results.add(executor.submit(() -> {
+                                fence.check();
+                                return recompute(bankId, through);
+                            }));
+                        }
+                    }
+
+                    for (Future<Integer> result : results) {
+                        try {
+                            updated.addAndGet(result.get());
+                        } catch (Exception e) {
+                            log.error("Demand forecast recompute failed: {}", e.getMessage());
+                        }
+                    }
+                    recomputedBanks.addAndGet(banks.size());
+                });
+        log.info("Recomputed {} demand forecasts across {} blood banks through {}", updated.get(), recomputedBanks.get(), through);
+    }
+
+    /**
+     * Folds the rollups of one bank dated after each forecast's {@code lastDate} up to
+     * {@code through}. Days without a rollup count as zero demand.
+     */
+    public int recompute(String bloodBankId, LocalDate through) {
+        Map<String, DemandForecast> forecasts = forecastRepository.findByBloodBankId(bloodBankId).stream()
+                .collect(Collectors.toMap(DemandForecast::getId, forecast -> forecast));
+
+        // Every rollup dated on or before a forecast's lastDate was already folded, and a
+        // bucket first seen after that starts from its first rollup in the new range
+        LocalDate readFrom = forecasts.values().stream()
+                .map(forecast -> forecast.getLastDate().plusDays(1))
+                .min(LocalDate::compareTo)
+                .orElse(null);
+
+        Criteria date = Criteria.where("date").lte(through);
+        if (readFrom != null) date.gte(readFrom);
+        Criteria criteria = Criteria.where("bloodBankId").is(bloodBankId).andOperator(date);
+
+        Map<String, TreeMap<LocalDate, Long>> series = new HashMap<>();
+        Map<String, DemandRollup> firstRollup = new HashMap<>();
+        for (DemandRollup rollup : mongoTemplate.find(new Query(criteria), DemandRollup.class)) {
+            String id = DemandForecast.idOf(bloodBankId, rollup.getBloodGroup(), rollup.getComponentType());
+            series.computeIfAbsent(id, key -> new TreeMap<>()).merge(rollup.getDate(), rollup.getUnits(), Long::sum);
+            firstRollup.merge(id, rollup, (a, b) -> a.getDate().isBefore(b.getDate()) ? a : b);
+        }
+
+        firstRollup.forEach((id, rollup) -> forecasts.computeIfAbsent(id, key -> DemandForecast.builder()
+                .id(key)
+                .bloodBankId(bloodBankId)
+                .bloodGroup(rollup.getBloodGroup())
+                .componentType(rollup.getComponentType())
+                .level(rollup.getUnits())
+                .lastDate(rollup.getDate())
+                .build()));
+
+        List<DemandForecast> changed = new ArrayList<>();
+        for (DemandForecast forecast : forecasts.values()) {
+            TreeMap<LocalDate, Long> days = series.getOrDefault(forecast.getId(), new TreeMap<>());
+            for (LocalDate day = forecast.getLastDate().plusDays(1); !day.isAfter(through); day = day.plusDays(1)) {
+                fold(forecast, days.getOrDefault(day, 0L));
+            }
+            forecast.setLastDate(through);
+            forecast.setReorderPoint(reorderPoint(forecast));
+            forecast.setUpdatedAt(businessClock.now());
+            changed.add(forecast);
+        }
+
+        forecastRepository.saveAll(changed);
+        return changed.size();
+    }
+
+    void fold(DemandForecast forecast, double observed) {
+        double error = observed - forecast.getLevel();
+        forecast.setVariance((1 - alpha) * forecast.getVariance() + alpha * error * error);
+        forecast.setLevel(forecast.getLevel() + alpha * error);
+    }
+
+    int reorderPoint(DemandForecast forecast) {
+        double demand = forecast.getLevel() * leadTimeDays;
+        double safetyStock = serviceLevelZ * Math.sqrt(forecast.getVariance() * leadTimeDays);
+        return (int) Math.ceil(demand + safetyStock);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.Donation;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.model.User;
+import com.adityaverma.blood_bank_system.repository.UserRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.IdGenerator;
+import com.adityaverma.blood_bank_system.util.QRCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns donations into inventory. Each donation is split into component units, either
+ * as listed in {@link Donation#getGeneratedUnits()} or by the default split for its
+ * {@link Donation.DonationType}. Expiry comes from {@link BloodComponent#getShelfLifeDays()}.
+ * <p>
+ * A batch is persisted with one bulk insert of units, one bulk insert of donations and
+ * one {@code updateMulti} of donor last-donation dates. There is no transaction around
+ * them, so each step skips what an earlier attempt already wrote, see {@link #intakeAll}.
+ * Inventory views then take the new units incrementally: the stock index through the
+ * unit save callback, and the unit event log and daily rollups explicitly. The event
+ * log marks the banks' inventory caches for invalidation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DonationIntakeService {
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final IdGenerator idGenerator;
+    private final QRCodeGenerator qrCodeGenerator;
+    private final UnitLifecycleService unitLifecycleService;
+    private final DailyRollupService dailyRollupService;
+    private final BusinessClock businessClock;
+
+    public record Intake(String donorId, Donation donation) {}
+
+    /**
+     * A recorded donation with its donor, whose last-donation date is already updated.
+     */
+    public record Recorded(User donor, Donation donation) {}
+
+    private record Split(BloodComponent componentType, double volumeShare) {}
+
+    private static final Map<Donation.DonationType, List<Split>> DEFAULT_SPLITS = new EnumMap<>(Map.of(
+            Donation.DonationType.WHOLE_BLOOD, List.of(
+                    new Split(BloodComponent.RED_BLOOD_CELLS, 0.55),
+                    new Split(BloodComponent.PLASMA, 0.40),
+                    new Split(BloodComponent.PLATELETS, 0.05)),
+            Donation.DonationType.PLASMA, List.of(new Split(BloodComponent.PLASMA, 1.0)),
+            Donation.DonationType.PLATELETS, List.of(new Split(BloodComponent.PLATELETS, 1.0)),
+            Donation.DonationType.DOUBLE_RED_CELLS, List.of(
+                    new Split(BloodComponent.RED_BLOOD_CELLS, 0.5),
+                    new Split(BloodComponent.RED_BLOOD_CELLS, 0.5))));
+
+    private static final int DEFAULT_VOLUME_ML = 450;
+
+    public Recorded intake(String donorId, Donation donation) {
+        return intakeAll(List.of(new Intake(donorId, donation))).get(0);
+    }
+
+    /**
+     * Records a batch of donations, e.g. a blood drive. Fails without writing anything
+     * if any donor is unknown or not eligible.
+     * <p>
+     * A batch that failed part-way is completed by calling again with the same
+     * {@link Donation} objects, which keep the IDs assigned on the first attempt. Units
+     * are written first and the donation after them, so a stored donation means its
+     * units and unit events are in place. Donors of a resumed donation are not checked
+     * for eligibility again, since the first attempt may already have dated their
+     * donation. A failure between a donation's insert and its daily rollup leaves the
+     * rollup one donation short.
+     */
+    public List<Recorded> intakeAll(List<Intake> intakes) {
+        Set<String> donorIds = intakes.stream().map(Intake::donorId).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (donorIds.size() != intakes.size()) {
+            throw new RuntimeException("A donor can only donate once per intake batch");
+        }
+
+        Map<String, User> donors = userRepository.findAllById(donorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<String> started = startedIntakes(intakes.stream()
+                .map(intake -> intake.donation().getDonationId())
+                .filter(Objects::nonNull)
+                .toList());
+
+        LocalDateTime now = businessClock.now();
+        User.DonationCutoffs cutoffs = User.DonationCutoffs.of(now.toLocalDate());
+        List<Donation> donations = new ArrayList<>(intakes.size());
+        List<BloodUnit> units = new ArrayList<>(intakes.size() * 3);
+
+        for (Intake intake : intakes) {
+            User donor = donors.get(intake.donorId());
+            if (donor == null) {
+                throw new RuntimeException("Donor not found: " + intake.donorId());
+            }
+            boolean resumed = started.contains(intake.donation().getDonationId());
+            if (!resumed && !donor.isEligibleForDonation(cutoffs)) {
+                throw new RuntimeException("Donor is not eligible for donation: " + intake.donorId());
+            }
+
+            donations.add(intake.donation());
+            units.addAll(prepare(intake.donation(), donor, now));
+        }
+
+        // A fresh batch has nothing stored yet and skips the lookups
+        boolean resuming = !started.isEmpty();
+        List<String> donationIds = donations.stream().map(Donation::getDonationId).toList();
+        List<String> unitIds = units.stream().map(BloodUnit::getUnitId).toList();
+
+        Set<String> storedUnits = !resuming ? Set.of() : stored(BloodUnit.class, "unitId", BloodUnit::getUnitId,
+                Criteria.where("donationId").in(donationIds));
+        List<BloodUnit> newUnits = units.stream().filter(unit -> !storedUnits.contains(unit.getUnitId())).toList();
+        if (!newUnits.isEmpty()) {
+            mongoTemplate.insert(newUnits, BloodUnit.class);
+        }
+
+        Set<String> loggedUnits = !resuming || unitIds.isEmpty() ? Set.of() : stored(UnitEvent.class, "unitId", UnitEvent::getUnitId,
+                Criteria.where("unitId").in(unitIds).and("fromStatus").is(null));
+        unitLifecycleService.recordAll(units.stream()
+                .filter(unit -> !loggedUnits.contains(unit.getUnitId()))
+                .map(unit -> new UnitLifecycleService.Transition(unit, null, unit.getDonationId()))
+                .toList());
+
+        Set<String> storedDonations = !resuming ? Set.of() : stored(Donation.class, "donationId", Donation::getDonationId,
+                Criteria.where("donationId").in(donationIds));
+        List<Donation> newDonations = donations.stream()
+                .filter(donation -> !storedDonations.contains(donation.getDonationId()))
+                .toList();
+        if (!newDonations.isEmpty()) {
+            mongoTemplate.insert(newDonations, Donation.class);
+            newDonations.forEach(dailyRollupService::recordDonation);
+        }
+
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(donorIds)),
+                new Update().set("lastDonationDate", now.toLocalDate()),
+                User.class);
+        donors.values().forEach(donor -> donor.setLastDonationDate(now.toLocalDate()));
+
+        log.info("Recorded {} donations producing {} units ({} donations and {} units already stored)",
+                newDonations.size(), newUnits.size(),
+                donations.size() - newDonations.size(), units.size() - newUnits.size());
+
+        List<Recorded> recorded = new ArrayList<>(intakes.size());
+        for (Intake intake : intakes) {
+            recorded.add(new Recorded(donors.get(intake.donorId()), intake.donation()));
+        }
+        return recorded;
+    }
+
+    /**
+     * Donation IDs from an earlier attempt that already wrote units or the donation.
+     */
+    private Set<String> startedIntakes(List<String> donationIds) {
+        if (donationIds.isEmpty()) return Set.of();
+
+        Set<String> started = new HashSet<>(stored(Donation.class, "donationId", Donation::getDonationId,
+                Criteria.where("donationId").in(donationIds)));
+        started.addAll(stored(BloodUnit.class, "donationId", BloodUnit::getDonationId,
+                Criteria.where("donationId").in(donationIds)));
+        return started;
+    }
+
+    private <T> Set<String> stored(Class<T> type, String property, Function<T, String> value, Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include(property);
+        return mongoTemplate.find(query, type).stream().map(value).collect(Collectors.toSet());
+    }
+
+    /**
+     * Fills in the donation's identity and splits it into units, without writing
+     * anything. The donation's {@code generatedUnits} are replaced by the units created.
+     * A donation that already has an ID keeps it, and unit IDs follow from it, so
+     * preparing the same donation again yields the same units.
+     */
+    public List<BloodUnit> prepare(Donation donation, User donor, LocalDateTime now) {
+        if (donation.getDonationId() == null) {
+            donation.setDonationId(idGenerator.generateDonationId());
+        }
+        donation.setDonorId(donor.getId());
+        donation.setDonationDate(now);
+        donation.setBloodGroup(donor.getBloodGroup());
+
+        if (donation.getDonationStatus() != Donation.DonationStatus.COMPLETED) {
+            return List.of();
+        }
+
+        LocalDate collected = now.toLocalDate();
+        List<Donation.GeneratedUnit> requested = donation.getGeneratedUnits() != null
+                && !donation.getGeneratedUnits().isEmpty()
+                ? donation.getGeneratedUnits()
+                : defaultSplit(donation);
+
+        List<BloodUnit> units = new ArrayList<>(requested.size());
+        List<Donation.GeneratedUnit> generated = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            Donation.GeneratedUnit spec = requested.get(i);
+            BloodComponent component = spec.componentType();
+
+            BloodUnit unit = BloodUnit.builder()
+                    .unitId(idGenerator.generateUnitId(donation.getDonationId(), i))
+                    .donationId(donation.getDonationId())
+                    .donorId(donor.getId())
+                    .bloodGroup(donor.getBloodGroup())
+                    .componentType(component)
+                    .volumeMl(spec.volumeMl())
+                    .collectionDate(collected)
+                    .expiryDate(collected.plusDays(component.getShelfLifeDays()))
+                    .storageLocation(spec.storageLocation())
+                    .storageTemperature(component.getStorageTemperature())
+                    .bloodBankId(donation.getBloodBankId())
+                    .currentLocation(donation.getBloodBankId())
+                    .batchNumber(donation.getDonationId())
+                    .build();
+            unit.setQrCodeData(qrCodeGenerator.payloadFor(unit));
+
+            units.add(unit);
+            generated.add(new Donation.GeneratedUnit(
+                    unit.getUnitId(), component, spec.volumeMl(), spec.storageLocation()));
+        }
+
+        donation.setGeneratedUnits(generated);
+        return units;
+    }
+
+    private static List<Donation.GeneratedUnit> defaultSplit(Donation donation) {
+        Donation.DonationType type = donation.getDonationType() != null
+                ? donation.getDonationType()
+                : Donation.DonationType.WHOLE_BLOOD;
+        int volume = donation.getVolumeMl() != null ? donation.getVolumeMl() : DEFAULT_VOLUME_ML;
+
+        return DEFAULT_SPLITS.get(type).stream()
+                .map(split -> new Donation.GeneratedUnit(
+                        null, split.componentType(), (int) Math.round(volume * split.volumeShare()), null))
+                .toList();
+    }
+}
\ No newline at end of file
@@ -1,15 +1,31 @@
 package com.adityaverma.blood_bank_system.service;
 
+import com.adityaverma.blood_bank_system.dto.responses.NearbyDonorResponse;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
 import com.adityaverma.blood_bank_system.model.Donation;
 import com.adityaverma.blood_bank_system.model.User;
 import com.adityaverma.blood_bank_system.repository.DonationRepository;
 import com.adityaverma.blood_bank_system.repository.UserRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,7 +38,16 @@ public class DonorService {
     private final UserRepository userRepository;
     private final DonationRepository donationRepository;
     private final NotificationService notificationService;
-    private final IdGenerator idGenerator;
+    private final MongoTemplate mongoTemplate;
+    private final DonationIntakeService donationIntakeService;
+    private final BusinessClock businessClock;
+    private final LeaseCoordinator leaseCoordinator;
+
+    // Long enough to cover clock skew between instances firing the same cron
+    @Value("${app.scheduling.job-lease-ms:600000}")
+    private long jobLeaseMs = 600000;
+
+    private static final int MAX_NEARBY_DONORS = 200;
 
     public User updateDonorProfile(String donorId, User updatedInfo) {
         User donor = userRepository.findById(donorId)
@@ -33,54 +58,108 @@ public class DonorService {
         if (updatedInfo.getAddress() != null) donor.setAddress(updatedInfo.getAddress());
         if (updatedInfo.getCity() != null) donor.setCity(updatedInfo.getCity());
         if (updatedInfo.getWeightKg() != null) donor.setWeightKg(updatedInfo.getWeightKg());
+        if (updatedInfo.getLocation() != null) donor.setLocation(updatedInfo.getLocation());
 
         return userRepository.save(donor);
     }
 
-    @Cacheable(value = "eligibleDonors", key = "#bloodGroup + '-' + #city")
+    @Cacheable(value = "eligibleDonors", key = "#bloodGroup + '-' + #city", sync = true)
     public List<User> findEligibleDonors(String bloodGroup, String city) {
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
+        User.DonationCutoffs cutoffs = User.DonationCutoffs.of(businessClock.today());
 
         return userRepository.findDonorsByBloodGroupAndCity(bloodGroup, city).stream()
-                .filter(User::isEligibleForDonation)
+                .filter(donor -> donor.isEligibleForDonation(cutoffs))
                 .toList();
     }
 
-    public Donation recordDonation(String donorId, Donation donation) {
-        User donor = userRepository.findById(donorId)
-                .orElseThrow(() -> new RuntimeException("Donor not found: " + donorId));
-
-        if (!donor.isEligibleForDonation()) {
-            throw new RuntimeException("Donor is not eligible for donation");
-        }
+    /**
+     * Returns up to {@code limit} eligible donors whose blood group can donate to
+     * {@code recipientGroup}, nearest first, within {@code radiusKm} of the given point.
+     * Eligibility mirrors {@link User#isEligibleForDonation()} but is evaluated by the
+     * $geoNear query itself so only matching donors leave the database.
+     */
+    public List<NearbyDonorResponse> findNearestEligibleDonors(BloodGroup recipientGroup,
+                                                              double longitude,
+                                                              double latitude,
+                                                              double radiusKm,
+                                                              int limit) {
+        LocalDate today = businessClock.today();
+
+        Criteria eligibility = new Criteria().orOperator(
+                Criteria.where("lastDonationDate").is(null),
+                Criteria.where("lastDonationDate").lt(today.minusMonths(3))
+                        .and("weightKg").gte(50.0)
+                        .and("dateOfBirth").lt(today.minusYears(18)).gt(today.minusYears(65))
+        );
 
-        donation.setDonationId(idGenerator.generateDonationId());
-        donation.setDonorId(donorId);
-        donation.setDonationDate(LocalDateTime.now());
-        donation.setBloodGroup(donor.getBloodGroup());
+        Query filter = new Query(Criteria.where("isDonor").is(true)
+                .and("isActive").is(true)
+                .and("bloodGroup").in(recipientGroup.getCompatibleDonors())
+                .andOperator(eligibility));
+
+        NearQuery nearQuery = NearQuery.near(new GeoJsonPoint(longitude, latitude), Metrics.KILOMETERS)
+                .spherical(true)
+                .maxDistance(new Distance(radiusKm, Metrics.KILOMETERS))
+                .query(filter);
+
+        TypedAggregation<User> aggregation = Aggregation.newAggregation(User.class,
+                Aggregation.geoNear(nearQuery, "distanceKm"),
+                Aggregation.limit(Math.min(limit, MAX_NEARBY_DONORS)),
+                Aggregation.project()
+                        .and("id").as("donorId")
+                        .and("fullName").as("fullName")
+                        .and("email").as("email")
+                        .and("phone").as("phone")
+                        .and("bloodGroup").as("bloodGroup")
+                        .and("city").as("city")
+                        .and("distanceKm").as("distanceKm")
+                        .andExclude("_id")
+        );
 
-        Donation savedDonation = donationRepository.save(donation);
+        return mongoTemplate.aggregate(aggregation, NearbyDonorResponse.class).getMappedResults();
+    }
 
-        donor.setLastDonationDate(LocalDate.now());
-        userRepository.save(donor);
+    public Donation recordDonation(String donorId, Donation donation) {
+        DonationIntakeService.Recorded recorded = donationIntakeService.intake(donorId, donation);
+        Donation savedDonation = recorded.donation();
 
-        notificationService.sendThankYouEmail(donor, savedDonation);
+        notificationService.sendThankYouEmail(recorded.donor(), savedDonation);
 
         log.info("Recorded donation {} for donor {}", savedDonation.getDonationId(), donorId);
 
         return savedDonation;
     }
 
+    /**
+     * Runs on one instance only, see {@link LeaseCoordinator}. Each donor's reminder is
+     * claimed with a write fenced by the lease token before it is sent, so an instance
+     * that took over a stalled run skips donors already reminded today, and the stalled
+     * instance cannot claim a donor after its successor has. A reminder whose send
+     * fails after its claim is not retried until the next day.
+     */
     @Scheduled(cron = "0 0 10 * * *")
     public void sendDonationReminders() {
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        List<User> eligibleDonors = userRepository.findEligibleDonors(threeMonthsAgo);
-
-        for (User donor : eligibleDonors) {
-            notificationService.sendDonationReminder(donor);
-        }
-
-        log.info("Sent donation reminders to {} donors", eligibleDonors.size());
+        leaseCoordinator.runExclusive("sendDonationReminders", Duration.ofMillis(jobLeaseMs), fence -> {
+            LocalDate today = businessClock.today();
+            List<User> eligibleDonors = userRepository.findEligibleDonors(today.minusMonths(3));
+
+            int sent = 0;
+            for (User donor : eligibleDonors) {
+                fence.check();
+                UpdateResult claimed = mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(donor.getId())
+                                .and("lastReminderDate").ne(today)
+                                .andOperator(fence.admits("reminderToken"))),
+                        new Update().set("lastReminderDate", today).set("reminderToken", fence.token()),
+                        User.class);
+                if (claimed.getModifiedCount() == 0) continue;
+
+                notificationService.sendDonationReminder(donor);
+                sent++;
+            }
+
+            log.info("Sent donation reminders to {} of {} eligible donors", sent, eligibleDonors.size());
+        });
     }
 
     public Map<String, Object> getDonorStats(String donorId) {
@@ -1,11 +1,14 @@
 package com.adityaverma.blood_bank_system.service;
 
 import com.adityaverma.blood_bank_system.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -74,6 +78,9 @@ public class EmailService {
     }
 
     private void sendEmail(String to, String subject, String text) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true);
@@ -84,9 +91,12 @@ public class EmailService {
             helper.setText(text);
 
             mailSender.send(message);
+            outcome = "success";
             log.info("Email sent to: {}", to);
-        } catch (MessagingException e) {
+        } catch (MessagingException | MailException e) {
             log.error("Failed to send email to {}: {}", to, e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("email.send", "source", "account", "outcome", outcome));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.event.BloodRequestCreatedEvent;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Allocates CRITICAL requests as soon as they are created: alerts staff, fans out to
+ * every bank for compatible stock and allocates the selected units through
+ * {@link BloodRequestService}. A request the fan-out could not fully allocate stays
+ * open for {@link RequestPriorityScheduler}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmergencyAllocationService {
+    private final BloodRequestService bloodRequestService;
+    private final EmergencyFanOutService emergencyFanOutService;
+    private final NotificationService notificationService;
+
+    @EventListener
+    public void onRequestCreated(BloodRequestCreatedEvent event) {
+        BloodRequest request = event.request();
+        if (request.getUrgencyLevel() != BloodRequest.UrgencyLevel.CRITICAL) return;
+
+        notificationService.notifyEmergencyRequest(request);
+        emergencyFanOutService.fanOut(request)
+                .thenAccept(result -> allocate(request, result))
+                .exceptionally(ex -> {
+                    log.error("Emergency fan-out failed for request {}: {}", request.getRequestId(), ex.getMessage());
+                    return null;
+                });
+    }
+
+    private void allocate(BloodRequest request, EmergencyFanOutService.FanOutResult result) {
+        String outcome = "failed";
+        try {
+            if (result.selectedUnitIds().isEmpty()) {
+                outcome = "no_stock";
+                log.warn("No compatible stock found for emergency request {}", request.getRequestId());
+                return;
+            }
+
+            if (bloodRequestService.tryAllocateUnits(request.getRequestId(), result.selectedUnitIds()).isPresent()) {
+                outcome = "allocated";
+            } else {
+                outcome = "not_allocated";
+                log.info("Emergency request {} was not allocated from the fan-out, leaving it to the scheduler",
+                        request.getRequestId());
+            }
+        } finally {
+            emergencyFanOutService.recordAllocation(result, outcome);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.dto.responses.NearbyDonorResponse;
+import com.adityaverma.blood_bank_system.model.BloodBank;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.BloodBankRepository;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Emergency stage for CRITICAL requests: looks up compatible stock in every bank
+ * concurrently, picks units first-expiry-first, and when stock is short alerts the
+ * eligible donors nearest the bank serving the request in rate-limited batches.
+ * <p>
+ * The notification rate limit is per instance: a fan-out runs on the instance that
+ * created the request, so with several instances handling emergencies at once the
+ * cluster-wide rate is up to {@code app.emergency.notifications-per-second} times the
+ * number of instances. Size it for the notification provider with that in mind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmergencyFanOutService {
+    private final BloodUnitRepository bloodUnitRepository;
+    private final BloodBankRepository bloodBankRepository;
+    private final MongoTemplate mongoTemplate;
+    private final DonorService donorService;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final BusinessClock businessClock;
+
+    @Value("${app.emergency.donor-radius-km:25}")
+    private double donorRadiusKm;
+
+    @Value("${app.emergency.max-donors:200}")
+    private int maxDonors;
+
+    @Value("${app.emergency.notification-batch-size:25}")
+    private int notificationBatchSize;
+
+    @Value("${app.emergency.notifications-per-second:20}")
+    private double notificationsPerSecond;
+
+    // Per instance, see the class comment
+    private RateLimiter notificationLimiter;
+    private Timer timeToFirstMatch;
+
+    @PostConstruct
+    void init() {
+        notificationLimiter = new RateLimiter(notificationsPerSecond,
+                Math.max(notificationBatchSize, (int) Math.ceil(notificationsPerSecond)));
+
+        timeToFirstMatch = Timer.builder("emergency.time_to_first_match")
+                .description("Time from emergency fan-out start to the first bank reporting compatible stock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Async
+    public CompletableFuture<FanOutResult> fanOut(BloodRequest request) {
+        long startedAt = System.nanoTime();
+
+        List<BloodUnit> selected = matchUnits(request, startedAt);
+        int shortfall = Math.max(0, request.getQuantityUnits() - selected.size());
+
+        int donorsNotified = 0;
+        if (shortfall > 0) {
+            log.warn("Emergency request {} is short by {} units, alerting nearby donors",
+                    request.getRequestId(), shortfall);
+            donorsNotified = notifyNearestDonors(request, selected);
+        }
+
+        List<String> unitIds = selected.stream().map(BloodUnit::getUnitId).toList();
+        log.info("Emergency fan-out for {} selected {} units, notified {} donors",
+                request.getRequestId(), unitIds.size(), donorsNotified);
+
+        return CompletableFuture.completedFuture(new FanOutResult(unitIds, shortfall, donorsNotified, startedAt));
+    }
+
+    /**
+     * Records {@code emergency.time_to_allocation}, tagged with how the allocation
+     * attempt ended, e.g. {@code allocated} or {@code failed}.
+     */
+    public void recordAllocation(FanOutResult result, String outcome) {
+        Timer.builder("emergency.time_to_allocation")
+                .description("Time from emergency fan-out start to the end of the allocation attempt")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - result.startedAtNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private List<BloodUnit> matchUnits(BloodRequest request, long startedAt) {
+        Set<BloodGroup> compatibleGroups = request.getBloodGroup().getCompatibleDonors();
+        LocalDate today = businessClock.today();
+        long todayEpochDay = today.toEpochDay();
+
+        Query stocked = new Query(Criteria.where("status").is(BloodUnit.Status.AVAILABLE)
+                .and("bloodGroup").in(compatibleGroups)
+                .and("componentType").is(request.getComponentType())
+                .and("expiryDate").gte(today));
+        List<String> bankIds = mongoTemplate.findDistinct(stocked, "bloodBankId", BloodUnit.class, String.class);
+
+        AtomicBoolean matched = new AtomicBoolean();
+        List<BloodUnit> candidates = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<BloodUnit>>> lookups = bankIds.stream()
+                    .map(bankId -> executor.submit(() -> {
+                        List<BloodUnit> units = bloodUnitRepository.findAvailableCompatibleInBank(
+                                bankId, compatibleGroups, request.getComponentType(), today);
+                        if (!units.isEmpty() && matched.compareAndSet(false, true)) {
+                            timeToFirstMatch.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        }
+                        return units;
+                    }))
+                    .toList();
+
+            for (Future<List<BloodUnit>> lookup : lookups) {
+                candidates.addAll(await(lookup, List.of()));
+            }
+        }
+
+        // Exact group first to preserve universal-donor stock, then first-expiry-first
+        return candidates.stream()
+                .filter(unit -> unit.canBeReserved(todayEpochDay))
+                .sorted(Comparator
+                        .comparing((BloodUnit unit) -> unit.getBloodGroup() != request.getBloodGroup())
+                        .thenComparing(BloodUnit::getExpiryDate))
+                .limit(request.getQuantityUnits())
+                .toList();
+    }
+
+    private int notifyNearestDonors(BloodRequest request, List<BloodUnit> selected) {
+        Optional<BloodBank> centre = servingBank(request, selected);
+        if (centre.isEmpty()) {
+            log.warn("Emergency request {} has no located bank to search for donors around",
+                    request.getRequestId());
+            return 0;
+        }
+
+        // Already nearest first
+        List<NearbyDonorResponse> donors = donorService.findNearestEligibleDonors(
+                request.getBloodGroup(),
+                centre.get().getLocation().getX(),
+                centre.get().getLocation().getY(),
+                donorRadiusKm,
+                maxDonors);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < donors.size(); from += notificationBatchSize) {
+                List<NearbyDonorResponse> batch = donors.subList(from, Math.min(from + notificationBatchSize, donors.size()));
+                executor.submit(() -> {
+                    notificationLimiter.acquire(batch.size());
+                    batch.forEach(donor -> notificationService.notifyDonorOfEmergency(donor, request));
+                    return null;
+                });
+            }
+        }
+
+        return donors.size();
+    }
+
+    /**
+     * The bank the request is short at: its own bank, or else the bank holding its
+     * best-ranked selected unit. Hospitals carry no location of their own.
+     */
+    private Optional<BloodBank> servingBank(BloodRequest request, List<BloodUnit> selected) {
+        String bloodBankId = request.getBloodBankId() != null || selected.isEmpty()
+                ? request.getBloodBankId()
+                : selected.get(0).getBloodBankId();
+        if (bloodBankId == null) return Optional.empty();
+
+        return bloodBankRepository.findByBloodBankId(bloodBankId)
+                .filter(bank -> bank.getLocation() != null);
+    }
+
+    private <T> T await(Future<T> future, T fallback) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            log.error("Emergency fan-out task failed: {}", e.getCause().getMessage());
+            return fallback;
+        }
+    }
+
+    public record FanOutResult(
+            List<String> selectedUnitIds,
+            int shortfall,
+            int donorsNotified,
+            long startedAtNanos
+    ) {}
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.ImportJob;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an import file one row at a time. CSV takes its column names from the header
+ * row and supports quoted fields, including doubled quotes and line breaks inside
+ * quotes; NDJSON takes one object per line. Column and key names are normalised to
+ * lower snake case, and blank values are left out of the row.
+ * <p>
+ * Rows are numbered from 1, excluding the CSV header and blank lines, so the same file
+ * always yields the same numbering. Not thread-safe.
+ */
+public class ImportRowReader implements Closeable {
+
+    private static final int RAW_LIMIT = 500;
+
+    private final BufferedReader reader;
+    private final ImportJob.Format format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long rowNumber;
+
+    public record Row(long number, Map<String, String> fields, String raw) {}
+
+    public ImportRowReader(BufferedReader reader, ImportJob.Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The next row, or {@code null} at end of input.
+     */
+    public Row next() {
+        try {
+            return format == ImportJob.Format.CSV ? nextCsv() : nextJson();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Skips rows up to and including {@code rowNumber}.
+     */
+    public void skipTo(long rowNumber) {
+        while (this.rowNumber < rowNumber && next() != null) {
+            // Rows before the resume point were committed by an earlier run
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        if (header == null) {
+            String line = reader.readLine();
+            if (line == null) return null;
+            if (line.startsWith("\uFEFF")) line = line.substring(1);
+            header = new ArrayList<>();
+            for (String column : splitCsv(line)) {
+                header.add(normalise(column));
+            }
+        }
+
+        while (true) {
+            String line = reader.readLine();
+            if (line == null) return null;
+            if (line.isBlank()) continue;
+
+            StringBuilder record = new StringBuilder(line);
+            while (openQuote(record)) {
+                String continuation = reader.readLine();
+                if (continuation == null) break;
+                record.append('\n').append(continuation);
+            }
+
+            List<String> values = splitCsv(record.toString());
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size() && i < header.size(); i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) fields.put(header.get(i), value);
+            }
+            return new Row(++rowNumber, fields, truncate(record.toString()));
+        }
+    }
+
+    private Row nextJson() throws IOException {
+        while (true) {
+            String line = reader.readLine();
+            if (line == null) return null;
+            if (line.isBlank()) continue;
+
+            long number = ++rowNumber;
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    fields.put("_error", "Row is not a JSON object");
+                } else {
+                    Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+                    while (entries.hasNext()) {
+                        Map.Entry<String, JsonNode> entry = entries.next();
+                        String value = entry.getValue().isNull() ? "" : entry.getValue().asText().trim();
+                        if (!value.isEmpty()) fields.put(normalise(entry.getKey()), value);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                fields.put("_error", "Malformed JSON: " + e.getOriginalMessage());
+            }
+            return new Row(number, fields, truncate(line));
+        }
+    }
+
+    static List<String> splitCsv(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static boolean openQuote(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') quotes++;
+        }
+        return quotes % 2 != 0;
+    }
+
+    private static String normalise(String name) {
+        StringBuilder result = new StringBuilder(name.length() + 4);
+        String trimmed = name.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(trimmed.charAt(i - 1))) {
+                result.append('_');
+            }
+            result.append(c == ' ' || c == '-' ? '_' : Character.toLowerCase(c));
+        }
+        return result.toString();
+    }
+
+    private static String truncate(String raw) {
+        return raw.length() <= RAW_LIMIT ? raw : raw.substring(0, RAW_LIMIT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
\ No newline at end of file
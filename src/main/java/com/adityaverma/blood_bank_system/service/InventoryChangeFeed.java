@@ -0,0 +1,507 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.dto.responses.InventoryFeedUpdate;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Push feed of per-bank stock changes. A single virtual thread tails a change stream
+ * on {@code blood_units} with pre- and post-images enabled, diffs each event's image
+ * before against its image after and folds the difference into per-bank counts, so
+ * the feed holds nothing per unit. Dirty banks are flushed at most once per coalesce
+ * interval.
+ * <p>
+ * Counts are seeded by one aggregation in a snapshot session and the stream starts
+ * just after that snapshot, so no event is missed or counted twice. An event whose
+ * images have aged out, or a resume point that fell off the oplog, triggers a reseed
+ * whose counts are sent to every subscriber.
+ * <p>
+ * Each SSE subscriber has its own pending map (one entry per bank, later updates
+ * merged into earlier ones) drained by its own virtual thread, so a slow client only
+ * delays itself. Change streams need a replica set or sharded cluster; elsewhere the
+ * feed logs a warning and stays idle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryChangeFeed {
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final BusinessClock businessClock;
+
+    @Value("${app.inventory-feed.coalesce-interval-ms:1000}")
+    private long coalesceIntervalMs;
+
+    @Value("${app.inventory-feed.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.inventory-feed.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private static final int HISTORY_LOST = 286;
+    private static final List<String> STATE_FIELDS = List.of("blood_bank_id", "status", "blood_group", "component_type");
+
+    private static final BloodUnit.Status[] STATUSES = BloodUnit.Status.values();
+    private static final BloodGroup[] GROUPS = BloodGroup.values();
+    private static final BloodComponent[] COMPONENTS = BloodComponent.values();
+
+    // Owned by the feed thread
+    private final Set<String> dirtyBanks = new HashSet<>();
+    private final Map<String, Long> lastFlushNanos = new HashMap<>();
+
+    // Shared with subscribe(); guarded by countsLock
+    private final ReentrantLock countsLock = new ReentrantLock();
+    private final Map<String, BankCounts> countsByBank = new HashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("inventory_feed.subscribers", subscribers, Set::size)
+                .description("Open inventory SSE connections")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread.ofVirtual().name("inventory-change-feed").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        subscribers.forEach(Subscriber::complete);
+    }
+
+    /**
+     * Opens an SSE stream for one bank, or for all banks when {@code bloodBankId} is null.
+     * The first event per bank carries its current counts with an empty delta.
+     */
+    public SseEmitter subscribe(String bloodBankId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, bloodBankId);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        countsLock.lock();
+        try {
+            Instant now = businessClock.instant();
+            countsByBank.forEach((bankId, counts) -> subscriber.offer(
+                    new InventoryFeedUpdate(bankId, counts.current(), InventoryFeedUpdate.Counts.EMPTY, now)));
+            subscribers.add(subscriber);
+        } finally {
+            countsLock.unlock();
+        }
+
+        subscriber.start();
+        return emitter;
+    }
+
+    private void run() {
+        boolean prepared = false;
+        BsonDocument resumeToken = null;
+        BsonTimestamp seededAt = null;
+
+        while (running) {
+            try {
+                if (!prepared) {
+                    if (!supportsChangeStreams()) {
+                        log.warn("Change streams need a replica set or sharded cluster; inventory feed disabled");
+                        return;
+                    }
+                    if (!enableImages()) return;
+                    prepared = true;
+                }
+                if (resumeToken == null) seededAt = seed();
+
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor(resumeToken, seededAt)) {
+                    while (running) {
+                        ChangeStreamDocument<Document> change = cursor.tryNext();
+                        if (change != null && !apply(change)) {
+                            log.warn("Inventory feed event for {} has no images, reseeding", change.getDocumentKey());
+                            resumeToken = null;
+                            break;
+                        }
+
+                        BsonDocument token = cursor.getResumeToken();
+                        if (token != null) resumeToken = token;
+
+                        flushDue();
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == HISTORY_LOST) {
+                    log.warn("Inventory feed resume point fell off the oplog, reseeding");
+                    resumeToken = null;
+                }
+                pauseAfter(e);
+            } catch (MongoException e) {
+                pauseAfter(e);
+            }
+        }
+    }
+
+    private boolean supportsChangeStreams() {
+        Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+        return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+    }
+
+    /**
+     * Has Mongo record each unit's state before and after every change, so events can be
+     * diffed without remembering units here. Needs MongoDB 6.0.
+     */
+    private boolean enableImages() {
+        try {
+            mongoTemplate.getDb().runCommand(new Document("collMod", mongoTemplate.getCollectionName(BloodUnit.class))
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+            return true;
+        } catch (MongoCommandException e) {
+            log.warn("Could not enable change stream images on blood units; inventory feed disabled: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor(BsonDocument resumeToken,
+                                                                               BsonTimestamp seededAt) {
+        List<String> projected = new ArrayList<>(List.of("operationType", "documentKey"));
+        STATE_FIELDS.forEach(field -> {
+            projected.add("fullDocument." + field);
+            projected.add("fullDocumentBeforeChange." + field);
+        });
+
+        var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(BloodUnit.class))
+                .watch(List.of(
+                        Aggregates.match(Filters.in("operationType", List.of("insert", "update", "replace", "delete"))),
+                        Aggregates.project(Projections.include(projected))))
+                .fullDocument(FullDocument.WHEN_AVAILABLE)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(coalesceIntervalMs, TimeUnit.MILLISECONDS);
+
+        if (resumeToken != null) {
+            stream.resumeAfter(resumeToken);
+        } else {
+            // Start just after the seed's snapshot
+            stream.startAtOperationTime(new BsonTimestamp(seededAt.getTime(), seededAt.getInc() + 1));
+        }
+        return stream.cursor();
+    }
+
+    private void pauseAfter(MongoException e) {
+        log.error("Inventory change stream failed, retrying in {} ms: {}", retryDelayMs, e.getMessage());
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Counts every bank's units in one snapshot read, swaps them in and sends each bank's
+     * counts to the subscribers. Banks that no longer have units are sent as empty.
+     *
+     * @return the time of the snapshot, after which the change stream starts
+     */
+    private BsonTimestamp seed() {
+        Map<String, BankCounts> seeded = new HashMap<>();
+        Document group = new Document();
+        STATE_FIELDS.forEach(field -> group.append(field, "$" + field));
+
+        BsonTimestamp seededAt;
+        long units = 0;
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory()
+                .getSession(ClientSessionOptions.builder().snapshot(true).build())) {
+            for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(BloodUnit.class))
+                    .aggregate(session, List.of(Aggregates.group(group, Accumulators.sum("count", 1))))) {
+                UnitState state = stateOf(row.get("_id", Document.class));
+                long count = ((Number) row.get("count")).longValue();
+                units += count;
+                if (state.bloodBankId() != null) {
+                    seeded.computeIfAbsent(state.bloodBankId(), id -> new BankCounts()).add(state, count, false);
+                }
+            }
+            seededAt = session.getSnapshotTimestamp();
+        }
+
+        countsLock.lock();
+        try {
+            Set<String> banks = new HashSet<>(countsByBank.keySet());
+            banks.addAll(seeded.keySet());
+            countsByBank.clear();
+            countsByBank.putAll(seeded);
+            dirtyBanks.clear();
+
+            Instant now = businessClock.instant();
+            for (String bankId : banks) {
+                BankCounts counts = countsByBank.computeIfAbsent(bankId, id -> new BankCounts());
+                InventoryFeedUpdate update = new InventoryFeedUpdate(
+                        bankId, counts.current(), InventoryFeedUpdate.Counts.EMPTY, now);
+                subscribers.forEach(subscriber -> subscriber.offer(update));
+            }
+        } finally {
+            countsLock.unlock();
+        }
+
+        log.info("Inventory feed seeded with {} units across {} banks", units, seeded.size());
+        return seededAt;
+    }
+
+    /**
+     * @return false if the event lacks the images needed to diff it
+     */
+    private boolean apply(ChangeStreamDocument<Document> change) {
+        OperationType operation = change.getOperationType();
+        UnitState previous = operation == OperationType.INSERT ? null : stateOf(change.getFullDocumentBeforeChange());
+        UnitState next = operation == OperationType.DELETE ? null : stateOf(change.getFullDocument());
+
+        if ((operation != OperationType.INSERT && previous == null)
+                || (operation != OperationType.DELETE && next == null)) {
+            return false;
+        }
+        if (Objects.equals(previous, next)) return true;
+
+        countsLock.lock();
+        try {
+            move(previous, -1);
+            move(next, 1);
+        } finally {
+            countsLock.unlock();
+        }
+        return true;
+    }
+
+    private UnitState stateOf(Document document) {
+        return document == null ? null : UnitState.of(mongoTemplate.getConverter().read(BloodUnit.class, document));
+    }
+
+    private void move(UnitState state, int sign) {
+        if (state == null || state.bloodBankId() == null) return;
+
+        countsByBank.computeIfAbsent(state.bloodBankId(), id -> new BankCounts()).add(state, sign, true);
+        dirtyBanks.add(state.bloodBankId());
+    }
+
+    private void flushDue() {
+        if (dirtyBanks.isEmpty()) return;
+
+        long now = System.nanoTime();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(coalesceIntervalMs);
+        Instant asOf = businessClock.instant();
+
+        countsLock.lock();
+        try {
+            for (Iterator<String> it = dirtyBanks.iterator(); it.hasNext(); ) {
+                String bankId = it.next();
+                Long last = lastFlushNanos.get(bankId);
+                if (last != null && now - last < intervalNanos) continue;
+
+                it.remove();
+                lastFlushNanos.put(bankId, now);
+
+                BankCounts counts = countsByBank.get(bankId);
+                if (!counts.hasDelta()) continue;
+
+                InventoryFeedUpdate update = new InventoryFeedUpdate(bankId, counts.current(), counts.takeDelta(), asOf);
+                subscribers.forEach(subscriber -> subscriber.offer(update));
+            }
+        } finally {
+            countsLock.unlock();
+        }
+    }
+
+    static InventoryFeedUpdate merge(InventoryFeedUpdate earlier, InventoryFeedUpdate later) {
+        return new InventoryFeedUpdate(
+                later.bloodBankId(),
+                later.current(),
+                new InventoryFeedUpdate.Counts(
+                        sum(earlier.delta().byStatus(), later.delta().byStatus()),
+                        sum(earlier.delta().availableByBloodGroup(), later.delta().availableByBloodGroup()),
+                        sum(earlier.delta().availableByComponent(), later.delta().availableByComponent())),
+                later.asOf()
+        );
+    }
+
+    private static Map<String, Long> sum(Map<String, Long> a, Map<String, Long> b) {
+        Map<String, Long> result = new LinkedHashMap<>(a);
+        b.forEach((key, value) -> result.merge(key, value, Long::sum));
+        result.values().removeIf(value -> value == 0);
+        return result;
+    }
+
+    private record UnitState(String bloodBankId, BloodUnit.Status status, BloodGroup bloodGroup,
+                             BloodComponent componentType) {
+        static UnitState of(BloodUnit unit) {
+            return new UnitState(unit.getBloodBankId(), unit.getStatus(), unit.getBloodGroup(), unit.getComponentType());
+        }
+    }
+
+    private static final class BankCounts {
+        private final long[] byStatus = new long[STATUSES.length];
+        private final long[] byGroup = new long[GROUPS.length];
+        private final long[] byComponent = new long[COMPONENTS.length];
+
+        private final long[] statusDelta = new long[STATUSES.length];
+        private final long[] groupDelta = new long[GROUPS.length];
+        private final long[] componentDelta = new long[COMPONENTS.length];
+
+        void add(UnitState state, long sign, boolean trackDelta) {
+            if (state.status() != null) {
+                byStatus[state.status().ordinal()] += sign;
+                if (trackDelta) statusDelta[state.status().ordinal()] += sign;
+            }
+            if (state.status() != BloodUnit.Status.AVAILABLE) return;
+
+            if (state.bloodGroup() != null) {
+                byGroup[state.bloodGroup().ordinal()] += sign;
+                if (trackDelta) groupDelta[state.bloodGroup().ordinal()] += sign;
+            }
+            if (state.componentType() != null) {
+                byComponent[state.componentType().ordinal()] += sign;
+                if (trackDelta) componentDelta[state.componentType().ordinal()] += sign;
+            }
+        }
+
+        boolean hasDelta() {
+            return nonZero(statusDelta) || nonZero(groupDelta) || nonZero(componentDelta);
+        }
+
+        InventoryFeedUpdate.Counts current() {
+            return new InventoryFeedUpdate.Counts(
+                    toMap(byStatus, STATUSES), toMap(byGroup, GROUPS), toMap(byComponent, COMPONENTS));
+        }
+
+        InventoryFeedUpdate.Counts takeDelta() {
+            InventoryFeedUpdate.Counts delta = new InventoryFeedUpdate.Counts(
+                    toMap(statusDelta, STATUSES), toMap(groupDelta, GROUPS), toMap(componentDelta, COMPONENTS));
+            Arrays.fill(statusDelta, 0);
+            Arrays.fill(groupDelta, 0);
+            Arrays.fill(componentDelta, 0);
+            return delta;
+        }
+
+        private static boolean nonZero(long[] values) {
+            for (long value : values) if (value != 0) return true;
+            return false;
+        }
+
+        private static Map<String, Long> toMap(long[] values, Enum<?>[] keys) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != 0) result.put(keys[i].name(), values[i]);
+            }
+            return result;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String bloodBankId;
+        private final Map<String, InventoryFeedUpdate> pending = new ConcurrentHashMap<>();
+        private final Semaphore signal = new Semaphore(0);
+        private volatile boolean closed;
+        private Thread sender;
+
+        Subscriber(SseEmitter emitter, String bloodBankId) {
+            this.emitter = emitter;
+            this.bloodBankId = bloodBankId;
+        }
+
+        void offer(InventoryFeedUpdate update) {
+            if (closed || (bloodBankId != null && !bloodBankId.equals(update.bloodBankId()))) return;
+
+            pending.merge(update.bloodBankId(), update, InventoryChangeFeed::merge);
+            signal.release();
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("inventory-feed-subscriber").start(this::drain);
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    signal.acquire();
+                    signal.drainPermits();
+
+                    for (String bankId : List.copyOf(pending.keySet())) {
+                        InventoryFeedUpdate update = pending.remove(bankId);
+                        if (update == null) continue;
+
+                        emitter.send(SseEmitter.event().name("inventory").data(update));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Inventory feed subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        void complete() {
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+            if (sender != null) sender.interrupt();
+        }
+    }
+}
\ No newline at end of file
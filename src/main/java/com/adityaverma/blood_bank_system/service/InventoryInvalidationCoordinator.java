@@ -0,0 +1,123 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.util.TenantKeys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects banks whose units changed and invalidates each bank's inventory summary
+ * once per burst of writes instead of once per unit. Every unit write reaches
+ * {@link #markDirty}: through the unit event log for status transitions, including
+ * bulk and scheduled paths, and through the unit save callback for everything else.
+ * <p>
+ * A dirty bank is flushed once it has been quiet for {@code app.cache-invalidation.debounce-ms},
+ * or at the latest {@code app.cache-invalidation.max-staleness-ms} after its first
+ * change, so a bank under constant churn still gets fresh summaries. In {@code refresh}
+ * mode the summary is also recomputed right after eviction rather than on the next read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryInvalidationCoordinator {
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<BloodInventoryService> bloodInventoryService;
+
+    @Value("${app.cache-invalidation.debounce-ms:200}")
+    private long debounceMs = 200;
+
+    @Value("${app.cache-invalidation.max-staleness-ms:2000}")
+    private long maxStalenessMs = 2000;
+
+    @Value("${app.cache-invalidation.mode:EVICT}")
+    private Mode mode = Mode.EVICT;
+
+    public enum Mode { EVICT, REFRESH }
+
+    private static final String SUMMARY_CACHE = "bloodInventory";
+
+    private record Dirty(long firstNanos, long lastNanos) {}
+
+    private final Map<String, Dirty> dirty = new ConcurrentHashMap<>();
+    private Timer delay;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("inventory_cache.dirty_banks", dirty, Map::size)
+                .description("Banks with changes not yet reflected in the summary cache")
+                .register(meterRegistry);
+        delay = Timer.builder("inventory_cache.invalidation.delay")
+                .description("Time from a bank's first unflushed change to its eviction")
+                .register(meterRegistry);
+    }
+
+    public void markDirty(String bloodBankId) {
+        if (bloodBankId != null) markDirty(List.of(bloodBankId));
+    }
+
+    public void markDirty(Collection<String> bloodBankIds) {
+        long now = System.nanoTime();
+        for (String bloodBankId : bloodBankIds) {
+            dirty.merge(bloodBankId, new Dirty(now, now),
+                    (existing, ignored) -> new Dirty(existing.firstNanos(), now));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache-invalidation.flush-interval-ms:50}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+
+        long now = System.nanoTime();
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        long maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        Cache cache = cacheManager.getCache(SUMMARY_CACHE);
+
+        dirty.forEach((bloodBankId, state) -> {
+            boolean quiet = now - state.lastNanos() >= debounceNanos;
+            boolean overdue = now - state.firstNanos() >= maxStalenessNanos;
+            // A mark landing between the check and the removal keeps the bank dirty
+            if ((quiet || overdue) && dirty.remove(bloodBankId, state)) {
+                flush(cache, bloodBankId);
+                delay.record(now - state.firstNanos(), TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void flush(Cache cache, String bloodBankId) {
+        try {
+            if (cache != null) cache.evict(TenantKeys.cacheKey(bloodBankId));
+            if (mode == Mode.REFRESH) {
+                Thread.ofVirtual().name("inventory-refresh-" + bloodBankId)
+                        .start(() -> refresh(bloodBankId));
+            }
+        } catch (RuntimeException e) {
+            // Try again on the next flush rather than leave the summary stale
+            markDirty(bloodBankId);
+            log.warn("Failed to invalidate inventory summary for blood bank {}: {}", bloodBankId, e.getMessage());
+        }
+    }
+
+    private void refresh(String bloodBankId) {
+        try {
+            bloodInventoryService.getObject().getInventorySummary(bloodBankId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh inventory summary for blood bank {}: {}", bloodBankId, e.getMessage());
+        }
+    }
+}
\ No newline at end of file
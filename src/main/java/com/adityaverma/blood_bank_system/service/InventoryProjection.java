@@ -0,0 +1,106 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.InventorySnapshot;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Inventory counts of one blood bank folded from its {@link UnitEvent}s. Applying an
+ * event is a handful of array increments, so projections are cheap to keep current
+ * and to rebuild by replay. Not thread-safe; callers serialise access per bank.
+ */
+public class InventoryProjection {
+
+    private static final BloodUnit.Status[] STATUSES = BloodUnit.Status.values();
+    private static final BloodGroup[] GROUPS = BloodGroup.values();
+    private static final BloodComponent[] COMPONENTS = BloodComponent.values();
+
+    private final String bloodBankId;
+    private final long[] byStatus = new long[STATUSES.length];
+    private final long[] availableByGroup = new long[GROUPS.length];
+    private final long[] availableByComponent = new long[COMPONENTS.length];
+    private long sequence;
+
+    public InventoryProjection(String bloodBankId) {
+        this.bloodBankId = bloodBankId;
+    }
+
+    public static InventoryProjection fromSnapshot(InventorySnapshot snapshot) {
+        InventoryProjection projection = new InventoryProjection(snapshot.getBloodBankId());
+        projection.sequence = snapshot.getSequence();
+        load(snapshot.getByStatus(), projection.byStatus, STATUSES);
+        load(snapshot.getAvailableByBloodGroup(), projection.availableByGroup, GROUPS);
+        load(snapshot.getAvailableByComponent(), projection.availableByComponent, COMPONENTS);
+        return projection;
+    }
+
+    /**
+     * Whether {@code event} comes right after the last applied one, so applying it skips
+     * nothing.
+     */
+    public boolean follows(UnitEvent event) {
+        return event.getSequence() == sequence + 1;
+    }
+
+    public void apply(UnitEvent event) {
+        if (event.getSequence() <= sequence) return;
+
+        move(event.getFromStatus(), event, -1);
+        move(event.getToStatus(), event, 1);
+        sequence = event.getSequence();
+    }
+
+    public InventorySnapshot toSnapshot(LocalDateTime takenAt) {
+        return InventorySnapshot.builder()
+                .bloodBankId(bloodBankId)
+                .sequence(sequence)
+                .byStatus(toMap(byStatus, STATUSES))
+                .availableByBloodGroup(toMap(availableByGroup, GROUPS))
+                .availableByComponent(toMap(availableByComponent, COMPONENTS))
+                .takenAt(takenAt)
+                .build();
+    }
+
+    public String getBloodBankId() {
+        return bloodBankId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long count(BloodUnit.Status status) {
+        return byStatus[status.ordinal()];
+    }
+
+    private void move(BloodUnit.Status status, UnitEvent event, int sign) {
+        if (status == null) return;
+
+        byStatus[status.ordinal()] += sign;
+        if (status != BloodUnit.Status.AVAILABLE) return;
+
+        if (event.getBloodGroup() != null) availableByGroup[event.getBloodGroup().ordinal()] += sign;
+        if (event.getComponentType() != null) availableByComponent[event.getComponentType().ordinal()] += sign;
+    }
+
+    private static Map<String, Long> toMap(long[] values, Enum<?>[] keys) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) result.put(keys[i].name(), values[i]);
+        }
+        return result;
+    }
+
+    private static <E extends Enum<E>> void load(Map<String, Long> values, long[] target, E[] keys) {
+        if (values == null) return;
+        for (E key : keys) {
+            target[key.ordinal()] = values.getOrDefault(key.name(), 0L);
+        }
+    }
+}
\ No newline at end of file
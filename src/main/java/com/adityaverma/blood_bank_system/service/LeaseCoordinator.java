@@ -0,0 +1,217 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs scheduled work on one app instance at a time. Before each run the instance
+ * takes the job's lease from the {@link LeaseStore}; if another instance holds it the
+ * run is skipped. While the work runs, the lease is renewed every third of its
+ * duration. A finished run keeps the lease until it expires, so an instance whose
+ * cron fires a little later skips instead of repeating the run.
+ * <p>
+ * The work gets a {@link Fence} carrying the lease's fencing token. A holder that
+ * stalls, e.g. in a long GC pause or a network partition, can have its lease expire
+ * and taken over; its renewals then fail and {@link Fence#check()} throws. That check
+ * is local, so a holder that stalls between the check and its write still writes.
+ * Work whose repetition matters must therefore also be fenced where it writes: it
+ * stores the token on the document and makes the write conditional on
+ * {@link Fence#admits(String)}, which rejects any token older than the one stored.
+ * Taking over a lease whose holder never finished its run counts as a steal.
+ * <p>
+ * Meters, tagged by {@code job}: {@code scheduled_job.runs} (timer, with
+ * {@code outcome} completed, lease_lost or failed), {@code scheduled_job.skips},
+ * {@code scheduled_job.steals} and {@code scheduled_job.lease_lost}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaseCoordinator {
+    private final LeaseStore leaseStore;
+    private final BusinessClock businessClock;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.instance-id:}")
+    private String instanceId;
+
+    private final ScheduledExecutorService renewals = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("lease-renewal").daemon().factory());
+
+    @PostConstruct
+    void resolveInstanceId() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = hostName() + "-" + ProcessHandle.current().pid() + "-"
+                    + UUID.randomUUID().toString().substring(0, 8);
+        }
+        log.info("Acquiring leases as {}", instanceId);
+    }
+
+    @PreDestroy
+    void stopRenewals() {
+        renewals.shutdownNow();
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Runs {@code work} under the lease named after the job.
+     *
+     * @return whether this instance ran the work to completion
+     */
+    public boolean runExclusive(String job, Duration ttl, Consumer<Fence> work) {
+        return run(job, job, ttl, work);
+    }
+
+    /**
+     * Runs {@code work} under the lease for one partition of the job; meters are
+     * tagged with the job only.
+     */
+    public boolean runExclusive(String job, int partition, Duration ttl, Consumer<Fence> work) {
+        return run(job, job + ":" + partition, ttl, work);
+    }
+
+    private boolean run(String job, String name, Duration ttl, Consumer<Fence> work) {
+        Optional<LeaseStore.Grant> grant = leaseStore.tryAcquire(name, instanceId, businessClock.instant(), ttl);
+        if (grant.isEmpty()) {
+            meterRegistry.counter("scheduled_job.skips", "job", job).increment();
+            log.debug("Skipped {}, lease held by another instance", name);
+            return false;
+        }
+        if (grant.get().stolenFrom() != null) {
+            meterRegistry.counter("scheduled_job.steals", "job", job).increment();
+            log.warn("Took over lease {} from {}, which did not finish its run", name, grant.get().stolenFrom());
+        }
+
+        Fence fence = new Fence(job, name, grant.get().lease().getToken(), grant.get().lease().getExpiresAt());
+        long renewEveryMs = Math.max(1, ttl.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewals.scheduleWithFixedDelay(
+                () -> renew(fence, ttl), renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            work.accept(fence);
+            leaseStore.complete(name, instanceId, fence.token());
+            outcome = "completed";
+            return true;
+        } catch (RuntimeException e) {
+            if (fence.lost.get()) {
+                outcome = "lease_lost";
+                log.warn("Abandoned {} after losing lease with token {}: {}", name, fence.token(), e.getMessage());
+                return false;
+            }
+            // Let another instance retry without waiting for the lease to expire
+            leaseStore.release(name, instanceId, fence.token(), businessClock.instant());
+            throw e;
+        } finally {
+            renewal.cancel(false);
+            sample.stop(meterRegistry.timer("scheduled_job.runs", "job", job, "outcome", outcome));
+        }
+    }
+
+    private void renew(Fence fence, Duration ttl) {
+        if (fence.lost.get()) return;
+
+        Instant now = businessClock.instant();
+        try {
+            if (leaseStore.renew(fence.name, instanceId, fence.token, now, ttl)) {
+                fence.expiresAt = now.plus(ttl);
+            } else {
+                fence.markLost();
+            }
+        } catch (RuntimeException e) {
+            // The lease lapses locally if renewals keep failing
+            log.warn("Could not renew lease {}: {}", fence.name, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * This instance's hold on one lease for the duration of a run.
+     */
+    public final class Fence {
+        private final String job;
+        private final String name;
+        private final long token;
+        private final AtomicBoolean lost = new AtomicBoolean();
+        private volatile Instant expiresAt;
+
+        private Fence(String job, String name, long token, Instant expiresAt) {
+            this.job = job;
+            this.name = name;
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * The fencing token; a later holder of the same lease always has a larger one.
+         */
+        public long token() {
+            return token;
+        }
+
+        public boolean isHeld() {
+            return !lost.get() && businessClock.instant().isBefore(expiresAt);
+        }
+
+        /**
+         * Criteria a conditional write adds so it only applies while no later holder
+         * of this lease has written {@code tokenField} on the same document.
+         */
+        public Criteria admits(String tokenField) {
+            return new Criteria().orOperator(
+                    Criteria.where(tokenField).is(null),
+                    Criteria.where(tokenField).lte(token));
+        }
+
+        /**
+         * Fails fast once this instance knows the lease is gone. Not a fence by itself,
+         * see {@link #admits(String)}.
+         *
+         * @throws IllegalStateException if the lease has expired or changed hands
+         */
+        public void check() {
+            if (!isHeld()) {
+                markLost();
+                throw new IllegalStateException("Lease " + name + " with token " + token + " is no longer held");
+            }
+        }
+
+        private void markLost() {
+            if (lost.compareAndSet(false, true)) {
+                meterRegistry.counter("scheduled_job.lease_lost", "job", job).increment();
+                log.warn("Lost lease {} with token {}", name, token);
+            }
+        }
+    }
+}
\ No newline at end of file
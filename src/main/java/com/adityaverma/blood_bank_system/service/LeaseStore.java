@@ -0,0 +1,50 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.Lease;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Shared storage for {@link Lease}s. Every method is a single atomic step against the
+ * stored lease; callers pass the time so all instances compare against their own
+ * clock the same way.
+ */
+public interface LeaseStore {
+
+    /**
+     * A lease just acquired. {@code stolenFrom} names the previous holder if it was
+     * still running under the lease when it expired, and is null otherwise.
+     */
+    record Grant(Lease lease, String stolenFrom) {}
+
+    /**
+     * Takes the lease for {@code ttl} with the next token if it has expired or is
+     * already held by {@code owner}; empty if another instance holds it.
+     */
+    Optional<Grant> tryAcquire(String name, String owner, Instant now, Duration ttl);
+
+    /**
+     * Extends the lease to {@code now + ttl}, only if {@code owner} still holds it
+     * under {@code token} and it has not expired.
+     */
+    boolean renew(String name, String owner, long token, Instant now, Duration ttl);
+
+    /**
+     * Marks the run under {@code token} finished. The lease is kept until it expires.
+     */
+    void complete(String name, String owner, long token);
+
+    /**
+     * Gives the lease up at once, unless it has changed hands since.
+     */
+    void release(String name, String owner, long token, Instant now);
+
+    static String stolenFrom(Lease previous, String owner) {
+        return previous != null && previous.isRunning() && previous.getOwner() != null
+                && !previous.getOwner().equals(owner)
+                ? previous.getOwner()
+                : null;
+    }
+}
\ No newline at end of file
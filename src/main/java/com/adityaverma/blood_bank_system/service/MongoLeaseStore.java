@@ -0,0 +1,82 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.Lease;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Leases in the {@code leases} collection. Acquiring is one conditional upsert: it
+ * matches the lease if it has expired or is already ours, and otherwise collides with
+ * the existing document on {@code _id}, so at most one instance holds a lease at a
+ * time. The token is incremented in the same write, which makes it a fencing token.
+ */
+@Service
+@RequiredArgsConstructor
+public class MongoLeaseStore implements LeaseStore {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Grant> tryAcquire(String name, String owner, Instant now, Duration ttl) {
+        Query claimable = new Query(Criteria.where("name").is(name)
+                .orOperator(Criteria.where("expiresAt").lte(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("running", true)
+                .set("acquiredAt", now)
+                .set("expiresAt", now.plus(ttl))
+                .inc("token", 1);
+
+        Lease previous;
+        try {
+            // Returns the document as it was, or null if the upsert created it
+            previous = mongoTemplate.findAndModify(claimable, update, FindAndModifyOptions.options().upsert(true), Lease.class);
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+
+        Lease lease = Lease.builder()
+                .name(name)
+                .owner(owner)
+                .token(previous != null ? previous.getToken() + 1 : 1)
+                .running(true)
+                .acquiredAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        return Optional.of(new Grant(lease, LeaseStore.stolenFrom(previous, owner)));
+    }
+
+    @Override
+    public boolean renew(String name, String owner, long token, Instant now, Duration ttl) {
+        return mongoTemplate.updateFirst(
+                held(name, owner, token).addCriteria(Criteria.where("expiresAt").gt(now)),
+                new Update().set("expiresAt", now.plus(ttl)),
+                Lease.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void complete(String name, String owner, long token) {
+        mongoTemplate.updateFirst(held(name, owner, token), new Update().set("running", false), Lease.class);
+    }
+
+    @Override
+    public void release(String name, String owner, long token, Instant now) {
+        mongoTemplate.updateFirst(
+                held(name, owner, token),
+                new Update().set("running", false).set("expiresAt", now),
+                Lease.class);
+    }
+
+    private static Query held(String name, String owner, long token) {
+        return new Query(Criteria.where("name").is(name).and("owner").is(owner).and("token").is(token));
+    }
+}
\ No newline at end of file
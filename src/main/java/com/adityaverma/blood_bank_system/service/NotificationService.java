@@ -1,13 +1,17 @@
 package com.adityaverma.blood_bank_system.service;
 
+import com.adityaverma.blood_bank_system.dto.responses.NearbyDonorResponse;
 import com.adityaverma.blood_bank_system.model.BloodRequest;
 import com.adityaverma.blood_bank_system.model.BloodUnit;
 import com.adityaverma.blood_bank_system.model.Donation;
 import com.adityaverma.blood_bank_system.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -20,6 +24,7 @@ import java.util.List;
 @Slf4j
 public class NotificationService {
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
     private final EmailService emailService;
 
     @Async
@@ -57,6 +62,25 @@ public class NotificationService {
         sendEmail("emergency@bloodbank.com", subject, message);
     }
 
+    @Async
+    public void notifyDonorOfEmergency(NearbyDonorResponse donor, BloodRequest request) {
+        String subject = "Urgent: " + request.getBloodGroup().getDisplayName() + " donors needed nearby";
+        String message = String.format(
+                "Dear %s,\n\n" +
+                        "A blood bank %.1f km from you urgently needs %s %s for an emergency.\n" +
+                        "You are eligible to donate and your blood group is compatible.\n\n" +
+                        "Please visit the blood bank as soon as possible.\n\n" +
+                        "Thank you for being a life saver!\n\n" +
+                        "Blood Bank Team",
+                donor.fullName(),
+                donor.distanceKm(),
+                request.getBloodGroup().getDisplayName(),
+                request.getComponentType().getDisplayName()
+        );
+
+        sendEmail(donor.email(), subject, message);
+    }
+
     @Async
     public void sendDonationReminder(User donor) {
         emailService.sendDonationReminder(donor);
@@ -115,6 +139,9 @@ public class NotificationService {
 
     @Async
     public void sendEmail(String to, String subject, String text) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true);
@@ -124,9 +151,12 @@ public class NotificationService {
             helper.setText(text);
 
             mailSender.send(message);
+            outcome = "success";
             log.info("Email sent to: {}", to);
-        } catch (MessagingException e) {
+        } catch (MessagingException | MailException e) {
             log.error("Failed to send email to {}: {}", to, e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("email.send", "source", "notification", "outcome", outcome));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.config.RedisConfig;
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.DemandForecast;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.TenantKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of the inventory read path in {@link BloodInventoryService},
+ * on the reactive Mongo driver and reactive Redis. Summaries are read from and written
+ * to the same {@code bloodInventory} cache entries as the blocking path, so the
+ * existing evictions on every write keep both fresh. Writes stay blocking.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveInventoryService {
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveRedisTemplate<String, BloodInventorySummaryResponse> inventorySummaryTemplate;
+    private final BloodInventoryService bloodInventoryService;
+    private final BloodStockIndex stockIndex;
+    private final BusinessClock businessClock;
+
+    // Mirror the cache manager's key layout so entries are shared with @Cacheable
+    @Value("${spring.cache.redis.key-prefix:}")
+    private String keyPrefix;
+
+    @Value("${spring.cache.redis.use-key-prefix:true}")
+    private boolean useKeyPrefix = true;
+
+    private final Map<String, Mono<BloodInventorySummaryResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the bank's summary from the shared cache entry. Concurrent misses for a bank
+     * on this instance share one computation, but unlike the blocking path there is no
+     * stale value to serve while it runs: the {@code SingleFlightCache} layer wraps the
+     * blocking cache manager, which this path bypasses.
+     */
+    public Mono<BloodInventorySummaryResponse> getInventorySummary(String bloodBankId) {
+        String key = summaryKey(bloodBankId);
+
+        return inventorySummaryTemplate.opsForValue().get(key)
+                .switchIfEmpty(Mono.defer(() -> inFlight.computeIfAbsent(key, k -> load(k, bloodBankId))));
+    }
+
+    private Mono<BloodInventorySummaryResponse> load(String key, String bloodBankId) {
+        AtomicReference<Mono<BloodInventorySummaryResponse>> self = new AtomicReference<>();
+        Mono<BloodInventorySummaryResponse> flight = computeSummary(bloodBankId)
+                .flatMap(summary -> inventorySummaryTemplate.opsForValue().set(key, summary)
+                        .thenReturn(summary))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+
+    private String summaryKey(String bloodBankId) {
+        String cacheKey = TenantKeys.cacheKey(bloodBankId);
+        if (!useKeyPrefix) return cacheKey;
+        return keyPrefix + CacheKeyPrefix.simple().compute(RedisConfig.INVENTORY_CACHE) + cacheKey;
+    }
+
+    private Mono<BloodInventorySummaryResponse> computeSummary(String bloodBankId) {
+        Query byBank = new Query(Criteria.where("bloodBankId").is(bloodBankId));
+
+        Mono<List<BloodUnit>> units = reactiveMongoTemplate.find(byBank, BloodUnit.class)
+                .collectList();
+        Mono<Map<String, Integer>> reorderPoints = reactiveMongoTemplate.find(byBank, DemandForecast.class)
+                .collectMap(
+                        forecast -> DemandForecastService.bucketKey(forecast.getBloodGroup(), forecast.getComponentType()),
+                        DemandForecast::getReorderPoint);
+
+        // Grouping a large bank is CPU work; keep it off the driver's I/O threads
+        return Mono.zip(units, reorderPoints)
+                .publishOn(Schedulers.parallel())
+                .map(loaded -> bloodInventoryService.summarize(
+                        bloodBankId, loaded.getT1(), loaded.getT2(), businessClock.today()));
+    }
+
+    /**
+     * Available units matching the criteria, first expiry first. Served from the stock
+     * index once it is warm, otherwise streamed from Mongo at the subscriber's demand.
+     */
+    public Flux<BloodUnit> searchAvailableUnits(BloodInventoryService.SearchCriteria criteria) {
+        AvailableUnitQuery query = BloodInventoryService.toQuery(criteria, businessClock.today());
+
+        return stockIndex.isWarm()
+                ? Flux.defer(() -> Flux.fromIterable(stockIndex.find(query)))
+                : reactiveMongoTemplate.find(query.toQuery(), BloodUnit.class);
+    }
+}
\ No newline at end of file
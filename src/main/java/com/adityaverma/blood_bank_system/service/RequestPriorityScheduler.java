@@ -0,0 +1,339 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.event.BloodRequestCreatedEvent;
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.BloodRequestRepository;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory priority queue of open (PENDING/APPROVED) blood requests, ordered by
+ * urgency class, then requiredBy, then age. Requests are promoted one urgency class
+ * for every aging step they wait so NORMAL and SCHEDULED work cannot starve.
+ * The queue is rebuilt from Mongo on startup and drained periodically to
+ * auto-allocate compatible stock.
+ * <p>
+ * Only the instance holding the {@code drainRequestQueue} lease drains, see
+ * {@link LeaseCoordinator}. It merges open requests from Mongo before each drain, so
+ * requests created on other instances are included; the others drop their local
+ * queue. Allocation itself claims the request and reserves units conditionally, see
+ * {@link BloodRequestService#tryAllocateUnits}, so a drain that overlaps with a manual
+ * or emergency allocation cannot double-book.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RequestPriorityScheduler {
+    private final BloodRequestRepository bloodRequestRepository;
+    private final BloodUnitRepository bloodUnitRepository;
+    private final BloodRequestService bloodRequestService;
+    private final MeterRegistry meterRegistry;
+    private final BusinessClock businessClock;
+    private final LeaseCoordinator leaseCoordinator;
+
+    @Value("${app.scheduler.aging-step-minutes:60}")
+    private long agingStepMinutes;
+
+    // Each attempt costs a request read and an inventory lookup, filled or not
+    @Value("${app.scheduler.max-allocations-per-drain:50}")
+    private int maxAllocationsPerDrain = 50;
+
+    // Several drain intervals, so the holder keeps draining run after run
+    @Value("${app.scheduler.drain-lease-ms:30000}")
+    private long drainLeaseMs = 30000;
+
+    private static final Comparator<QueuedRequest> PRIORITY_ORDER = Comparator
+            .comparingInt(QueuedRequest::effectiveClass)
+            .thenComparing(QueuedRequest::requiredBy, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(QueuedRequest::enqueuedAt)
+            .thenComparing(QueuedRequest::requestId);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, QueuedRequest> queued = new ConcurrentHashMap<>();
+    private final Map<BloodRequest.UrgencyLevel, AtomicInteger> depthByUrgency =
+            new EnumMap<>(BloodRequest.UrgencyLevel.class);
+    private final Map<BloodRequest.UrgencyLevel, Timer> waitByUrgency =
+            new EnumMap<>(BloodRequest.UrgencyLevel.class);
+
+    private PriorityQueue<QueuedRequest> queue = new PriorityQueue<>(PRIORITY_ORDER);
+
+    @PostConstruct
+    void registerMetrics() {
+        for (BloodRequest.UrgencyLevel urgency : BloodRequest.UrgencyLevel.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            depthByUrgency.put(urgency, depth);
+
+            Gauge.builder("blood_request.queue.depth", depth, AtomicInteger::get)
+                    .description("Open blood requests waiting for allocation")
+                    .tag("urgency", urgency.name())
+                    .register(meterRegistry);
+
+            waitByUrgency.put(urgency, Timer.builder("blood_request.queue.wait")
+                    .description("Time an open blood request spent queued before leaving the scheduler")
+                    .tag("urgency", urgency.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<BloodRequest> open = bloodRequestRepository.findOpenRequests();
+
+        lock.lock();
+        try {
+            clearLocked();
+            open.forEach(this::enqueueLocked);
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Rebuilt request priority queue with {} open requests", open.size());
+    }
+
+    /**
+     * Adds open requests from Mongo that are not queued yet, keeping queued ones in place.
+     */
+    private void mergeFromDatabase() {
+        List<BloodRequest> open = bloodRequestRepository.findOpenRequests();
+
+        lock.lock();
+        try {
+            open.forEach(this::enqueueLocked);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRequestCreated(BloodRequestCreatedEvent event) {
+        enqueue(event.request());
+    }
+
+    public void enqueue(BloodRequest request) {
+        if (!BloodRequestService.isOpen(request)) return;
+
+        lock.lock();
+        try {
+            enqueueLocked(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return queued.size();
+    }
+
+    public int depth(BloodRequest.UrgencyLevel urgency) {
+        return depthByUrgency.get(urgency).get();
+    }
+
+    /**
+     * Recomputes effective classes so that waiting requests climb the queue.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.aging-interval-ms:60000}")
+    public void applyAging() {
+        Instant now = businessClock.instant();
+
+        lock.lock();
+        try {
+            PriorityQueue<QueuedRequest> aged = new PriorityQueue<>(Math.max(1, queue.size()), PRIORITY_ORDER);
+            for (QueuedRequest entry : queue) {
+                QueuedRequest updated = entry.withEffectiveClass(effectiveClass(entry, now));
+                aged.add(updated);
+                queued.put(updated.requestId(), updated);
+            }
+            queue = aged;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.drain-interval-ms:5000}")
+    public void drain() {
+        boolean held = leaseCoordinator.runExclusive("drainRequestQueue", Duration.ofMillis(drainLeaseMs), fence -> {
+            mergeFromDatabase();
+            drain(fence);
+        });
+
+        if (!held) {
+            // The lease holder drains these from Mongo
+            lock.lock();
+            try {
+                clearLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void drain(LeaseCoordinator.Fence fence) {
+        List<QueuedRequest> ordered = new ArrayList<>();
+
+        lock.lock();
+        try {
+            while (!queue.isEmpty()) {
+                ordered.add(queue.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        List<QueuedRequest> retry = new ArrayList<>();
+        LocalDate today = businessClock.today();
+        int attempts = 0;
+
+        // Walk in priority order so scarce stock goes to the most urgent request first;
+        // requests that cannot be filled yet keep their place for the next drain
+        for (QueuedRequest entry : ordered) {
+            if (attempts >= maxAllocationsPerDrain || !fence.isHeld()) {
+                retry.add(entry);
+                continue;
+            }
+            attempts++;
+            try {
+                if (tryAllocate(entry, today) == DrainOutcome.INSUFFICIENT_STOCK) {
+                    retry.add(entry);
+                }
+            } catch (RuntimeException e) {
+                log.error("Auto-allocation failed for request {}: {}", entry.requestId(), e.getMessage());
+                retry.add(entry);
+            }
+        }
+
+        lock.lock();
+        try {
+            queue.addAll(retry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DrainOutcome tryAllocate(QueuedRequest entry, LocalDate today) {
+        BloodRequest request = bloodRequestRepository.findByRequestId(entry.requestId()).orElse(null);
+
+        if (request == null || !BloodRequestService.isOpen(request)) {
+            dequeued(entry);
+            return DrainOutcome.CLOSED;
+        }
+        if (!hasQuantity(request)) {
+            log.warn("Skipping request {} without a positive quantity", entry.requestId());
+            dequeued(entry);
+            return DrainOutcome.CLOSED;
+        }
+
+        long todayEpochDay = today.toEpochDay();
+        int quantity = request.getQuantityUnits();
+        // Spares stand in for units reserved elsewhere since this lookup
+        List<String> unitIds = bloodUnitRepository.findAvailableCompatible(
+                        request.getBloodGroup().getCompatibleDonors(), request.getComponentType(), today)
+                .stream()
+                .filter(unit -> unit.canBeReserved(todayEpochDay))
+                .sorted(Comparator
+                        .comparing((BloodUnit unit) -> unit.getBloodGroup() != request.getBloodGroup())
+                        .thenComparing(BloodUnit::getExpiryDate))
+                .limit(2L * quantity)
+                .map(BloodUnit::getUnitId)
+                .toList();
+
+        if (unitIds.size() < quantity) {
+            return DrainOutcome.INSUFFICIENT_STOCK;
+        }
+
+        // Empty if too many units were taken meanwhile, or the request is being
+        // allocated elsewhere; either way it is looked at again next drain
+        if (bloodRequestService.tryAllocateUnits(request.getRequestId(), unitIds).isEmpty()) {
+            return DrainOutcome.INSUFFICIENT_STOCK;
+        }
+        dequeued(entry);
+        log.info("Auto-allocated {} units to {} request {}",
+                quantity, entry.urgency(), entry.requestId());
+        return DrainOutcome.ALLOCATED;
+    }
+
+    private void enqueueLocked(BloodRequest request) {
+        // Nothing to auto-allocate; these are left for manual allocation
+        if (queued.containsKey(request.getRequestId()) || !hasQuantity(request)) return;
+
+        Instant enqueuedAt = request.getCreatedAt() != null
+                ? request.getCreatedAt().atZone(businessClock.clock().getZone()).toInstant()
+                : businessClock.instant();
+
+        QueuedRequest entry = new QueuedRequest(
+                request.getRequestId(),
+                request.getUrgencyLevel(),
+                request.getUrgencyLevel().ordinal(),
+                request.getRequiredBy(),
+                enqueuedAt
+        );
+        entry = entry.withEffectiveClass(effectiveClass(entry, businessClock.instant()));
+
+        queue.add(entry);
+        queued.put(entry.requestId(), entry);
+        depthByUrgency.get(entry.urgency()).incrementAndGet();
+    }
+
+    private static boolean hasQuantity(BloodRequest request) {
+        return request.getQuantityUnits() != null && request.getQuantityUnits() > 0;
+    }
+
+    private void clearLocked() {
+        queue.clear();
+        queued.clear();
+        depthByUrgency.values().forEach(depth -> depth.set(0));
+    }
+
+    private void dequeued(QueuedRequest entry) {
+        if (queued.remove(entry.requestId()) != null) {
+            depthByUrgency.get(entry.urgency()).decrementAndGet();
+            waitByUrgency.get(entry.urgency()).record(Duration.between(entry.enqueuedAt(), businessClock.instant()));
+        }
+    }
+
+    private int effectiveClass(QueuedRequest entry, Instant now) {
+        long waitedMinutes = Duration.between(entry.enqueuedAt(), now).toMinutes();
+        long promotions = agingStepMinutes > 0 ? waitedMinutes / agingStepMinutes : 0;
+        return (int) Math.max(0, entry.urgency().ordinal() - promotions);
+    }
+
+    private enum DrainOutcome { ALLOCATED, CLOSED, INSUFFICIENT_STOCK }
+
+    record QueuedRequest(
+            String requestId,
+            BloodRequest.UrgencyLevel urgency,
+            int effectiveClass,
+            LocalDateTime requiredBy,
+            Instant enqueuedAt
+    ) {
+        QueuedRequest withEffectiveClass(int effectiveClass) {
+            return new QueuedRequest(requestId, urgency, effectiveClass, requiredBy, enqueuedAt);
+        }
+    }
+}
\ No newline at end of file
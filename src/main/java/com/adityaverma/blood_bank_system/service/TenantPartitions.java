@@ -0,0 +1,81 @@
+package com.adityaverma.blood_bank_system.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Splits tenant-scoped work between app instances. Blood banks are hashed into
+ * {@code app.tenancy.partitions} partitions, and each partition of a job runs under
+ * its own lease, named {@code <job>:<partition>}, through the {@link LeaseCoordinator}.
+ * <p>
+ * As leases are kept after a run, the holder keeps its partitions run after run, and
+ * if it dies others take them once the leases expire. Changing the partition count
+ * renames every lease, so do it with all instances stopped.
+ * <p>
+ * A partition whose work throws is logged and counted in
+ * {@code scheduled_job.partition_failures}, tagged by {@code job}, and the remaining
+ * partitions still run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantPartitions {
+    private final LeaseCoordinator leaseCoordinator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.tenancy.partitions:16}")
+    private int partitions = 16;
+
+    // Longer than the most frequent partitioned job's interval, so a live holder keeps its partitions
+    @Value("${app.tenancy.lease-ms:600000}")
+    private long leaseMs = 600000;
+
+    public int partitionOf(String bloodBankId) {
+        // String.hashCode is specified, so every instance agrees on the partition
+        return Math.floorMod(bloodBankId.hashCode(), partitions);
+    }
+
+    /**
+     * Runs {@code work} once for each partition of {@code bloodBankIds} whose lease this
+     * instance acquires, with that partition's banks. Partitions with no banks are not
+     * leased.
+     */
+    public void forEachClaimed(String job, Collection<String> bloodBankIds,
+                               BiConsumer<List<String>, LeaseCoordinator.Fence> work) {
+        Map<Integer, List<String>> byPartition = new TreeMap<>();
+        for (String bloodBankId : bloodBankIds) {
+            if (bloodBankId != null) {
+                byPartition.computeIfAbsent(partitionOf(bloodBankId), key -> new ArrayList<>()).add(bloodBankId);
+            }
+        }
+
+        Duration lease = Duration.ofMillis(leaseMs);
+        int ran = 0;
+        int failed = 0;
+        for (Map.Entry<Integer, List<String>> partition : byPartition.entrySet()) {
+            try {
+                if (leaseCoordinator.runExclusive(job, partition.getKey(), lease,
+                        fence -> work.accept(partition.getValue(), fence))) {
+                    ran++;
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                meterRegistry.counter("scheduled_job.partition_failures", "job", job).increment();
+                log.error("{} failed for partition {}", job, partition.getKey(), e);
+            }
+        }
+
+        log.debug("{} ran {} of {} partitions, {} failed", job, ran, byPartition.size(), failed);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,460 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.dto.requests.TransferUnitsRequest;
+import com.adityaverma.blood_bank_system.dto.responses.TransferSuggestion;
+import com.adityaverma.blood_bank_system.model.BloodBank;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodTransfer;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.repository.BloodBankRepository;
+import com.adityaverma.blood_bank_system.repository.BloodTransferRepository;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Moves batches of units between blood banks. Dispatch is one {@code updateMulti} on
+ * {@code blood_units} and receipt one bulk write; because bulk updates skip entity
+ * callbacks, the stock index and unit event log are updated explicitly for the
+ * units that actually moved; the event log also invalidates inventory caches.
+ * <p>
+ * While in transit a unit keeps its source bank, has status IN_TRANSIT and its
+ * {@code currentLocation} holds the transfer marker, so both legs can find exactly
+ * the units of one transfer. Its {@code transferId} names the transfer and stays
+ * after receipt, so the units a transfer delivered can be found too.
+ * <p>
+ * Neither leg is a transaction. Dispatch records the transfer as DISPATCHING before
+ * moving units and confirms it as IN_TRANSIT after, so an interrupted dispatch is
+ * visible and finished by {@link #recoverStalledDispatches()}. Receipt claims the
+ * transfer before moving units, see {@link #receive}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferService {
+    private final MongoTemplate mongoTemplate;
+    private final BloodTransferRepository bloodTransferRepository;
+    private final BloodBankRepository bloodBankRepository;
+    private final BloodUnitRepository bloodUnitRepository;
+    private final BloodStockIndex stockIndex;
+    private final UnitLifecycleService unitLifecycleService;
+    private final LeaseCoordinator leaseCoordinator;
+    private final BusinessClock businessClock;
+
+    @Value("${app.transfer.demand-window-days:28}")
+    private int demandWindowDays;
+
+    @Value("${app.transfer.target-cover-days:7}")
+    private int targetCoverDays;
+
+    @Value("${app.transfer.min-retained-units:2}")
+    private int minRetainedUnits;
+
+    @Value("${app.transfer.transit-days:1}")
+    private int transitDays;
+
+    @Value("${app.transfer.min-remaining-shelf-days:3}")
+    private int minRemainingShelfDays;
+
+    @Value("${app.transfer.recovery-interval-ms:300000}")
+    private long recoveryIntervalMs = 300000;
+
+    @Value("${app.transfer.receive-claim-ms:300000}")
+    private long receiveClaimMs = 300000;
+
+    private static final String MARKER_PREFIX = "TRANSFER:";
+    private static final DateTimeFormatter ID_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public BloodTransfer dispatch(TransferUnitsRequest request, String dispatchedBy) {
+        if (request.fromBloodBankId().equals(request.toBloodBankId())) {
+            throw new RuntimeException("Source and destination blood banks must differ");
+        }
+        for (String bloodBankId : List.of(request.fromBloodBankId(), request.toBloodBankId())) {
+            bloodBankRepository.findByBloodBankId(bloodBankId)
+                    .orElseThrow(() -> new RuntimeException("Blood bank not found: " + bloodBankId));
+        }
+
+        LocalDateTime now = businessClock.now();
+        String transferId = "TRF-" + now.format(ID_DATE) + "-"
+                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+
+        // Record the transfer first so units never sit IN_TRANSIT without one; it only
+        // becomes receivable once the units are confirmed, see recoverStalledDispatches
+        BloodTransfer transfer = bloodTransferRepository.save(BloodTransfer.builder()
+                .transferId(transferId)
+                .fromBloodBankId(request.fromBloodBankId())
+                .toBloodBankId(request.toBloodBankId())
+                .unitIds(request.unitIds())
+                .status(BloodTransfer.TransferStatus.DISPATCHING)
+                .reason(request.reason())
+                .dispatchedBy(dispatchedBy)
+                .dispatchedAt(now)
+                .build());
+
+        UpdateResult result = mongoTemplate.updateMulti(
+                new Query(Criteria.where("unitId").in(request.unitIds())
+                        .and("bloodBankId").is(request.fromBloodBankId())
+                        .and("status").is(BloodUnit.Status.AVAILABLE)
+                        .and("expiryDate").gte(businessClock.today())),
+                new Update()
+                        .set("status", BloodUnit.Status.IN_TRANSIT)
+                        .set("currentLocation", MARKER_PREFIX + transferId)
+                        .set("transferId", transferId)
+                        .set("updatedAt", now),
+                BloodUnit.class);
+
+        if (result.getModifiedCount() == 0) {
+            bloodTransferRepository.delete(transfer);
+            throw new RuntimeException("None of the requested units are available for transfer");
+        }
+
+        BloodTransfer saved = confirmDispatch(transfer, unitsOf(transfer, BloodUnit.Status.IN_TRANSIT), Set.of());
+
+        log.info("Transfer {} dispatched {} of {} requested units from {} to {}", transferId,
+                saved.getUnitIds().size(), request.unitIds().size(), request.fromBloodBankId(), request.toBloodBankId());
+        return saved;
+    }
+
+    /**
+     * Finishes dispatches that stopped between recording the transfer and confirming
+     * its units, e.g. when the instance died. A transfer whose units were moved becomes
+     * IN_TRANSIT with those units; one whose units never moved is deleted.
+     */
+    @Scheduled(fixedDelayString = "${app.transfer.recovery-interval-ms:300000}")
+    public void recoverStalledDispatches() {
+        leaseCoordinator.runExclusive("recoverStalledDispatches", Duration.ofMillis(recoveryIntervalMs), fence -> {
+            LocalDateTime stalledBefore = businessClock.now().minus(Duration.ofMillis(recoveryIntervalMs));
+
+            for (BloodTransfer transfer : bloodTransferRepository.findByStatus(BloodTransfer.TransferStatus.DISPATCHING)) {
+                if (transfer.getDispatchedAt() == null || transfer.getDispatchedAt().isAfter(stalledBefore)) continue;
+                fence.check();
+
+                List<BloodUnit> moved = unitsOf(transfer, BloodUnit.Status.IN_TRANSIT);
+                if (moved.isEmpty()) {
+                    mongoTemplate.remove(new Query(Criteria.where("transferId").is(transfer.getTransferId())
+                            .and("status").is(BloodTransfer.TransferStatus.DISPATCHING)), BloodTransfer.class);
+                    log.warn("Removed stalled transfer {}, none of its units were dispatched", transfer.getTransferId());
+                    continue;
+                }
+
+                Set<String> logged = new HashSet<>(mongoTemplate.findDistinct(
+                        new Query(Criteria.where("reference").is(transfer.getTransferId())
+                                .and("unitId").in(transfer.getUnitIds())),
+                        "unitId", UnitEvent.class, String.class));
+                confirmDispatch(transfer, moved, logged);
+                log.warn("Recovered stalled transfer {} with {} units in transit", transfer.getTransferId(), moved.size());
+            }
+        });
+    }
+
+    private BloodTransfer confirmDispatch(BloodTransfer transfer, List<BloodUnit> dispatched, Set<String> alreadyLogged) {
+        dispatched.forEach(stockIndex::apply);
+        unitLifecycleService.recordAll(dispatched.stream()
+                .filter(unit -> !alreadyLogged.contains(unit.getUnitId()))
+                .map(unit -> new UnitLifecycleService.Transition(unit, BloodUnit.Status.AVAILABLE, transfer.getTransferId()))
+                .toList());
+
+        List<String> unitIds = dispatched.stream().map(BloodUnit::getUnitId).toList();
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("transferId").is(transfer.getTransferId())
+                        .and("status").is(BloodTransfer.TransferStatus.DISPATCHING)),
+                new Update().set("status", BloodTransfer.TransferStatus.IN_TRANSIT).set("unitIds", unitIds),
+                BloodTransfer.class);
+
+        transfer.setStatus(BloodTransfer.TransferStatus.IN_TRANSIT);
+        transfer.setUnitIds(unitIds);
+        return transfer;
+    }
+
+    /**
+     * Receives the transfer's units at its destination. The transfer is claimed first
+     * with a conditional findAndModify (IN_TRANSIT to RECEIVING), so concurrent receipts
+     * of one transfer cannot both move and log its units. A claim older than
+     * {@code app.transfer.receive-claim-ms} can be taken again, which lets a receipt
+     * that failed part-way be retried; units it already moved are not moved again.
+     */
+    public BloodTransfer receive(String transferId, String receivedBy) {
+        // Millisecond precision, as stored, so the receipt's own claim can be matched by it
+        LocalDateTime now = businessClock.now().truncatedTo(ChronoUnit.MILLIS);
+        BloodTransfer transfer = claimReceipt(transferId, receivedBy, now);
+        String destination = transfer.getToBloodBankId();
+
+        // Units of a claimed transfer are not touched by any other path, so reading them
+        // before the update gives their exact pre-receipt state
+        List<BloodUnit> inTransit = unitsOf(transfer, BloodUnit.Status.IN_TRANSIT);
+
+        // Receipt changes the shard key, which a sharded cluster only allows one document
+        // at a time with the full current key in the filter
+        BulkOperations receipt = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BloodUnit.class);
+        Update arrival = new Update()
+                .set("status", BloodUnit.Status.AVAILABLE)
+                .set("bloodBankId", destination)
+                .set("currentLocation", destination)
+                .set("transferId", transferId)
+                .set("updatedAt", now);
+        for (BloodUnit unit : inTransit) {
+            receipt.updateOne(new Query(Criteria.where("bloodBankId").is(unit.getBloodBankId())
+                    .and("unitId").is(unit.getUnitId())
+                    .and("status").is(BloodUnit.Status.IN_TRANSIT)
+                    .and("currentLocation").is(MARKER_PREFIX + transferId)), arrival);
+        }
+        int modified = inTransit.isEmpty() ? 0 : receipt.execute().getModifiedCount();
+
+        // The update result only counts matches. Units this transfer delivered carry its
+        // id at the destination; only those read in transit above arrived in this receipt
+        Set<String> arrived = modified == 0 ? Set.of() : new HashSet<>(mongoTemplate.findDistinct(
+                new Query(Criteria.where("unitId").in(transfer.getUnitIds())
+                        .and("bloodBankId").is(destination)
+                        .and("transferId").is(transferId)
+                        .and("status").ne(BloodUnit.Status.IN_TRANSIT)),
+                "unitId", BloodUnit.class, String.class));
+        arrived.retainAll(inTransit.stream().map(BloodUnit::getUnitId).toList());
+
+        if (arrived.size() != inTransit.size()) {
+            log.warn("Transfer {} expected {} units in transit but received {}",
+                    transferId, inTransit.size(), arrived.size());
+        }
+
+        List<UnitLifecycleService.Transition> transitions = new ArrayList<>(arrived.size() * 2);
+        for (BloodUnit unit : inTransit) {
+            if (!arrived.contains(unit.getUnitId())) continue;
+
+            BloodUnit received = unit.toBuilder()
+                    .status(BloodUnit.Status.AVAILABLE)
+                    .bloodBankId(destination)
+                    .currentLocation(destination)
+                    .transferId(transferId)
+                    .updatedAt(now)
+                    .build();
+            stockIndex.apply(received);
+
+            transitions.add(new UnitLifecycleService.Transition(
+                    unit.toBuilder().status(BloodUnit.Status.TRANSFERRED).build(),
+                    BloodUnit.Status.IN_TRANSIT, transferId));
+            transitions.add(new UnitLifecycleService.Transition(received, null, transferId));
+        }
+        unitLifecycleService.recordAll(transitions);
+
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("transferId").is(transferId)
+                        .and("status").is(BloodTransfer.TransferStatus.RECEIVING)
+                        .and("receivedAt").is(now)),
+                new Update().set("status", BloodTransfer.TransferStatus.RECEIVED),
+                BloodTransfer.class);
+        transfer.setStatus(BloodTransfer.TransferStatus.RECEIVED);
+
+        log.info("Transfer {} received {} units at {}", transferId, arrived.size(), destination);
+        return transfer;
+    }
+
+    private BloodTransfer claimReceipt(String transferId, String receivedBy, LocalDateTime now) {
+        Query claimable = new Query(Criteria.where("transferId").is(transferId).orOperator(
+                Criteria.where("status").is(BloodTransfer.TransferStatus.IN_TRANSIT),
+                Criteria.where("status").is(BloodTransfer.TransferStatus.RECEIVING)
+                        .and("receivedAt").lte(now.minus(Duration.ofMillis(receiveClaimMs)))));
+
+        BloodTransfer claimed = mongoTemplate.findAndModify(claimable,
+                new Update()
+                        .set("status", BloodTransfer.TransferStatus.RECEIVING)
+                        .set("receivedBy", receivedBy)
+                        .set("receivedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                BloodTransfer.class);
+
+        if (claimed == null) {
+            throw new RuntimeException("Transfer is not in transit: " + getTransfer(transferId).getTransferId());
+        }
+        return claimed;
+    }
+
+    public BloodTransfer getTransfer(String transferId) {
+        return bloodTransferRepository.findByTransferId(transferId)
+                .orElseThrow(() -> new RuntimeException("Transfer not found: " + transferId));
+    }
+
+    public List<BloodTransfer> getIncomingTransfers(String bloodBankId) {
+        return bloodTransferRepository.findByToBloodBankIdAndStatus(bloodBankId, BloodTransfer.TransferStatus.IN_TRANSIT);
+    }
+
+    private List<BloodUnit> unitsOf(BloodTransfer transfer, BloodUnit.Status status) {
+        return mongoTemplate.find(new Query(Criteria.where("unitId").in(transfer.getUnitIds())
+                        .and("status").is(status)
+                        .and("currentLocation").is(MARKER_PREFIX + transfer.getTransferId())),
+                BloodUnit.class);
+    }
+
+    /**
+     * Suggests transfers per blood group and component from banks holding stock they
+     * will not use to banks short of {@code target-cover-days} of demand. Demand is
+     * the issue rate over the last {@code demand-window-days}, read from the unit event
+     * log. A unit is offered when its source would not use it before it expires, or
+     * when it is beyond the source's own target. Earliest-expiring units are offered
+     * first, and only if they would still be in date when the destination gets to them.
+     */
+    public List<TransferSuggestion> suggestRebalancing() {
+        LocalDate today = businessClock.today();
+        LocalDate usableFrom = today.plusDays(minRemainingShelfDays);
+        Map<String, Double> dailyDemand = dailyDemandByBucket();
+
+        Map<String, Map<Integer, List<BloodUnit>>> stock = new LinkedHashMap<>();
+        for (BloodBank bank : bloodBankRepository.findAllActive()) {
+            AvailableUnitQuery query = AvailableUnitQuery.builder()
+                    .bloodBankId(bank.getBloodBankId())
+                    .availableOn(usableFrom)
+                    .build();
+            List<BloodUnit> units = stockIndex.isWarm() ? stockIndex.find(query) : bloodUnitRepository.findAvailable(query);
+
+            Map<Integer, List<BloodUnit>> byBucket = new HashMap<>();
+            units.forEach(unit -> byBucket
+                    .computeIfAbsent(BloodStockIndex.bucketOf(unit.getBloodGroup(), unit.getComponentType()), b -> new ArrayList<>())
+                    .add(unit));
+            stock.put(bank.getBloodBankId(), byBucket);
+        }
+
+        List<TransferSuggestion> suggestions = new ArrayList<>();
+        for (BloodGroup group : BloodGroup.values()) {
+            for (BloodComponent component : BloodComponent.values()) {
+                suggestions.addAll(rebalanceBucket(group, component, stock, dailyDemand, today));
+            }
+        }
+
+        suggestions.sort(Comparator.comparingInt(TransferSuggestion::quantity).reversed());
+        return suggestions;
+    }
+
+    private List<TransferSuggestion> rebalanceBucket(BloodGroup group, BloodComponent component,
+                                                     Map<String, Map<Integer, List<BloodUnit>>> stock,
+                                                     Map<String, Double> dailyDemand, LocalDate today) {
+        int bucket = BloodStockIndex.bucketOf(group, component);
+        Map<String, List<BloodUnit>> surplus = new LinkedHashMap<>();
+        Map<String, Integer> deficit = new LinkedHashMap<>();
+
+        stock.forEach((bankId, byBucket) -> {
+            List<BloodUnit> units = byBucket.getOrDefault(bucket, List.of());
+            double demand = dailyDemand.getOrDefault(demandKey(bankId, group, component), 0.0);
+            int target = (int) Math.ceil(demand * targetCoverDays);
+
+            if (units.size() < target) {
+                deficit.put(bankId, target - units.size());
+                return;
+            }
+
+            List<BloodUnit> offered = new ArrayList<>();
+            for (int k = minRetainedUnits; k < units.size(); k++) {
+                BloodUnit unit = units.get(k);
+                boolean wouldExpireHere = demand == 0
+                        || unit.getExpiryDate().isBefore(today.plusDays((long) Math.ceil((k + 1) / demand)));
+                if (wouldExpireHere || k >= target + minRetainedUnits) offered.add(unit);
+            }
+            if (!offered.isEmpty()) surplus.put(bankId, offered);
+        });
+
+        if (surplus.isEmpty() || deficit.isEmpty()) return List.of();
+
+        List<TransferSuggestion> suggestions = new ArrayList<>();
+        deficit.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> {
+                    String destination = entry.getKey();
+                    double destinationDemand = dailyDemand.getOrDefault(demandKey(destination, group, component), 0.0);
+                    int destinationStock = stock.get(destination).getOrDefault(bucket, List.of()).size();
+                    int needed = entry.getValue();
+
+                    List<Map.Entry<String, List<BloodUnit>>> sources = surplus.entrySet().stream()
+                            .filter(source -> !source.getValue().isEmpty())
+                            .sorted(Comparator.comparingInt((Map.Entry<String, List<BloodUnit>> source) ->
+                                    source.getValue().size()).reversed())
+                            .toList();
+
+                    for (Map.Entry<String, List<BloodUnit>> source : sources) {
+                        if (needed == 0) break;
+
+                        List<BloodUnit> picked = new ArrayList<>();
+                        for (var it = source.getValue().iterator(); it.hasNext() && picked.size() < needed; ) {
+                            BloodUnit unit = it.next();
+                            int position = destinationStock + picked.size() + 1;
+                            LocalDate usedBy = today.plusDays(transitDays + (long) Math.ceil(position / destinationDemand));
+                            if (unit.getExpiryDate().isBefore(usedBy)) continue;
+
+                            picked.add(unit);
+                            it.remove();
+                        }
+                        if (picked.isEmpty()) continue;
+
+                        needed -= picked.size();
+                        destinationStock += picked.size();
+                        double sourceDemand = dailyDemand.getOrDefault(demandKey(source.getKey(), group, component), 0.0);
+                        int sourceStock = stock.get(source.getKey()).getOrDefault(bucket, List.of()).size();
+
+                        suggestions.add(new TransferSuggestion(
+                                source.getKey(),
+                                destination,
+                                group,
+                                component,
+                                picked.size(),
+                                picked.stream().map(BloodUnit::getUnitId).toList(),
+                                picked.get(0).getExpiryDate(),
+                                sourceDemand == 0 ? null : sourceStock / sourceDemand,
+                                destinationStock / destinationDemand
+                        ));
+                    }
+                });
+
+        return suggestions;
+    }
+
+    private Map<String, Double> dailyDemandByBucket() {
+        Aggregation aggregation = Aggregation.newAggregation(UnitEvent.class,
+                Aggregation.match(Criteria.where("toStatus").is(BloodUnit.Status.ISSUED)
+                        .and("occurredAt").gte(businessClock.now().minusDays(demandWindowDays))),
+                Aggregation.group("bloodBankId", "bloodGroup", "componentType").count().as("issued"));
+
+        Map<String, Double> demand = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, UnitEvent.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            String bankId = key.getString("bloodBankId");
+            String group = key.getString("bloodGroup");
+            String component = key.getString("componentType");
+            if (bankId == null || group == null || component == null) continue;
+
+            demand.put(demandKey(bankId, BloodGroup.valueOf(group), BloodComponent.valueOf(component)),
+                    ((Number) row.get("issued")).doubleValue() / demandWindowDays);
+        }
+        return demand;
+    }
+
+    private static String demandKey(String bloodBankId, BloodGroup group, BloodComponent component) {
+        return bloodBankId + "|" + group.name() + "|" + component.name();
+    }
+}
\ No newline at end of file
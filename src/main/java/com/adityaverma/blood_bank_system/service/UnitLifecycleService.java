@@ -0,0 +1,301 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.model.InventorySnapshot;
+import com.adityaverma.blood_bank_system.model.UnitEvent;
+import com.adityaverma.blood_bank_system.repository.InventorySnapshotRepository;
+import com.adityaverma.blood_bank_system.repository.UnitEventRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of unit status transitions. Every transition is written to
+ * {@code unit_events} with a per-bank sequence number and folded into an in-memory
+ * {@link InventoryProjection} for that bank. Every {@code app.unit-events.snapshot-every}
+ * events the projection is saved to {@code inventory_snapshots}, so a rebuild only
+ * replays the tail of the log.
+ * <p>
+ * Sequence numbers are allocated in blocks with one findAndModify per batch. Writers
+ * for the same bank are serialised, which keeps the projection in sequence order; if
+ * another instance wrote in between, the missing range is replayed from Mongo first.
+ * Another instance may have allocated a range without having inserted it yet, so
+ * replay stops at a gap and resumes on the next write or read. A gap older than
+ * {@code app.unit-events.gap-grace-ms} belongs to a writer that failed and is skipped.
+ * <p>
+ * Events are written after the unit they describe, without a transaction: a failure
+ * in between leaves the unit in its new status with no event for it, so the log and
+ * its projections can trail the units collection. The unit document stays
+ * authoritative.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnitLifecycleService {
+    private final MongoTemplate mongoTemplate;
+    private final UnitEventRepository unitEventRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final DailyRollupService dailyRollupService;
+    private final InventoryInvalidationCoordinator invalidationCoordinator;
+    private final LeaseCoordinator leaseCoordinator;
+    private final BusinessClock businessClock;
+
+    @Value("${app.unit-events.snapshot-every:500}")
+    private long snapshotEvery;
+
+    @Value("${app.unit-events.gap-grace-ms:30000}")
+    private long gapGraceMs = 30000;
+
+    @Value("${app.scheduling.job-lease-ms:600000}")
+    private long jobLeaseMs = 600000;
+
+    private static final String SEQUENCES = "unit_event_sequences";
+    private static final int BASELINE_BATCH = 1000;
+
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final Map<String, InventoryProjection> projections = new ConcurrentHashMap<>();
+
+    public record Transition(BloodUnit unit, BloodUnit.Status from, String reference) {}
+
+    public void record(BloodUnit unit, BloodUnit.Status from, String reference) {
+        recordAll(List.of(new Transition(unit, from, reference)));
+    }
+
+    /**
+     * Appends one event per transition, using one sequence allocation and one insert
+     * per bank. {@code unit} must already carry its new status.
+     */
+    public void recordAll(List<Transition> transitions) {
+        Map<String, List<Transition>> byBank = transitions.stream()
+                .filter(t -> t.unit().getBloodBankId() != null && t.from() != t.unit().getStatus())
+                .collect(Collectors.groupingBy(t -> t.unit().getBloodBankId(), LinkedHashMap::new, Collectors.toList()));
+
+        byBank.forEach(this::appendForBank);
+        invalidationCoordinator.markDirty(byBank.keySet());
+    }
+
+    private void appendForBank(String bloodBankId, List<Transition> transitions) {
+        InventorySnapshot snapshot = null;
+        ReentrantLock lock = lockFor(bloodBankId);
+        lock.lock();
+        try {
+            long last = allocateSequences(bloodBankId, transitions.size());
+            long first = last - transitions.size() + 1;
+            LocalDateTime now = businessClock.now();
+
+            List<UnitEvent> events = new ArrayList<>(transitions.size());
+            for (int i = 0; i < transitions.size(); i++) {
+                Transition transition = transitions.get(i);
+                BloodUnit unit = transition.unit();
+                events.add(UnitEvent.builder()
+                        .bloodBankId(bloodBankId)
+                        .sequence(first + i)
+                        .unitId(unit.getUnitId())
+                        .fromStatus(transition.from())
+                        .toStatus(unit.getStatus())
+                        .bloodGroup(unit.getBloodGroup())
+                        .componentType(unit.getComponentType())
+                        .reference(transition.reference())
+                        .occurredAt(now)
+                        .build());
+            }
+
+            mongoTemplate.insert(events, UnitEvent.class);
+            dailyRollupService.recordUnitEvents(events);
+
+            InventoryProjection projection = projections.computeIfAbsent(bloodBankId, this::load);
+            if (projection.getSequence() < first - 1) {
+                catchUp(projection);
+            }
+
+            long before = projection.getSequence();
+            // Behind a gap these are folded in by a later catch-up instead
+            for (UnitEvent event : events) {
+                if (projection.follows(event)) projection.apply(event);
+            }
+
+            if (projection.getSequence() / snapshotEvery != before / snapshotEvery) {
+                snapshot = projection.toSnapshot(businessClock.now());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Written outside the lock; the write itself refuses to go backwards
+        if (snapshot != null) saveSnapshot(snapshot);
+    }
+
+    private long allocateSequences(String bloodBankId, int count) {
+        Document counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(bloodBankId)),
+                new Update().inc("value", (long) count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                SEQUENCES);
+
+        return ((Number) counter.get("value")).longValue();
+    }
+
+    public InventorySnapshot currentProjection(String bloodBankId) {
+        ReentrantLock lock = lockFor(bloodBankId);
+        lock.lock();
+        try {
+            InventoryProjection projection = projections.computeIfAbsent(bloodBankId, this::load);
+            catchUp(projection);
+            return projection.toSnapshot(businessClock.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<UnitEvent> history(String unitId) {
+        return unitEventRepository.findByUnitIdOrderByOccurredAtAscSequenceAsc(unitId);
+    }
+
+    /**
+     * Status of a unit as derived from its events alone.
+     */
+    public Optional<BloodUnit.Status> currentStatus(String unitId) {
+        List<UnitEvent> events = history(unitId);
+        return events.isEmpty() ? Optional.empty() : Optional.ofNullable(events.get(events.size() - 1).getToStatus());
+    }
+
+    /**
+     * Discards the in-memory projection and replays the log, either from the latest
+     * snapshot or from the first event.
+     */
+    public InventorySnapshot rebuild(String bloodBankId, boolean fromSnapshot) {
+        ReentrantLock lock = lockFor(bloodBankId);
+        lock.lock();
+        try {
+            InventoryProjection projection = fromSnapshot
+                    ? load(bloodBankId)
+                    : new InventoryProjection(bloodBankId);
+            catchUp(projection);
+            projections.put(bloodBankId, projection);
+            return projection.toSnapshot(businessClock.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives units that predate the event log an entry event, once per bank, so that
+     * replaying a bank from its first event accounts for every unit. Runs on one
+     * instance only, see {@link LeaseCoordinator}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedBaselines() {
+        leaseCoordinator.runExclusive("seedUnitEventBaselines", Duration.ofMillis(jobLeaseMs), this::seedBaselines);
+    }
+
+    private void seedBaselines(LeaseCoordinator.Fence fence) {
+        Set<String> logged = mongoTemplate.getCollection(SEQUENCES)
+                .distinct("_id", String.class)
+                .into(new HashSet<>());
+
+        Query query = new Query();
+        query.fields().include("unitId", "bloodBankId", "status", "bloodGroup", "componentType");
+
+        Set<String> seeded = new HashSet<>();
+        List<Transition> batch = new ArrayList<>(BASELINE_BATCH);
+        try (Stream<BloodUnit> units = mongoTemplate.stream(query, BloodUnit.class)) {
+            units.filter(unit -> unit.getBloodBankId() != null && !logged.contains(unit.getBloodBankId()))
+                    .forEach(unit -> {
+                        seeded.add(unit.getBloodBankId());
+                        batch.add(new Transition(unit, null, "baseline"));
+                        if (batch.size() == BASELINE_BATCH) {
+                            fence.check();
+                            recordAll(batch);
+                            batch.clear();
+                        }
+                    });
+        }
+        fence.check();
+        recordAll(batch);
+
+        if (!seeded.isEmpty()) {
+            log.info("Seeded unit event baselines for {} blood banks", seeded.size());
+        }
+    }
+
+    private InventoryProjection load(String bloodBankId) {
+        return snapshotRepository.findByBloodBankId(bloodBankId)
+                .map(InventoryProjection::fromSnapshot)
+                .orElseGet(() -> new InventoryProjection(bloodBankId));
+    }
+
+    private void catchUp(InventoryProjection projection) {
+        LocalDateTime abandonedBefore = businessClock.now().minus(Duration.ofMillis(gapGraceMs));
+
+        try (Stream<UnitEvent> tail = unitEventRepository
+                .findByBloodBankIdAndSequenceGreaterThanOrderBySequenceAsc(
+                        projection.getBloodBankId(), projection.getSequence())) {
+            Iterator<UnitEvent> events = tail.iterator();
+            while (events.hasNext()) {
+                UnitEvent event = events.next();
+                if (!projection.follows(event)) {
+                    // The missing range was allocated before this event was written
+                    if (event.getOccurredAt() == null || event.getOccurredAt().isAfter(abandonedBefore)) return;
+
+                    log.warn("Skipping unit event sequences {}-{} of blood bank {}, never written",
+                            projection.getSequence() + 1, event.getSequence() - 1, projection.getBloodBankId());
+                }
+                projection.apply(event);
+            }
+        }
+    }
+
+    /**
+     * Replaces the bank's snapshot only if it is behind this one. When a newer snapshot
+     * is stored, the upsert finds no match and its insert collides on the unique bank
+     * index, which is the expected outcome for a slow or stale writer.
+     */
+    private void saveSnapshot(InventorySnapshot snapshot) {
+        Query behind = new Query(Criteria.where("bloodBankId").is(snapshot.getBloodBankId())
+                .and("sequence").lt(snapshot.getSequence()));
+        Update update = new Update()
+                .set("sequence", snapshot.getSequence())
+                .set("byStatus", snapshot.getByStatus())
+                .set("availableByBloodGroup", snapshot.getAvailableByBloodGroup())
+                .set("availableByComponent", snapshot.getAvailableByComponent())
+                .set("takenAt", snapshot.getTakenAt());
+
+        try {
+            mongoTemplate.upsert(behind, update, InventorySnapshot.class);
+        } catch (DuplicateKeyException e) {
+            log.debug("Kept the stored snapshot of blood bank {}, it is at or past sequence {}",
+                    snapshot.getBloodBankId(), snapshot.getSequence());
+        }
+    }
+
+    private ReentrantLock lockFor(String bloodBankId) {
+        return locks.computeIfAbsent(bloodBankId, id -> new ReentrantLock());
+    }
+}
\ No newline at end of file
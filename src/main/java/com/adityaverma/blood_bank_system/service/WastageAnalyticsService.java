@@ -0,0 +1,219 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.dto.responses.WastageReportResponse;
+import com.adityaverma.blood_bank_system.dto.responses.WastageReportResponse.AtRiskUnit;
+import com.adityaverma.blood_bank_system.dto.responses.WastageReportResponse.BankWastage;
+import com.adityaverma.blood_bank_system.dto.responses.WastageReportResponse.WasteCounts;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Waste rates over units collected in a date range, by bank, component and collection
+ * month. A unit counts as lost once it is EXPIRED or DISCARDED. Each bank is streamed
+ * on its own virtual thread with only the fields the tally needs, and folded into
+ * fixed-size counters, so memory grows with banks x months rather than with units.
+ * At most {@code app.wastage.parallelism} banks are streamed at once.
+ * <p>
+ * Units at risk are AVAILABLE units expiring within {@code app.wastage.at-risk-days},
+ * read from the {@link BloodStockIndex} while it is warm and from the database
+ * otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WastageAnalyticsService {
+    private final MongoTemplate mongoTemplate;
+    private final BloodStockIndex stockIndex;
+    private final BloodUnitRepository bloodUnitRepository;
+    private final BusinessClock businessClock;
+
+    @Value("${app.wastage.at-risk-days:7}")
+    private int atRiskDays;
+
+    @Value("${app.wastage.parallelism:8}")
+    private int parallelism;
+
+    private static final BloodComponent[] COMPONENTS = BloodComponent.values();
+
+    public WastageReportResponse analyse(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Report end date must not be before start date");
+        }
+
+        Set<String> bankIds = new HashSet<>(mongoTemplate.findDistinct(
+                collectedBetween(from, to), "bloodBankId", BloodUnit.class, String.class));
+        bankIds.remove(null);
+
+        Semaphore permits = new Semaphore(parallelism);
+        Map<String, Future<Tally>> pending = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String bankId : bankIds) {
+                pending.put(bankId, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return tally(bankId, from, to);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        Map<String, Tally> tallies = new LinkedHashMap<>();
+        pending.forEach((bankId, future) -> {
+            try {
+                tallies.put(bankId, future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Wastage analysis interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Wastage analysis failed for blood bank " + bankId
+                        + ": " + e.getCause().getMessage());
+            }
+        });
+
+        // Banks with nothing collected in range can still hold stock about to expire
+        Set<String> allBanks = new HashSet<>(tallies.keySet());
+        allBanks.addAll(stockIndex.bankIds());
+
+        LocalDate today = businessClock.today();
+        List<BankWastage> unranked = new ArrayList<>(allBanks.size());
+        for (String bankId : allBanks) {
+            Tally tally = tallies.getOrDefault(bankId, new Tally());
+            unranked.add(new BankWastage(
+                    0,
+                    bankId,
+                    tally.total(),
+                    tally.byComponent(),
+                    tally.byMonth(),
+                    atRisk(bankId, today)));
+        }
+
+        unranked.sort(Comparator.comparingLong((BankWastage bank) -> bank.total().lost()).reversed()
+                .thenComparing(BankWastage::bloodBankId));
+
+        List<BankWastage> ranked = new ArrayList<>(unranked.size());
+        WasteCounts total = WasteCounts.of(0, 0, 0);
+        for (BankWastage bank : unranked) {
+            ranked.add(new BankWastage(ranked.size() + 1, bank.bloodBankId(), bank.total(),
+                    bank.byComponent(), bank.byCollectionMonth(), bank.atRisk()));
+            total = total.plus(bank.total());
+        }
+
+        log.info("Analysed wastage for {} blood banks from {} to {}: {} of {} units lost",
+                ranked.size(), from, to, total.lost(), total.collected());
+
+        return new WastageReportResponse(from, to, total, ranked);
+    }
+
+    public List<AtRiskUnit> atRisk(String bloodBankId, LocalDate today) {
+        LocalDate until = today.plusDays(atRiskDays);
+        List<BloodUnit> expiring = stockIndex.isWarm()
+                ? stockIndex.expiringBetween(bloodBankId, today, until)
+                : bloodUnitRepository.findExpiringBetweenInBanks(List.of(bloodBankId), today, until).stream()
+                        .sorted(Comparator.comparing(BloodUnit::getExpiryDate))
+                        .toList();
+
+        return expiring.stream()
+                .map(unit -> new AtRiskUnit(
+                        unit.getUnitId(), unit.getBloodGroup(), unit.getComponentType(), unit.getExpiryDate()))
+                .toList();
+    }
+
+    private Tally tally(String bloodBankId, LocalDate from, LocalDate to) {
+        Query query = collectedBetween(from, to);
+        query.addCriteria(Criteria.where("bloodBankId").is(bloodBankId));
+        query.fields().include("status", "componentType", "collectionDate");
+
+        Tally tally = new Tally();
+        try (Stream<BloodUnit> units = mongoTemplate.stream(query, BloodUnit.class)) {
+            units.forEach(tally::add);
+        }
+        return tally;
+    }
+
+    private static Query collectedBetween(LocalDate from, LocalDate to) {
+        return new Query(Criteria.where("collectionDate").gte(from).lte(to));
+    }
+
+    /**
+     * Collected, expired and discarded counters for one bank.
+     */
+    static final class Tally {
+        private static final int COLLECTED = 0, EXPIRED = 1, DISCARDED = 2;
+
+        private final long[][] byComponent = new long[COMPONENTS.length][3];
+        private final long[] unknownComponent = new long[3];
+        private final TreeMap<YearMonth, long[]> byMonth = new TreeMap<>();
+
+        void add(BloodUnit unit) {
+            long[] component = unit.getComponentType() != null
+                    ? byComponent[unit.getComponentType().ordinal()]
+                    : unknownComponent;
+            long[] month = byMonth.computeIfAbsent(YearMonth.from(unit.getCollectionDate()), key -> new long[3]);
+
+            component[COLLECTED]++;
+            month[COLLECTED]++;
+            if (unit.getStatus() == BloodUnit.Status.EXPIRED) {
+                component[EXPIRED]++;
+                month[EXPIRED]++;
+            } else if (unit.getStatus() == BloodUnit.Status.DISCARDED) {
+                component[DISCARDED]++;
+                month[DISCARDED]++;
+            }
+        }
+
+        WasteCounts total() {
+            WasteCounts total = counts(unknownComponent);
+            for (long[] component : byComponent) {
+                total = total.plus(counts(component));
+            }
+            return total;
+        }
+
+        Map<String, WasteCounts> byComponent() {
+            Map<String, WasteCounts> result = new LinkedHashMap<>();
+            for (BloodComponent component : COMPONENTS) {
+                long[] values = byComponent[component.ordinal()];
+                if (values[COLLECTED] > 0) result.put(component.name(), counts(values));
+            }
+            return result;
+        }
+
+        Map<String, WasteCounts> byMonth() {
+            Map<String, WasteCounts> result = new LinkedHashMap<>();
+            byMonth.forEach((month, values) -> result.put(month.toString(), counts(values)));
+            return result;
+        }
+
+        private static WasteCounts counts(long[] values) {
+            return WasteCounts.of(values[COLLECTED], values[EXPIRED], values[DISCARDED]);
+        }
+    }
+}
\ No newline at end of file
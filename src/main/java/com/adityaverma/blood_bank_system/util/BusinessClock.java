@@ -0,0 +1,70 @@
+package com.adityaverma.blood_bank_system.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The single source of "now" for business rules. The current business date is cached
+ * as an epoch day and only recomputed when the clock crosses midnight, so hot paths
+ * can read it per request and bulk filters can compare primitive epoch days instead of
+ * resolving the time zone per element.
+ * <p>
+ * Tests construct it over {@link Clock#fixed} or another controllable clock, which
+ * makes date-dependent queries and scheduled jobs deterministic.
+ */
+@Component
+public class BusinessClock {
+
+    private final Clock clock;
+    private volatile Day day;
+
+    private record Day(long epochDay, LocalDate date, long startMillis, long endMillis) {}
+
+    public BusinessClock() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public BusinessClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public LocalDate today() {
+        return day().date();
+    }
+
+    public long epochDay() {
+        return day().epochDay();
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    public Instant instant() {
+        return clock.instant();
+    }
+
+    public Clock clock() {
+        return clock;
+    }
+
+    private Day day() {
+        long millis = clock.millis();
+        Day current = day;
+        // A clock moved backwards, e.g. in a test, also invalidates the cached day
+        if (current == null || millis >= current.endMillis() || millis < current.startMillis()) {
+            LocalDate date = LocalDate.now(clock);
+            current = new Day(
+                    date.toEpochDay(),
+                    date,
+                    date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli());
+            day = current;
+        }
+        return current;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.adityaverma.blood_bank_system.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.mongodb.core.geo.GeoJsonModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Redis value serializer with a small versioned envelope:
+ * <pre>
+ *   magic | format | schema version | flags | [uncompressed length] | payload
+ * </pre>
+ * The payload is either Smile (binary JSON, bound to one declared type, so no class
+ * names are stored) or JDK serialization for values of no fixed type. Payloads of at
+ * least {@code compressionThreshold} bytes are LZ4 compressed, and kept uncompressed
+ * if that does not make them smaller.
+ * <p>
+ * A value written with another format or schema version, or before the envelope was
+ * introduced, reads as {@code null}, which a cache treats as a miss. Bump the schema
+ * version whenever a cached type changes incompatibly, so old entries are recomputed
+ * instead of failing to decode. Instances are immutable and safe to share.
+ */
+@Slf4j
+public final class CompactRedisSerializer<T> implements RedisSerializer<T> {
+
+    public enum Format { JDK, SMILE }
+
+    private static final byte MAGIC = (byte) 0xCB;
+    private static final int HEADER = 4;
+    private static final byte COMPRESSED = 1;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+    private static final LZ4Compressor COMPRESSOR = LZ4.fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4.fastDecompressor();
+
+    private final Format format;
+    private final byte schemaVersion;
+    private final int compressionThreshold;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final RedisSerializer<Object> jdk;
+
+    private CompactRedisSerializer(Format format, int schemaVersion, int compressionThreshold,
+                                   ObjectMapper smileMapper, JavaType type) {
+        if (schemaVersion < 0 || schemaVersion > 127) {
+            throw new IllegalArgumentException("Schema version must be between 0 and 127");
+        }
+        this.format = format;
+        this.schemaVersion = (byte) schemaVersion;
+        this.compressionThreshold = compressionThreshold;
+        this.writer = smileMapper != null ? smileMapper.writerFor(type) : null;
+        this.reader = smileMapper != null ? smileMapper.readerFor(type) : null;
+        this.jdk = smileMapper == null ? RedisSerializer.java(CompactRedisSerializer.class.getClassLoader()) : null;
+    }
+
+    /**
+     * Smile payloads bound to {@code type}, e.g. {@code mapper.constructType(Summary.class)}
+     * or a collection type.
+     *
+     * @param smileMapper          a mapper from {@link #smileMapper()}
+     * @param compressionThreshold payload size from which to compress; negative disables
+     */
+    public static <T> CompactRedisSerializer<T> smile(ObjectMapper smileMapper, JavaType type,
+                                                      int schemaVersion, int compressionThreshold) {
+        return new CompactRedisSerializer<>(Format.SMILE, schemaVersion, compressionThreshold, smileMapper, type);
+    }
+
+    /**
+     * JDK serialization payloads, for values with no fixed type.
+     */
+    public static <T> CompactRedisSerializer<T> jdk(int schemaVersion, int compressionThreshold) {
+        return new CompactRedisSerializer<>(Format.JDK, schemaVersion, compressionThreshold, null, null);
+    }
+
+    /**
+     * As {@link #smile} when {@code format} is SMILE, otherwise as {@link #jdk}.
+     */
+    public static <T> CompactRedisSerializer<T> of(Format format, ObjectMapper smileMapper, JavaType type,
+                                                   int schemaVersion, int compressionThreshold) {
+        return format == Format.SMILE
+                ? smile(smileMapper, type, schemaVersion, compressionThreshold)
+                : jdk(schemaVersion, compressionThreshold);
+    }
+
+    /**
+     * A Smile mapper for cached values. Properties are read from and written to fields
+     * only, so derived getters such as {@code User.getAuthorities()} are not stored;
+     * unknown properties are ignored so a field can be removed without a version bump.
+     */
+    public static ObjectMapper smileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(GeoJsonModule.serializers())
+                .registerModule(GeoJsonModule.deserializers())
+                .setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.SETTER, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) return new byte[0];
+
+        byte[] payload = encode(value);
+        if (compressionThreshold >= 0 && payload.length >= compressionThreshold) {
+            byte[] compressed = new byte[HEADER + 4 + COMPRESSOR.maxCompressedLength(payload.length)];
+            int length = COMPRESSOR.compress(payload, 0, payload.length, compressed, HEADER + 4);
+            if (length + 4 < payload.length) {
+                header(compressed, COMPRESSED);
+                ByteBuffer.wrap(compressed, HEADER, 4).putInt(payload.length);
+                return Arrays.copyOf(compressed, HEADER + 4 + length);
+            }
+        }
+
+        byte[] result = new byte[HEADER + payload.length];
+        header(result, (byte) 0);
+        System.arraycopy(payload, 0, result, HEADER, payload.length);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+
+        if (bytes.length < HEADER || bytes[0] != MAGIC) {
+            log.debug("Ignoring value without a {} envelope", format);
+            return null;
+        }
+        if (bytes[1] != format.ordinal() || bytes[2] != schemaVersion) {
+            log.debug("Ignoring value with format {} and schema version {}, expected {} and {}",
+                    bytes[1], bytes[2], format.ordinal(), schemaVersion);
+            return null;
+        }
+
+        byte[] payload;
+        int offset;
+        int length;
+        if ((bytes[3] & COMPRESSED) != 0) {
+            int uncompressed = ByteBuffer.wrap(bytes, HEADER, 4).getInt();
+            payload = new byte[uncompressed];
+            DECOMPRESSOR.decompress(bytes, HEADER + 4, payload, 0, uncompressed);
+            offset = 0;
+            length = uncompressed;
+        } else {
+            payload = bytes;
+            offset = HEADER;
+            length = bytes.length - HEADER;
+        }
+
+        if (format == Format.JDK) {
+            return (T) jdk.deserialize(offset == 0 ? payload : Arrays.copyOfRange(payload, offset, offset + length));
+        }
+        try {
+            return reader.readValue(payload, offset, length);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile value", e);
+        }
+    }
+
+    private byte[] encode(T value) {
+        if (format == Format.JDK) {
+            return jdk.serialize(value);
+        }
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile value", e);
+        }
+    }
+
+    private void header(byte[] target, byte flags) {
+        target[0] = MAGIC;
+        target[1] = (byte) format.ordinal();
+        target[2] = schemaVersion;
+        target[3] = flags;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.adityaverma.blood_bank_system.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Parses text into an enum constant without allocating. Every constant is reachable by
+ * its name, its display name and any extra aliases; all of them are normalised once
+ * into an open-addressing table. Input is normalised while it is hashed and compared,
+ * character by character: ASCII letters are upper-cased and spaces, tabs and
+ * underscores are ignored, so {@code "a positive"}, {@code "A_POSITIVE"} and
+ * {@code "APositive"} all match. Every other character, such as the sign in
+ * {@code "A-"}, must match exactly.
+ * <p>
+ * Instances are immutable and safe to share.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final String label;
+    private final char[][] keys;
+    private final Object[] values;
+    private final int mask;
+
+    private EnumLookup(Class<E> type, String label, Map<String, E> aliases) {
+        this.type = type;
+        this.label = label;
+        int capacity = Integer.highestOneBit(Math.max(4, aliases.size() * 4) - 1) << 1;
+        this.keys = new char[capacity][];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        aliases.forEach((alias, value) -> {
+            char[] key = normalise(alias);
+            int slot = hash(null, key, 0, key.length) & mask;
+            while (keys[slot] != null) {
+                if (Arrays.equals(keys[slot], key)) {
+                    if (values[slot] != value) {
+                        throw new IllegalArgumentException("Alias '" + alias + "' is ambiguous for " + type.getSimpleName());
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        });
+    }
+
+    /**
+     * @param label       used in error messages, e.g. "blood group"
+     * @param displayName the constant's display name, also accepted as input
+     * @param extra       further aliases per constant; may be empty
+     */
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type, String label,
+                                                      Function<E, String> displayName,
+                                                      Map<E, List<String>> extra) {
+        Map<String, E> aliases = new LinkedHashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            List<String> names = new ArrayList<>();
+            names.add(constant.name());
+            names.add(displayName.apply(constant));
+            names.addAll(extra.getOrDefault(constant, List.of()));
+            for (String name : names) {
+                E previous = aliases.putIfAbsent(name, constant);
+                if (previous != null && previous != constant) {
+                    throw new IllegalArgumentException("Alias '" + name + "' is ambiguous for " + type.getSimpleName());
+                }
+            }
+        }
+        return new EnumLookup<>(type, label, aliases);
+    }
+
+    public Class<E> type() {
+        return type;
+    }
+
+    /**
+     * The matching constant, or {@code null} if the value is null or unknown.
+     */
+    public E find(CharSequence value) {
+        return value == null ? null : find(value, null, 0, value.length());
+    }
+
+    /**
+     * As {@link #find(CharSequence)}, over a slice of a character buffer.
+     */
+    public E find(char[] buffer, int offset, int length) {
+        return find(null, buffer, offset, length);
+    }
+
+    /**
+     * The matching constant, or {@code null} for a null value.
+     *
+     * @throws IllegalArgumentException if the value matches no constant
+     */
+    public E parse(String value) {
+        if (value == null) return null;
+        E result = find(value);
+        if (result == null) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E find(CharSequence text, char[] buffer, int offset, int length) {
+        int slot = hash(text, buffer, offset, length) & mask;
+        while (keys[slot] != null) {
+            if (matches(keys[slot], text, buffer, offset, length)) {
+                return (E) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static int hash(CharSequence text, char[] buffer, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = normalise(text != null ? text.charAt(i) : buffer[i]);
+            if (c != 0) h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(char[] key, CharSequence text, char[] buffer, int offset, int length) {
+        int k = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = normalise(text != null ? text.charAt(i) : buffer[i]);
+            if (c == 0) continue;
+            if (k == key.length || key[k++] != c) return false;
+        }
+        return k == key.length;
+    }
+
+    // 0 marks a character that normalisation drops
+    private static char normalise(char c) {
+        if (c >= 'a' && c <= 'z') return (char) (c - ('a' - 'A'));
+        if (c == ' ' || c == '_' || c == '\t') return 0;
+        return c;
+    }
+
+    private static char[] normalise(String alias) {
+        StringBuilder key = new StringBuilder(alias.length());
+        for (int i = 0; i < alias.length(); i++) {
+            char c = normalise(alias.charAt(i));
+            if (c != 0) key.append(c);
+        }
+        return key.toString().toCharArray();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.adityaverma.blood_bank_system.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON string through an {@link EnumLookup}, straight from the parser's
+ * character buffer so no intermediate String is created.
+ */
+public class EnumLookupDeserializer<E extends Enum<E>> extends StdScalarDeserializer<E> {
+
+    private final EnumLookup<E> lookup;
+
+    public EnumLookupDeserializer(EnumLookup<E> lookup) {
+        super(lookup.type());
+        this.lookup = lookup;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return (E) context.handleUnexpectedToken(handledType(), parser);
+        }
+        if (parser.getTextLength() == 0) {
+            return null;
+        }
+
+        E value = lookup.find(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (value != null) {
+            return value;
+        }
+        return (E) context.handleWeirdStringValue(handledType(), parser.getText(), "not a recognised value");
+    }
+}
\ No newline at end of file
@@ -1,4 +1,51 @@
 package com.adityaverma.blood_bank_system.util;
 
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Business identifiers of the form {@code PREFIX-yyyyMMdd-XXXXXXXX}. The suffix is
+ * eight random base-36 characters drawn from {@link ThreadLocalRandom}, so batch
+ * intake does not contend on a shared generator. Unit IDs are derived from their
+ * donation ID, which keeps every unit traceable to its donation.
+ */
+@Component
 public class IdGenerator {
-}
+
+    private static final DateTimeFormatter ID_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final int SUFFIX_LENGTH = 8;
+
+    public String generateDonationId() {
+        return generate("DON");
+    }
+
+    public String generateRequestId() {
+        return generate("REQ");
+    }
+
+    public String generateImportId() {
+        return generate("IMP");
+    }
+
+    /**
+     * {@code BU-yyyyMMdd-XXXXXXXX-n} for the n-th unit (1-based) split from a donation.
+     */
+    public String generateUnitId(String donationId, int index) {
+        return "BU-" + donationId.substring(donationId.indexOf('-') + 1) + "-" + (index + 1);
+    }
+
+    private String generate(String prefix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder id = new StringBuilder(prefix.length() + 18)
+                .append(prefix).append('-')
+                .append(LocalDate.now().format(ID_DATE)).append('-');
+        for (int i = 0; i < SUFFIX_LENGTH; i++) {
+            id.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return id.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.adityaverma.blood_bank_system.util;
+
+import com.adityaverma.blood_bank_system.model.BloodRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag values for service metrics. Bank ids are unbounded, so only the first
+ * {@code app.metrics.max-bank-tags} banks seen get their own series; the rest
+ * are reported together under {@value #OTHER}.
+ */
+@Component
+public class MetricTags {
+
+    public static final String BANK = "bank";
+    public static final String URGENCY = "urgency";
+    public static final String OUTCOME = "outcome";
+
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+
+    @Value("${app.metrics.max-bank-tags:50}")
+    private int maxBankTags = 50;
+
+    private final Set<String> trackedBanks = ConcurrentHashMap.newKeySet();
+
+    public String bank(String bloodBankId) {
+        if (bloodBankId == null || bloodBankId.isBlank()) return NONE;
+        if (trackedBanks.contains(bloodBankId)) return bloodBankId;
+
+        // Racing callers may overshoot the limit by a few entries, which is harmless
+        if (trackedBanks.size() < maxBankTags) {
+            trackedBanks.add(bloodBankId);
+            return bloodBankId;
+        }
+        return OTHER;
+    }
+
+    public static String urgency(BloodRequest.UrgencyLevel urgencyLevel) {
+        return urgencyLevel == null ? NONE : urgencyLevel.name();
+    }
+}
\ No newline at end of file
@@ -1,4 +1,54 @@
 package com.adityaverma.blood_bank_system.util;
 
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * QR labels for blood units. Units store only the compact text payload; the PNG is
+ * rendered on demand when a label is printed, since rendering costs far more than
+ * building the payload.
+ */
+@Component
 public class QRCodeGenerator {
-}
+
+    private static final String PAYLOAD_VERSION = "BBS1";
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.MARGIN, 1);
+
+    /**
+     * {@code BBS1|unitId|donationId|bloodGroup|component|expiry|bloodBankId}
+     */
+    public String payloadFor(BloodUnit unit) {
+        return String.join("|",
+                PAYLOAD_VERSION,
+                unit.getUnitId(),
+                String.valueOf(unit.getDonationId()),
+                unit.getBloodGroup().name(),
+                unit.getComponentType().name(),
+                unit.getExpiryDate().toString(),
+                String.valueOf(unit.getBloodBankId()));
+    }
+
+    public byte[] toPng(String payload, int size) {
+        try {
+            BitMatrix matrix = new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, size, size, HINTS);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MatrixToImageWriter.writeToStream(matrix, "PNG", out);
+            return out.toByteArray();
+        } catch (WriterException | IOException e) {
+            throw new RuntimeException("Failed to render QR code: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.adityaverma.blood_bank_system.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Wraps a {@link Cache} so that concurrent misses for the same key share one load
+ * (single flight), and a key that was evicted keeps serving its previous value while
+ * one refresh runs in the background (stale-while-revalidate). Only loads through
+ * {@link #get(Object, Callable)}, i.e. {@code @Cacheable(sync = true)}, are coalesced.
+ * <p>
+ * A previous value is served for at most {@code staleMaxAge} after it was last seen
+ * fresh; older ones make the caller wait for the load. Coalescing is per JVM, so each
+ * instance loads a key at most once per refresh.
+ * <p>
+ * A load that overlaps an eviction of its key still answers its own callers, but its
+ * result is never left in the cache: whether the key was evicted since the load began
+ * is checked before the value is stored and again after, and the value is evicted if
+ * either check fails. Eviction marks and previous values are dropped once they are
+ * older than {@code staleMaxAge}; a load still running when the marks it depends on are
+ * dropped is treated as overlapping an eviction.
+ * <p>
+ * Background refreshes run on the given executor without the caller's thread-local
+ * context, such as the security context or a transaction, and log their failures.
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+    private final long staleMaxAgeNanos;
+    private final Executor refreshExecutor;
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Object, Known> lastKnown = new ConcurrentHashMap<>();
+    // Evictions and clears are stamped from one sequence, so a load only has to
+    // remember the sequence value it started at
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Object, Long> evictions = new ConcurrentHashMap<>();
+    private final AtomicLong clearedAt = new AtomicLong();
+    private volatile long prunedThrough;
+    private final AtomicReference<Sweep> lastSweep;
+
+    private record Known(Object value, long seenAtNanos) {}
+
+    private record Sweep(long atNanos, long sequence) {}
+
+    public SingleFlightCache(Cache delegate, Duration staleMaxAge, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.staleMaxAgeNanos = staleMaxAge.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.lastSweep = new AtomicReference<>(new Sweep(System.nanoTime(), 0));
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        pruneIfDue();
+
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            lastKnown.put(key, new Known(cached.get(), System.nanoTime()));
+            return (T) cached.get();
+        }
+
+        Known previous = lastKnown.get(key);
+        if (previous != null && System.nanoTime() - previous.seenAtNanos() <= staleMaxAgeNanos) {
+            load(key, valueLoader, true);
+            return (T) previous.value();
+        }
+
+        try {
+            return (T) load(key, valueLoader, false).join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * Joins the load in flight for the key, or starts one: on the calling thread, or on
+     * the refresh executor for a background refresh.
+     */
+    private CompletableFuture<Object> load(Object key, Callable<?> valueLoader, boolean background) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) return existing;
+
+        long startedAt = sequence.get();
+        Runnable task = () -> {
+            try {
+                Object value = valueLoader.call();
+                if (unchangedSince(key, startedAt)) {
+                    delegate.put(key, value);
+                    if (unchangedSince(key, startedAt)) {
+                        lastKnown.put(key, new Known(value, System.nanoTime()));
+                    } else {
+                        delegate.evict(key);
+                    }
+                }
+                flight.complete(value);
+            } catch (Throwable e) {
+                if (background) {
+                    log.warn("Background refresh of {} in cache {} failed: {}", key, getName(), e.getMessage());
+                }
+                flight.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        };
+
+        if (background) {
+            refreshExecutor.execute(task);
+        } else {
+            task.run();
+        }
+        return flight;
+    }
+
+    private boolean unchangedSince(Object key, long startedAt) {
+        // Read the key's mark before prunedThrough: a mark seen as removed implies the
+        // prunedThrough written before its removal is visible too
+        return evictions.getOrDefault(key, 0L) <= startedAt
+                && clearedAt.get() <= startedAt
+                && prunedThrough <= startedAt;
+    }
+
+    /**
+     * At most once per {@code staleMaxAge}, drops eviction marks stamped before the
+     * previous sweep and previous values too old to be served.
+     */
+    private void pruneIfDue() {
+        long now = System.nanoTime();
+        Sweep previous = lastSweep.get();
+        if (now - previous.atNanos() < staleMaxAgeNanos) return;
+        if (!lastSweep.compareAndSet(previous, new Sweep(now, sequence.get()))) return;
+
+        long floor = previous.sequence();
+        prunedThrough = floor;
+        evictions.values().removeIf(evictedAt -> evictedAt <= floor);
+        lastKnown.values().removeIf(known -> now - known.seenAtNanos() > staleMaxAgeNanos);
+    }
+
+    int trackedKeys() {
+        return evictions.size() + lastKnown.size();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        lastKnown.put(key, new Known(value, System.nanoTime()));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    /**
+     * Removes the entry but keeps its value locally to serve while it is reloaded.
+     */
+    @Override
+    public void evict(Object key) {
+        pruneIfDue();
+        evictions.merge(key, sequence.incrementAndGet(), Math::max);
+        inFlight.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        pruneIfDue();
+        evictions.merge(key, sequence.incrementAndGet(), Math::max);
+        inFlight.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clearedAt.accumulateAndGet(sequence.incrementAndGet(), Math::max);
+        inFlight.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearedAt.accumulateAndGet(sequence.incrementAndGet(), Math::max);
+        inFlight.clear();
+        lastKnown.clear();
+        return delegate.invalidate();
+    }
+}
\ No newline at end of file
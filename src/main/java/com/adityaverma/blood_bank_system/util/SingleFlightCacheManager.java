@@ -0,0 +1,44 @@
+package com.adityaverma.blood_bank_system.util;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decorates every cache of another {@link CacheManager} with a {@link SingleFlightCache}.
+ * Background refreshes run on virtual threads.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Duration staleMaxAge;
+    private final ExecutorService refreshExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cache-refresh-", 0).factory());
+    private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, Duration staleMaxAge) {
+        this.delegate = delegate;
+        this.staleMaxAge = staleMaxAge;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        SingleFlightCache cache = caches.get(name);
+        if (cache != null) return cache;
+
+        Cache target = delegate.getCache(name);
+        if (target == null) return null;
+        return caches.computeIfAbsent(name, key -> new SingleFlightCache(target, staleMaxAge, refreshExecutor));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
\ No newline at end of file
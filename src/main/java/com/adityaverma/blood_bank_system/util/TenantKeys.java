@@ -0,0 +1,16 @@
+package com.adityaverma.blood_bank_system.util;
+
+/**
+ * Cache keys scoped to one blood bank. Every tenant-scoped entry sits under
+ * {@code tenant:{<bankId>}}, so one bank's entries can be found or purged by pattern,
+ * and the braces make them a Redis Cluster hash tag that keeps them in one slot.
+ */
+public final class TenantKeys {
+
+    private TenantKeys() {
+    }
+
+    public static String cacheKey(String bloodBankId) {
+        return "tenant:{" + bloodBankId + "}";
+    }
+}
\ No newline at end of file
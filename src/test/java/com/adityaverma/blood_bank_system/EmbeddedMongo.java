@@ -0,0 +1,36 @@
+package com.adityaverma.blood_bank_system;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * One local mongod for the whole test run, started on first use, for tests that depend
+ * on Mongo's own query and write semantics rather than a stand-in.
+ */
+public final class EmbeddedMongo {
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+
+    private EmbeddedMongo() {
+    }
+
+    public static synchronized MongoTemplate template(String database) {
+        if (client == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            ServerAddress address = mongod.current().getServerAddress();
+            client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                client.close();
+                mongod.close();
+            }));
+        }
+        return new MongoTemplate(client, database);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.EmbeddedMongo;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepositoryCustomImpl;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService.SearchCriteria;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.adityaverma.blood_bank_system.service.SearchFixtures.ALL_CRITERIA;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Mongo fallback of the available-unit search, run against a real mongod with the
+ * entity's indexes, held to the same reference filter and the same results as the
+ * in-memory stock index.
+ */
+class BloodInventorySearchMongoTest {
+
+    private static final int UNIT_COUNT = 20_000;
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private static MongoTemplate mongoTemplate;
+    private static BloodUnitRepositoryCustomImpl repository;
+    private static BloodStockIndex stockIndex;
+    private static List<BloodUnit> units;
+
+    @BeforeAll
+    static void seed() {
+        mongoTemplate = EmbeddedMongo.template("inventory_search_test");
+        repository = new BloodUnitRepositoryCustomImpl(mongoTemplate);
+        stockIndex = new BloodStockIndex(null, new BusinessClock());
+
+        mongoTemplate.dropCollection(BloodUnit.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(BloodUnit.class)
+                .forEach(mongoTemplate.indexOps(BloodUnit.class)::ensureIndex);
+
+        units = SearchFixtures.units(UNIT_COUNT, TODAY);
+        mongoTemplate.insertAll(units);
+        units.forEach(stockIndex::apply);
+    }
+
+    @AfterAll
+    static void drop() {
+        mongoTemplate.dropCollection(BloodUnit.class);
+    }
+
+    @Test
+    void mongoResultsMatchReferenceFilterAndIndexForEachCriteriaType() {
+        for (SearchCriteria criteria : ALL_CRITERIA) {
+            AvailableUnitQuery query = BloodInventoryService.toQuery(criteria, TODAY);
+
+            List<BloodUnit> fromMongo = repository.findAvailable(query);
+            List<String> expected = units.stream()
+                    .filter(SearchFixtures.matching(query))
+                    .map(BloodUnit::getUnitId)
+                    .sorted()
+                    .toList();
+
+            assertThat(fromMongo).as("results for %s", criteria).isNotEmpty();
+            assertThat(unitIds(fromMongo)).as("results for %s", criteria).isEqualTo(expected);
+            assertThat(unitIds(fromMongo)).as("index parity for %s", criteria)
+                    .isEqualTo(unitIds(stockIndex.find(query)));
+            assertThat(fromMongo).isSortedAccordingTo(Comparator.comparing(BloodUnit::getExpiryDate));
+        }
+    }
+
+    @Test
+    void mongoSearchUsesAnIndexForEachCriteriaType() {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(BloodUnit.class);
+
+        for (SearchCriteria criteria : ALL_CRITERIA) {
+            Query query = BloodInventoryService.toQuery(criteria, TODAY).toQuery();
+            Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(BloodUnit.class))
+                    .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                    .sort(mapper.getMappedSort(query.getSortObject(), entity))
+                    .explain();
+
+            assertThat(plan.toJson()).as("plan for %s", criteria).contains("IXSCAN").doesNotContain("COLLSCAN");
+        }
+    }
+
+    @Test
+    void mongoSearchLatencyStaysBoundedForEachCriteriaType() {
+        for (SearchCriteria criteria : ALL_CRITERIA) {
+            AvailableUnitQuery query = BloodInventoryService.toQuery(criteria, TODAY);
+
+            long p99Millis = SearchFixtures.p99Millis(10, 50, () -> repository.findAvailable(query));
+            assertThat(p99Millis).as("p99 for %s", criteria).isLessThan(250);
+        }
+    }
+
+    private static List<String> unitIds(List<BloodUnit> units) {
+        return units.stream().map(BloodUnit::getUnitId).sorted().toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService.SearchCriteria;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import com.adityaverma.blood_bank_system.util.MetricTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.adityaverma.blood_bank_system.service.SearchFixtures.ALL_CRITERIA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BloodInventorySearchTest {
+
+    private static final int UNIT_COUNT = 20_000;
+
+    private final LocalDate today = LocalDate.now();
+    private final List<BloodUnit> units = SearchFixtures.units(UNIT_COUNT, today);
+
+    @Spy
+    private BloodStockIndex stockIndex = new BloodStockIndex(null, new BusinessClock());
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private MetricTags metricTags = new MetricTags();
+    @Spy
+    private BusinessClock businessClock = new BusinessClock();
+    @Mock
+    private BloodUnitRepository repository;
+    @InjectMocks
+    private BloodInventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        units.forEach(stockIndex::apply);
+    }
+
+    @Test
+    void queryPushesEveryPredicateForEachCriteriaType() {
+        Document byGroup = BloodInventoryService.toQuery(ALL_CRITERIA.get(0), today).toQuery().getQueryObject();
+        assertThat(byGroup).containsEntry("status", BloodUnit.Status.AVAILABLE)
+                .containsEntry("bloodGroup", BloodGroup.O_NEGATIVE)
+                .doesNotContainKeys("componentType", "bloodBankId");
+
+        Document byComponent = BloodInventoryService.toQuery(ALL_CRITERIA.get(1), today).toQuery().getQueryObject();
+        assertThat(byComponent).containsEntry("componentType", BloodComponent.PLASMA)
+                .doesNotContainKeys("bloodGroup", "bloodBankId");
+
+        Document byLocation = BloodInventoryService.toQuery(ALL_CRITERIA.get(2), today).toQuery().getQueryObject();
+        assertThat(byLocation).containsEntry("bloodBankId", "BANK-2")
+                .doesNotContainKeys("bloodGroup", "componentType");
+
+        var combinedQuery = BloodInventoryService.toQuery(ALL_CRITERIA.get(3), today).toQuery();
+        assertThat(combinedQuery.getQueryObject())
+                .containsEntry("bloodGroup", BloodGroup.A_POSITIVE)
+                .containsEntry("componentType", BloodComponent.RED_BLOOD_CELLS)
+                .containsEntry("bloodBankId", "BANK-3")
+                .containsEntry("expiryDate", new Document("$gte", today));
+        assertThat(combinedQuery.getSortObject()).containsEntry("expiryDate", 1);
+    }
+
+    @Test
+    void coldIndexFallsBackToSingleMongoQueryWithoutInMemoryFiltering() {
+        when(repository.findAvailable(any())).thenReturn(List.of());
+
+        service.searchAvailableUnits(ALL_CRITERIA.get(3));
+
+        ArgumentCaptor<AvailableUnitQuery> captor = ArgumentCaptor.forClass(AvailableUnitQuery.class);
+        verify(repository).findAvailable(captor.capture());
+        assertThat(captor.getValue().bloodBankId()).isEqualTo("BANK-3");
+        assertThat(captor.getValue().bloodGroups()).containsExactly(BloodGroup.A_POSITIVE);
+        assertThat(captor.getValue().componentType()).isEqualTo(BloodComponent.RED_BLOOD_CELLS);
+    }
+
+    @Test
+    void indexResultsMatchReferenceFilterForEachCriteriaType() {
+        for (SearchCriteria criteria : ALL_CRITERIA) {
+            AvailableUnitQuery query = BloodInventoryService.toQuery(criteria, today);
+
+            List<BloodUnit> fromIndex = stockIndex.find(query);
+            List<String> expected = units.stream()
+                    .filter(SearchFixtures.matching(query))
+                    .map(BloodUnit::getUnitId)
+                    .sorted()
+                    .toList();
+
+            assertThat(fromIndex).as("results for %s", criteria).isNotEmpty();
+            assertThat(fromIndex.stream().map(BloodUnit::getUnitId).sorted().toList())
+                    .as("results for %s", criteria)
+                    .isEqualTo(expected);
+            assertThat(fromIndex).isSortedAccordingTo(Comparator.comparing(BloodUnit::getExpiryDate));
+        }
+    }
+
+    @Test
+    void indexSearchLatencyStaysLowForEachCriteriaType() {
+        for (SearchCriteria criteria : ALL_CRITERIA) {
+            AvailableUnitQuery query = BloodInventoryService.toQuery(criteria, today);
+
+            long p99Millis = SearchFixtures.p99Millis(50, 200, () -> stockIndex.find(query));
+            assertThat(p99Millis).as("p99 for %s", criteria).isLessThan(50);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloodStockIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 5);
+    private static final LocalDateTime T0 = TODAY.atTime(10, 0);
+
+    private final BloodStockIndex index = new BloodStockIndex(null, new BusinessClock());
+
+    @Test
+    void movedUnitIsServedFromItsNewBankOnly() {
+        index.apply(unit("BANK-1", BloodUnit.Status.AVAILABLE, T0));
+        index.apply(unit("BANK-2", BloodUnit.Status.AVAILABLE, T0.plusSeconds(1)));
+
+        assertThat(find("BANK-1")).isEmpty();
+        assertThat(find("BANK-2")).extracting(BloodUnit::getBloodBankId).containsExactly("BANK-2");
+    }
+
+    @Test
+    void olderCopyDoesNotReplaceNewerOne() {
+        index.apply(unit("BANK-2", BloodUnit.Status.AVAILABLE, T0.plusSeconds(1)));
+        index.apply(unit("BANK-1", BloodUnit.Status.AVAILABLE, T0));
+
+        assertThat(find("BANK-1")).isEmpty();
+        assertThat(find("BANK-2")).hasSize(1);
+    }
+
+    @Test
+    void olderCopyDoesNotRestoreRemovedUnit() {
+        index.apply(unit("BANK-1", BloodUnit.Status.AVAILABLE, T0));
+        index.apply(unit("BANK-1", BloodUnit.Status.ISSUED, T0.plusSeconds(1)));
+        index.apply(unit("BANK-1", BloodUnit.Status.AVAILABLE, T0));
+
+        assertThat(find("BANK-1")).isEmpty();
+    }
+
+    @Test
+    void servedUnitsAreDecodedCopies() {
+        BloodUnit stored = unit("BANK-1", BloodUnit.Status.AVAILABLE, T0);
+        index.apply(stored);
+
+        BloodUnit served = find("BANK-1").get(0);
+        assertThat(served).isEqualTo(stored).isNotSameAs(stored);
+    }
+
+    private List<BloodUnit> find(String bloodBankId) {
+        return index.find(AvailableUnitQuery.builder().availableOn(TODAY).bloodBankId(bloodBankId).build());
+    }
+
+    private static BloodUnit unit(String bloodBankId, BloodUnit.Status status, LocalDateTime updatedAt) {
+        return BloodUnit.builder()
+                .unitId("UNIT-1")
+                .bloodBankId(bloodBankId)
+                .bloodGroup(BloodGroup.O_NEGATIVE)
+                .componentType(BloodComponent.PLASMA)
+                .status(status)
+                .expiryDate(TODAY.plusDays(10))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
\ No newline at end of file
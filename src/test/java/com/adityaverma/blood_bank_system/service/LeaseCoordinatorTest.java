@@ -0,0 +1,243 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.Lease;
+import com.adityaverma.blood_bank_system.util.BusinessClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several coordinators in one process, standing in for app replicas, sharing one
+ * in-memory lease store and a clock the test moves forward.
+ */
+class LeaseCoordinatorTest {
+
+    private static final String JOB = "sendDonationReminders";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final InMemoryLeaseStore store = new InMemoryLeaseStore();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-05T10:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<LeaseCoordinator> replicas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        replicas.forEach(LeaseCoordinator::stopRenewals);
+    }
+
+    @Test
+    void jobRunsOnOneReplicaPerLease() {
+        LeaseCoordinator a = replica("a", clock);
+        LeaseCoordinator b = replica("b", clock);
+        LeaseCoordinator c = replica("c", clock);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(a.runExclusive(JOB, TTL, fence -> runs.incrementAndGet())).isTrue();
+        assertThat(b.runExclusive(JOB, TTL, fence -> runs.incrementAndGet())).isFalse();
+        assertThat(c.runExclusive(JOB, TTL, fence -> runs.incrementAndGet())).isFalse();
+
+        // A finished run is not a steal when the lease later moves on
+        clock.advance(TTL.plusSeconds(1));
+        assertThat(b.runExclusive(JOB, TTL, fence -> runs.incrementAndGet())).isTrue();
+
+        assertThat(runs).hasValue(2);
+        assertThat(registry.counter("scheduled_job.skips", "job", JOB).count()).isEqualTo(2);
+        assertThat(registry.find("scheduled_job.steals").counter()).isNull();
+        assertThat(store.get(JOB).getToken()).isEqualTo(2);
+    }
+
+    @Test
+    void stalledHolderIsFencedOffAfterFailover() throws Exception {
+        LeaseCoordinator a = replica("a", clock);
+        LeaseCoordinator b = replica("b", clock);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicInteger writesByA = new AtomicInteger();
+        List<Long> tokens = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Boolean> runA = CompletableFuture.supplyAsync(() -> a.runExclusive(JOB, TTL, fence -> {
+            tokens.add(fence.token());
+            started.countDown();
+            await(resume);
+            fence.check();
+            writesByA.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A stalls past its lease without renewing, and B takes over
+        clock.advance(TTL.plusSeconds(1));
+        assertThat(b.runExclusive(JOB, TTL, fence -> tokens.add(fence.token()))).isTrue();
+        resume.countDown();
+
+        assertThat(runA.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(writesByA).hasValue(0);
+        assertThat(tokens).containsExactly(1L, 2L);
+        assertThat(registry.counter("scheduled_job.steals", "job", JOB).count()).isEqualTo(1);
+        assertThat(registry.counter("scheduled_job.lease_lost", "job", JOB).count()).isEqualTo(1);
+        assertThat(registry.timer("scheduled_job.runs", "job", JOB, "outcome", "lease_lost").count()).isEqualTo(1);
+        assertThat(store.get(JOB).getOwner()).isEqualTo("b");
+    }
+
+    @Test
+    void renewalKeepsLeaseWhileJobRuns() throws Exception {
+        LeaseCoordinator a = replica("a", clock);
+        LeaseCoordinator b = replica("b", clock);
+        // Renewals fire every third of this in real time; the lease itself runs on the test clock
+        Duration ttl = Duration.ofMillis(30);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> runA = CompletableFuture.supplyAsync(() -> a.runExclusive(JOB, ttl, fence -> {
+            started.countDown();
+            await(finish);
+            fence.check();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Well past the original expiry, but never more than half a lease between renewals
+        for (int i = 0; i < 4; i++) {
+            clock.advance(ttl.dividedBy(2));
+            assertThat(store.awaitRenewal(clock.instant(), Duration.ofSeconds(5))).isTrue();
+        }
+
+        assertThat(b.runExclusive(JOB, ttl, fence -> {})).isFalse();
+        finish.countDown();
+        assertThat(runA.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(store.get(JOB).getToken()).isEqualTo(1);
+    }
+
+    private LeaseCoordinator replica(String instanceId, Clock clock) {
+        LeaseCoordinator coordinator = new LeaseCoordinator(store, new BusinessClock(clock), registry);
+        ReflectionTestUtils.setField(coordinator, "instanceId", instanceId);
+        coordinator.resolveInstanceId();
+        replicas.add(coordinator);
+        return coordinator;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Same conditions as the Mongo store, under one lock.
+     */
+    static final class InMemoryLeaseStore implements LeaseStore {
+        private final Map<String, Lease> leases = new HashMap<>();
+        private Instant lastRenewal;
+
+        synchronized Lease get(String name) {
+            return leases.get(name);
+        }
+
+        /**
+         * Waits until a renewal has been made at or after {@code at} on the lease clock.
+         */
+        synchronized boolean awaitRenewal(Instant at, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (lastRenewal == null || lastRenewal.isBefore(at)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+
+        @Override
+        public synchronized Optional<Grant> tryAcquire(String name, String owner, Instant now, Duration ttl) {
+            Lease previous = leases.get(name);
+            if (previous != null && previous.getExpiresAt().isAfter(now) && !owner.equals(previous.getOwner())) {
+                return Optional.empty();
+            }
+            Lease lease = Lease.builder()
+                    .name(name)
+                    .owner(owner)
+                    .token(previous != null ? previous.getToken() + 1 : 1)
+                    .running(true)
+                    .acquiredAt(now)
+                    .expiresAt(now.plus(ttl))
+                    .build();
+            leases.put(name, lease);
+            return Optional.of(new Grant(lease, LeaseStore.stolenFrom(previous, owner)));
+        }
+
+        @Override
+        public synchronized boolean renew(String name, String owner, long token, Instant now, Duration ttl) {
+            Lease lease = held(name, owner, token);
+            if (lease == null || !lease.getExpiresAt().isAfter(now)) return false;
+            lease.setExpiresAt(now.plus(ttl));
+            lastRenewal = now;
+            notifyAll();
+            return true;
+        }
+
+        @Override
+        public synchronized void complete(String name, String owner, long token) {
+            Lease lease = held(name, owner, token);
+            if (lease != null) lease.setRunning(false);
+        }
+
+        @Override
+        public synchronized void release(String name, String owner, long token, Instant now) {
+            Lease lease = held(name, owner, token);
+            if (lease != null) {
+                lease.setRunning(false);
+                lease.setExpiresAt(now);
+            }
+        }
+
+        private Lease held(String name, String owner, long token) {
+            Lease lease = leases.get(name);
+            return lease != null && owner.equals(lease.getOwner()) && lease.getToken() == token ? lease : null;
+        }
+    }
+
+    static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
\ No newline at end of file
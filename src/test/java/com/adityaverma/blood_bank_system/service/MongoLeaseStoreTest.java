@@ -0,0 +1,94 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.EmbeddedMongo;
+import com.adityaverma.blood_bank_system.model.Lease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The conditional upsert against a real mongod: a live lease held elsewhere must make
+ * the upsert collide on {@code _id} rather than create a second document.
+ */
+class MongoLeaseStoreTest {
+
+    private static final String JOB = "sendDonationReminders";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate = EmbeddedMongo.template("lease_store_test");
+    private final MongoLeaseStore store = new MongoLeaseStore(mongoTemplate);
+    private final Instant start = Instant.parse("2026-01-05T10:00:00Z");
+
+    @BeforeEach
+    void clearLeases() {
+        mongoTemplate.dropCollection(Lease.class);
+    }
+
+    @Test
+    void firstAcquisitionCreatesLeaseWithFirstToken() {
+        Optional<LeaseStore.Grant> grant = store.tryAcquire(JOB, "a", start, TTL);
+
+        assertThat(grant).isPresent();
+        assertThat(grant.get().lease().getToken()).isEqualTo(1);
+        assertThat(grant.get().stolenFrom()).isNull();
+        assertThat(stored().getOwner()).isEqualTo("a");
+        assertThat(stored().getExpiresAt()).isEqualTo(start.plus(TTL));
+    }
+
+    @Test
+    void liveLeaseHeldElsewhereIsNotTaken() {
+        store.tryAcquire(JOB, "a", start, TTL);
+
+        assertThat(store.tryAcquire(JOB, "b", start.plusSeconds(60), TTL)).isEmpty();
+        assertThat(mongoTemplate.count(new Query(), Lease.class)).isEqualTo(1);
+        assertThat(stored().getOwner()).isEqualTo("a");
+        assertThat(stored().getToken()).isEqualTo(1);
+    }
+
+    @Test
+    void everyAcquisitionIncrementsToken() {
+        store.tryAcquire(JOB, "a", start, TTL);
+
+        // Re-acquiring a lease already held is not a steal
+        LeaseStore.Grant again = store.tryAcquire(JOB, "a", start.plusSeconds(60), TTL).orElseThrow();
+        assertThat(again.lease().getToken()).isEqualTo(2);
+        assertThat(again.stolenFrom()).isNull();
+        store.complete(JOB, "a", 2);
+
+        Instant afterExpiry = start.plusSeconds(60).plus(TTL).plusSeconds(1);
+        LeaseStore.Grant taken = store.tryAcquire(JOB, "b", afterExpiry, TTL).orElseThrow();
+        assertThat(taken.lease().getToken()).isEqualTo(3);
+        assertThat(taken.stolenFrom()).isNull();
+
+        // B never completes, so C's acquisition after expiry is a steal
+        LeaseStore.Grant stolen = store.tryAcquire(JOB, "c", afterExpiry.plus(TTL).plusSeconds(1), TTL).orElseThrow();
+        assertThat(stolen.lease().getToken()).isEqualTo(4);
+        assertThat(stolen.stolenFrom()).isEqualTo("b");
+        assertThat(stored().getToken()).isEqualTo(4);
+    }
+
+    @Test
+    void previousHolderCannotRenewOrReleaseAfterTakeover() {
+        store.tryAcquire(JOB, "a", start, TTL);
+        Instant afterExpiry = start.plus(TTL).plusSeconds(1);
+        store.tryAcquire(JOB, "b", afterExpiry, TTL);
+
+        assertThat(store.renew(JOB, "a", 1, afterExpiry, TTL)).isFalse();
+        store.release(JOB, "a", 1, afterExpiry);
+
+        assertThat(stored().getOwner()).isEqualTo("b");
+        assertThat(stored().getExpiresAt()).isEqualTo(afterExpiry.plus(TTL));
+        assertThat(store.renew(JOB, "b", 2, afterExpiry.plusSeconds(1), TTL)).isTrue();
+    }
+
+    private Lease stored() {
+        return mongoTemplate.findById(JOB, Lease.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.adityaverma.blood_bank_system.service;
+
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.AvailableUnitQuery;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService.SearchCriteria;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Seeded unit population and criteria shared by the in-memory and Mongo search tests,
+ * with the reference filter both are held to.
+ */
+final class SearchFixtures {
+
+    static final List<String> BANKS = List.of("BANK-1", "BANK-2", "BANK-3", "BANK-4");
+
+    static final List<SearchCriteria> ALL_CRITERIA = List.of(
+            new SearchCriteria.ByBloodGroup("O_NEGATIVE"),
+            new SearchCriteria.ByComponent("PLASMA"),
+            new SearchCriteria.ByLocation("BANK-2"),
+            new SearchCriteria.Combined("A_POSITIVE", "RED_BLOOD_CELLS", "BANK-3")
+    );
+
+    private SearchFixtures() {
+    }
+
+    /**
+     * Mostly AVAILABLE units, a quarter in random states, expiring from ten days ago to
+     * fifty days out.
+     */
+    static List<BloodUnit> units(int count, LocalDate today) {
+        Random random = new Random(42);
+        BloodUnit.Status[] statuses = BloodUnit.Status.values();
+        List<BloodUnit> units = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            units.add(BloodUnit.builder()
+                    .unitId("UNIT-" + i)
+                    .bloodBankId(BANKS.get(random.nextInt(BANKS.size())))
+                    .bloodGroup(BloodGroup.values()[random.nextInt(BloodGroup.values().length)])
+                    .componentType(BloodComponent.values()[random.nextInt(BloodComponent.values().length)])
+                    .status(random.nextInt(4) == 0 ? statuses[random.nextInt(statuses.length)] : BloodUnit.Status.AVAILABLE)
+                    .expiryDate(today.plusDays(random.nextInt(60) - 10))
+                    .build());
+        }
+        return units;
+    }
+
+    static Predicate<BloodUnit> matching(AvailableUnitQuery query) {
+        return unit -> unit.getStatus() == BloodUnit.Status.AVAILABLE
+                && !unit.getExpiryDate().isBefore(query.availableOn())
+                && (query.bloodBankId() == null || query.bloodBankId().equals(unit.getBloodBankId()))
+                && (query.bloodGroups() == null || query.bloodGroups().contains(unit.getBloodGroup()))
+                && (query.componentType() == null || query.componentType() == unit.getComponentType());
+    }
+
+    /**
+     * p99 in milliseconds of {@code samples} timed runs after {@code warmup} untimed ones.
+     */
+    static long p99Millis(int warmup, int samples, Runnable search) {
+        for (int i = 0; i < warmup; i++) search.run();
+
+        long[] timings = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            search.run();
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[(int) (samples * 0.99) - 1] / 1_000_000;
+    }
+}
\ No newline at end of file
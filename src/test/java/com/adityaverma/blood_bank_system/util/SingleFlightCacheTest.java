@@ -0,0 +1,181 @@
+package com.adityaverma.blood_bank_system.util;
+
+import com.adityaverma.blood_bank_system.dto.responses.BloodInventorySummaryResponse;
+import com.adityaverma.blood_bank_system.model.BloodComponent;
+import com.adityaverma.blood_bank_system.model.BloodGroup;
+import com.adityaverma.blood_bank_system.model.BloodUnit;
+import com.adityaverma.blood_bank_system.repository.BloodUnitRepository;
+import com.adityaverma.blood_bank_system.service.BloodInventoryService;
+import com.adityaverma.blood_bank_system.service.DemandForecastService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the cache the way {@code @Cacheable(sync = true)} does, with the inventory
+ * summary as the loader, and counts repository scans.
+ */
+class SingleFlightCacheTest {
+
+    private static final String BANK = "BANK-1";
+    private static final int READERS = 64;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ConcurrentMapCache store = new ConcurrentMapCache("bloodInventory");
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService refreshes = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile List<BloodUnit> units = units(10);
+    private SingleFlightCache cache;
+    private BloodInventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        BloodUnitRepository repository = mock(BloodUnitRepository.class);
+        when(repository.findByBloodBankId(BANK)).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            release.await(10, TimeUnit.SECONDS);
+            return units;
+        });
+        service = new BloodInventoryService(repository, null, null, null, new SimpleMeterRegistry(), new MetricTags(),
+                null, mock(DemandForecastService.class), new BusinessClock(), null);
+        cache = new SingleFlightCache(store, Duration.ofMinutes(1), refreshes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.close();
+        refreshes.close();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        release = new CountDownLatch(1);
+
+        List<Future<BloodInventorySummaryResponse>> results = readAll();
+        awaitLoads(1);
+        // Give every reader time to reach the cache while the load is blocked
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<BloodInventorySummaryResponse> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS).totalAvailable()).isEqualTo(10);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(store.get(BANK)).isNotNull();
+    }
+
+    @Test
+    void evictedKeyServesPreviousValueWhileOneRefreshRuns() throws Exception {
+        read();
+        assertThat(loads).hasValue(1);
+
+        cache.evict(BANK);
+        units = units(4);
+        release = new CountDownLatch(1);
+
+        // Every reader returns the previous summary without waiting for the blocked refresh
+        for (Future<BloodInventorySummaryResponse> result : readAll()) {
+            assertThat(result.get(10, TimeUnit.SECONDS).totalAvailable()).isEqualTo(10);
+        }
+        awaitLoads(2);
+        release.countDown();
+
+        awaitStored();
+        assertThat(read().totalAvailable()).isEqualTo(4);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadOverlappingEvictionIsNotCached() throws Exception {
+        release = new CountDownLatch(1);
+        Future<BloodInventorySummaryResponse> reader = readers.submit(this::read);
+        awaitLoads(1);
+
+        cache.evict(BANK);
+        release.countDown();
+
+        assertThat(reader.get(10, TimeUnit.SECONDS).totalAvailable()).isEqualTo(10);
+        assertThat(store.get(BANK)).isNull();
+    }
+
+    @Test
+    void evictionMarksAndPreviousValuesArePrunedOnceStale() throws Exception {
+        cache = new SingleFlightCache(store, Duration.ofMillis(200), refreshes);
+        for (int i = 0; i < 100; i++) {
+            String key = "KEY-" + i;
+            cache.get(key, () -> key);
+            cache.evict(key);
+        }
+        assertThat(cache.trackedKeys()).isEqualTo(200);
+
+        // The first sweep drops stale values, the next one the marks stamped before the first
+        Thread.sleep(250);
+        cache.evict(BANK);
+        Thread.sleep(250);
+        cache.evict(BANK);
+
+        assertThat(cache.trackedKeys()).isEqualTo(1);
+    }
+
+    private BloodInventorySummaryResponse read() {
+        return cache.get(BANK, () -> service.getInventorySummary(BANK));
+    }
+
+    private List<Future<BloodInventorySummaryResponse>> readAll() {
+        List<Future<BloodInventorySummaryResponse>> results = new ArrayList<>(READERS);
+        for (int i = 0; i < READERS; i++) {
+            results.add(readers.submit(this::read));
+        }
+        return results;
+    }
+
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(loads).hasValue(expected);
+    }
+
+    private void awaitStored() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (store.get(BANK) == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(store.get(BANK)).isNotNull();
+    }
+
+    private static List<BloodUnit> units(int count) {
+        List<BloodUnit> units = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            units.add(BloodUnit.builder()
+                    .unitId("UNIT-" + i)
+                    .bloodBankId(BANK)
+                    .bloodGroup(BloodGroup.O_POSITIVE)
+                    .componentType(BloodComponent.RED_BLOOD_CELLS)
+                    .status(BloodUnit.Status.AVAILABLE)
+                    .expiryDate(LocalDate.now().plusDays(20))
+                    .build());
+        }
+        return units;
+    }
+}
\ No newline at end of file